@@ -8,22 +8,26 @@ import org.mounanga.userservice.entity.User;
 import org.mounanga.userservice.enums.Gender;
 import org.mounanga.userservice.repository.RoleRepository;
 import org.mounanga.userservice.repository.UserRepository;
+import org.mounanga.userservice.util.implementation.RoleCatalog;
 import org.springframework.boot.CommandLineRunner;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.context.annotation.Bean;
 import org.springframework.data.jpa.repository.config.EnableJpaAuditing;
 import org.springframework.scheduling.annotation.EnableAsync;
+import org.springframework.scheduling.annotation.EnableScheduling;
 import org.springframework.security.crypto.password.PasswordEncoder;
 
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.UUID;
+import java.util.stream.Collectors;
 
 @Slf4j
 @EnableJpaAuditing
 @EnableAsync
+@EnableScheduling
 @SpringBootApplication
 public class UserServiceApplication {
 
@@ -34,11 +38,12 @@ public class UserServiceApplication {
 
     @Bean
     CommandLineRunner commandLineRunner(RoleRepository roleRepository,
+                                        RoleCatalog roleCatalog,
                                         UserRepository userRepository,
                                         PasswordEncoder passwordEncoder,
                                         ApplicationProperties applicationProperties) {
         return args -> {
-            if (!roleRepository.existsBy()){
+            if (roleCatalog.isEmpty()){
                 log.info("*************************************************************");
                 roleRepository.save(
                         Role.builder().name("USER").description("the default role that all users should have").build()
@@ -52,6 +57,7 @@ public class UserServiceApplication {
                         Role.builder().name("SUPER_ADMIN").description("the default role that all super administrators should have").build()
                 );
                 log.info("SUPER admin role added");
+                roleCatalog.refresh();
             }
             if(!userRepository.existsBy()){
                 log.info("************************************************************");
@@ -71,7 +77,9 @@ public class UserServiceApplication {
                 log.info("super user added with username {}", savedUser.getUsername());
                 log.info("super user added with password {}", password);
                 log.info("You must change this default password");
-                List<Role> roles = roleRepository.findAll();
+                List<Role> roles = roleCatalog.findAll().stream()
+                        .map(role -> roleRepository.getReferenceById(role.id()))
+                        .collect(Collectors.toList());
                 user.setRoles(roles);
                 userRepository.save(user);
                 log.info("all roles added to super user");
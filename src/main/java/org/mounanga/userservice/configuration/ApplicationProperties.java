@@ -5,6 +5,8 @@ import lombok.NoArgsConstructor;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
+import java.util.List;
+
 
 @Component
 @NoArgsConstructor
@@ -17,6 +19,138 @@ public class ApplicationProperties {
     @Value("${application.security.jwt.expiration}")
     private Long jwtExpiration;
 
+    @Value("${application.security.jwt.algorithm}")
+    private String jwtAlgorithm;
+
+    @Value("${application.security.jwt.keystore.location}")
+    private String jwtKeystoreLocation;
+
+    @Value("${application.security.jwt.keystore.password}")
+    private String jwtKeystorePassword;
+
+    @Value("${application.security.jwt.keystore.active-key}")
+    private String jwtActiveKey;
+
+    @Value("${application.security.jwt.keystore.retired-keys}")
+    private List<String> jwtRetiredKeys;
+
+    @Value("${application.security.jwt.jwks.max-age}")
+    private Long jwksMaxAge;
+
+    @Value("${application.security.jwt.cache.max-size}")
+    private Long jwtCacheMaxSize;
+
+    @Value("${application.security.jwt.cache.max-ttl}")
+    private Long jwtCacheMaxTtl;
+
+    @Value("${application.security.refresh-token.expiration}")
+    private Long refreshTokenExpiration;
+
+    @Value("${application.security.revocation.expected-entries}")
+    private Long revocationExpectedEntries;
+
+    @Value("${application.security.revocation.false-positive-rate}")
+    private Double revocationFalsePositiveRate;
+
+    @Value("${application.security.revocation.recent-entries}")
+    private Long revocationRecentEntries;
+
+    @Value("${application.security.password.encoder}")
+    private String passwordEncoder;
+
+    @Value("${application.security.password.target-hash-time}")
+    private Long passwordTargetHashTime;
+
+    @Value("${application.security.login-notification.device-ttl}")
+    private Long loginDeviceTtl;
+
+    @Value("${application.security.hashing.pool-size}")
+    private Integer hashingPoolSize;
+
+    @Value("${application.security.hashing.queue-capacity}")
+    private Integer hashingQueueCapacity;
+
+    @Value("${application.mail.executor.workers}")
+    private Integer mailWorkers;
+
+    @Value("${application.mail.executor.queue-capacity}")
+    private Integer mailQueueCapacity;
+
+    @Value("${application.mail.executor.rejection-policy}")
+    private String mailRejectionPolicy;
+
+    @Value("${application.mail.executor.shutdown-timeout}")
+    private Integer mailShutdownTimeout;
+
+    @Value("${application.mail.outbox.batch-size}")
+    private Integer mailOutboxBatchSize;
+
+    @Value("${application.mail.outbox.lease}")
+    private Long mailOutboxLease;
+
+    @Value("${application.mail.outbox.max-attempts}")
+    private Integer mailOutboxMaxAttempts;
+
+    @Value("${application.mail.outbox.initial-backoff}")
+    private Long mailOutboxInitialBackoff;
+
+    @Value("${application.mail.outbox.max-backoff}")
+    private Long mailOutboxMaxBackoff;
+
+    @Value("${application.mail.outbox.retention}")
+    private Long mailOutboxRetention;
+
+    @Value("${application.mail.pool.max-size}")
+    private Integer mailPoolMaxSize;
+
+    @Value("${application.mail.pool.max-idle}")
+    private Long mailPoolMaxIdle;
+
+    @Value("${application.mail.pool.validation-interval}")
+    private Long mailPoolValidationInterval;
+
+    @Value("${application.mail.pool.borrow-timeout}")
+    private Long mailPoolBorrowTimeout;
+
+    @Value("${application.search.max-results}")
+    private Integer searchMaxResults;
+
+    @Value("${application.search.suggest.max-limit}")
+    private Integer searchSuggestMaxLimit;
+
+    @Value("${application.bulk.delete-chunk-size}")
+    private Integer bulkDeleteChunkSize;
+
+    @Value("${application.import.batch-size}")
+    private Integer importBatchSize;
+
+    @Value("${application.import.hashing-concurrency}")
+    private Integer importHashingConcurrency;
+
+    @Value("${application.import.request-timeout}")
+    private Long importRequestTimeout;
+
+    @Value("${application.export.fetch-size}")
+    private Integer exportFetchSize;
+
+    @Value("${application.export.stream-results}")
+    private Boolean exportStreamResults;
+
+    @Value("${application.export.request-timeout}")
+    private Long exportRequestTimeout;
+
+    @Value("${application.transfer.workers}")
+    private Integer transferWorkers;
+
+    @Value("${application.availability.expected-entries}")
+    private Long availabilityExpectedEntries;
+
+    @Value("${application.availability.false-positive-rate}")
+    private Double availabilityFalsePositiveRate;
+
+    @Value("${application.availability.refresh-look-back}")
+    private Long availabilityRefreshLookBack;
+
     @Value("${application.mail.email-system}")
     private String emailSystem;
 
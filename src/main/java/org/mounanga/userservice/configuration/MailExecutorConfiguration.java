@@ -0,0 +1,63 @@
+package org.mounanga.userservice.configuration;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.jetbrains.annotations.NotNull;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.util.concurrent.RejectedExecutionHandler;
+import java.util.concurrent.ThreadPoolExecutor;
+
+@Slf4j
+@Configuration
+public class MailExecutorConfiguration {
+
+    public static final String MAIL_EXECUTOR = "mailExecutor";
+
+    private static final String DROP = "drop";
+    private static final String DROP_OLDEST = "drop-oldest";
+    private static final String CALLER_RUNS = "caller-runs";
+    private static final String METRIC_PREFIX = "mail.executor.";
+
+    @Bean(name = MAIL_EXECUTOR)
+    public ThreadPoolTaskExecutor mailExecutor(@NotNull ApplicationProperties properties, @NotNull MeterRegistry meterRegistry) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(properties.getMailWorkers());
+        executor.setMaxPoolSize(properties.getMailWorkers());
+        executor.setQueueCapacity(properties.getMailQueueCapacity());
+        executor.setThreadNamePrefix("mail-");
+        executor.setRejectedExecutionHandler(rejectionPolicy(properties.getMailRejectionPolicy(), meterRegistry));
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.setAwaitTerminationSeconds(properties.getMailShutdownTimeout());
+
+        Gauge.builder(METRIC_PREFIX + "queue.size", executor, ThreadPoolTaskExecutor::getQueueSize)
+                .description("Mails waiting for a worker")
+                .register(meterRegistry);
+        Gauge.builder(METRIC_PREFIX + "active", executor, ThreadPoolTaskExecutor::getActiveCount)
+                .description("Mail workers currently sending")
+                .register(meterRegistry);
+        return executor;
+    }
+
+    private @NotNull RejectedExecutionHandler rejectionPolicy(@NotNull String policy, @NotNull MeterRegistry meterRegistry) {
+        Counter rejected = Counter.builder(METRIC_PREFIX + "rejected")
+                .description("Mails dropped or run by the caller because the queue was full")
+                .tag("policy", policy)
+                .register(meterRegistry);
+        RejectedExecutionHandler delegate = switch (policy) {
+            case DROP -> new ThreadPoolExecutor.DiscardPolicy();
+            case DROP_OLDEST -> new ThreadPoolExecutor.DiscardOldestPolicy();
+            case CALLER_RUNS -> new ThreadPoolExecutor.CallerRunsPolicy();
+            default -> throw new IllegalStateException("Unsupported mail rejection policy " + policy);
+        };
+        return (runnable, executor) -> {
+            rejected.increment();
+            log.warn("mail queue is full, applying '{}' policy", policy);
+            delegate.rejectedExecution(runnable, executor);
+        };
+    }
+}
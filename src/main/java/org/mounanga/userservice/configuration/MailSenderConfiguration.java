@@ -0,0 +1,57 @@
+package org.mounanga.userservice.configuration;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.jetbrains.annotations.NotNull;
+import org.mounanga.userservice.util.implementation.PooledJavaMailSender;
+import org.springframework.boot.autoconfigure.mail.MailProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+import java.util.Properties;
+
+@Configuration
+@EnableConfigurationProperties(MailProperties.class)
+public class MailSenderConfiguration {
+
+    private static final String METRIC_PREFIX = "mail.pool.";
+
+    @Bean
+    public PooledJavaMailSender mailSender(@NotNull MailProperties mailProperties, @NotNull ApplicationProperties properties, @NotNull MeterRegistry meterRegistry) {
+        PooledJavaMailSender sender = new PooledJavaMailSender(
+                properties.getMailPoolMaxSize(),
+                Duration.ofMillis(properties.getMailPoolMaxIdle()),
+                Duration.ofMillis(properties.getMailPoolValidationInterval()),
+                Duration.ofMillis(properties.getMailPoolBorrowTimeout())
+        );
+        sender.setHost(mailProperties.getHost());
+        if (mailProperties.getPort() != null) {
+            sender.setPort(mailProperties.getPort());
+        }
+        sender.setUsername(mailProperties.getUsername());
+        sender.setPassword(mailProperties.getPassword());
+        sender.setProtocol(mailProperties.getProtocol());
+        if (mailProperties.getDefaultEncoding() != null) {
+            sender.setDefaultEncoding(mailProperties.getDefaultEncoding().name());
+        }
+        if (!mailProperties.getProperties().isEmpty()) {
+            Properties javaMailProperties = new Properties();
+            javaMailProperties.putAll(mailProperties.getProperties());
+            sender.setJavaMailProperties(javaMailProperties);
+        }
+
+        Gauge.builder(METRIC_PREFIX + "idle", sender, PooledJavaMailSender::getIdleCount)
+                .description("Open SMTP connections waiting to be reused")
+                .register(meterRegistry);
+        Gauge.builder(METRIC_PREFIX + "active", sender, PooledJavaMailSender::getActiveCount)
+                .description("SMTP connections currently sending")
+                .register(meterRegistry);
+        FunctionCounter.builder(METRIC_PREFIX + "created", sender, PooledJavaMailSender::getCreatedCount)
+                .description("SMTP connections opened since startup")
+                .register(meterRegistry);
+        return sender;
+    }
+}
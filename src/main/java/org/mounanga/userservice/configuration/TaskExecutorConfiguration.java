@@ -0,0 +1,35 @@
+package org.mounanga.userservice.configuration;
+
+import org.jetbrains.annotations.NotNull;
+import org.springframework.boot.autoconfigure.task.TaskExecutionAutoConfiguration;
+import org.springframework.boot.task.ThreadPoolTaskExecutorBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.AsyncAnnotationBeanPostProcessor;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+@Configuration
+public class TaskExecutorConfiguration {
+
+    public static final String APPLICATION_TASK_EXECUTOR = TaskExecutionAutoConfiguration.APPLICATION_TASK_EXECUTOR_BEAN_NAME;
+    public static final String TRANSFER_EXECUTOR = "transferExecutor";
+
+    // Boot backs off its own executor as soon as any Executor bean exists, the mail executor included: without this
+    // one, async requests would fall back to a new thread per request
+    @Bean(name = {APPLICATION_TASK_EXECUTOR, AsyncAnnotationBeanPostProcessor.DEFAULT_TASK_EXECUTOR_BEAN_NAME})
+    public ThreadPoolTaskExecutor applicationTaskExecutor(@NotNull ThreadPoolTaskExecutorBuilder builder) {
+        return builder.build();
+    }
+
+    // imports and exports hold their thread for the whole transfer: they get their own threads, so that they cannot
+    // starve the other async requests, and a transfer over the limit is rejected instead of queued for an hour
+    @Bean(name = TRANSFER_EXECUTOR)
+    public ThreadPoolTaskExecutor transferExecutor(@NotNull ApplicationProperties properties) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(properties.getTransferWorkers());
+        executor.setMaxPoolSize(properties.getTransferWorkers());
+        executor.setQueueCapacity(0);
+        executor.setThreadNamePrefix("transfer-");
+        return executor;
+    }
+}
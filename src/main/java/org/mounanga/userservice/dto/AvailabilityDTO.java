@@ -0,0 +1,7 @@
+package org.mounanga.userservice.dto;
+
+public record AvailabilityDTO(
+        Boolean username,
+        Boolean email,
+        Boolean pin) {
+}
@@ -0,0 +1,9 @@
+package org.mounanga.userservice.dto;
+
+public record BulkDeleteReportDTO(
+        int requested,
+        int deleted,
+        int skipped,
+        int chunks,
+        long durationMillis) {
+}
@@ -0,0 +1,6 @@
+package org.mounanga.userservice.dto;
+
+public record LoginClientDTO(
+        String ipAddress,
+        String userAgent) {
+}
@@ -1,4 +1,4 @@
 package org.mounanga.userservice.dto;
 
-public record LoginResponseDTO(String jwt, boolean passwordNeedsToBeChanged) {
+public record LoginResponseDTO(String jwt, String refreshToken, boolean passwordNeedsToBeChanged) {
 }
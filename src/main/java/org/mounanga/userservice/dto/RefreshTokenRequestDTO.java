@@ -0,0 +1,8 @@
+package org.mounanga.userservice.dto;
+
+import jakarta.validation.constraints.NotBlank;
+
+public record RefreshTokenRequestDTO(
+        @NotBlank(message = "refreshToken is mandatory: it can not be blank")
+        String refreshToken) {
+}
@@ -0,0 +1,10 @@
+package org.mounanga.userservice.dto;
+
+public record SearchableUserDTO(
+        String userId,
+        String username,
+        String email,
+        String firstname,
+        String lastname,
+        String pin) {
+}
@@ -0,0 +1,22 @@
+package org.mounanga.userservice.dto;
+
+import lombok.*;
+
+import java.util.List;
+
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Getter
+@Setter
+@ToString
+public class SliceModel<T> {
+    private boolean hasContent;
+    private boolean hasNext;
+    private int size;
+    private int numberOfElements;
+    private String nextCursor;
+    private boolean truncated;
+    private List<T> content;
+
+}
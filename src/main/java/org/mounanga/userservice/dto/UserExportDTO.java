@@ -0,0 +1,25 @@
+package org.mounanga.userservice.dto;
+
+import com.fasterxml.jackson.annotation.JsonPropertyOrder;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+@JsonPropertyOrder({"id", "username", "email", "enabled", "createdDate", "lastLogin", "firstname", "lastname", "pin",
+        "birthday", "placeOfBirth", "gender", "nationality", "roles"})
+public record UserExportDTO(String id,
+                            String username,
+                            String email,
+                            Boolean enabled,
+                            LocalDateTime createdDate,
+                            LocalDateTime lastLogin,
+                            String firstname,
+                            String lastname,
+                            String pin,
+                            LocalDate birthday,
+                            String placeOfBirth,
+                            String gender,
+                            String nationality,
+                            List<String> roles) {
+}
@@ -0,0 +1,13 @@
+package org.mounanga.userservice.dto;
+
+import org.mounanga.userservice.enums.ImportStatus;
+import org.mounanga.userservice.exception.FieldError;
+
+import java.util.List;
+
+public record UserImportResultDTO(long row,
+                                  ImportStatus status,
+                                  String id,
+                                  String username,
+                                  List<FieldError> errors) {
+}
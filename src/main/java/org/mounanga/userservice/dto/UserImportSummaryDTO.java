@@ -0,0 +1,4 @@
+package org.mounanga.userservice.dto;
+
+public record UserImportSummaryDTO(long rows, long created, long rejected, long failed, long durationMillis) {
+}
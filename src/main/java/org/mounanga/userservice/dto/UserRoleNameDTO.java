@@ -0,0 +1,6 @@
+package org.mounanga.userservice.dto;
+
+public record UserRoleNameDTO(
+        String userId,
+        String roleName) {
+}
@@ -0,0 +1,26 @@
+package org.mounanga.userservice.dto;
+
+import org.mounanga.userservice.enums.Gender;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+public record UserRowDTO(
+        String id,
+        String email,
+        String username,
+        Boolean enabled,
+        LocalDateTime lastLogin,
+        LocalDateTime createdDate,
+        LocalDateTime lastModifiedDate,
+        String createBy,
+        String lastModifiedBy,
+        String profileId,
+        String firstname,
+        String lastname,
+        LocalDate birthday,
+        String placeOfBirth,
+        Gender gender,
+        String nationality,
+        String pin) {
+}
@@ -0,0 +1,50 @@
+package org.mounanga.userservice.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+@Entity
+@Table(
+        uniqueConstraints = @UniqueConstraint(name = "uk_login_device_user_fingerprint", columnNames = {"user_id", "fingerprint"}),
+        indexes = {
+                @Index(name = "idx_login_device_pending_logins", columnList = "pending_logins"),
+                @Index(name = "idx_login_device_last_seen", columnList = "last_seen")
+        }
+)
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Getter
+@Setter
+@ToString
+public class LoginDevice {
+
+    @Id
+    private String id;
+
+    @Column(nullable = false, updatable = false)
+    private String fingerprint;
+
+    @Column(length = 512)
+    private String userAgent;
+
+    private String ipAddress;
+
+    @Column(nullable = false, updatable = false)
+    private LocalDateTime firstSeen;
+
+    @Column(nullable = false)
+    private LocalDateTime lastSeen;
+
+    @Column(nullable = false)
+    private long loginCount;
+
+    @Column(nullable = false)
+    private int pendingLogins;
+
+    @ToString.Exclude
+    @ManyToOne(fetch = FetchType.LAZY, optional = false)
+    private User user;
+}
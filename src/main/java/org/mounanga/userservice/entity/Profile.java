@@ -2,9 +2,12 @@ package org.mounanga.userservice.entity;
 
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import org.jetbrains.annotations.Contract;
 import org.jetbrains.annotations.NotNull;
 import org.mounanga.userservice.enums.Gender;
+import org.mounanga.userservice.util.UniqueConstraints;
 import org.springframework.data.annotation.CreatedBy;
 import org.springframework.data.annotation.CreatedDate;
 import org.springframework.data.annotation.LastModifiedBy;
@@ -15,7 +18,11 @@ import java.time.LocalDate;
 import java.time.LocalDateTime;
 
 @Entity
+@Table(indexes = {
+        @Index(name = "idx_profile_last_modified_date", columnList = "last_modified_date")
+}, uniqueConstraints = @UniqueConstraint(name = UniqueConstraints.PROFILE_PIN, columnNames = "pin"))
 @EntityListeners(AuditingEntityListener.class)
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "profiles")
 @NoArgsConstructor
 @AllArgsConstructor
 @Getter
@@ -27,7 +34,7 @@ public class Profile {
     @GeneratedValue(strategy = GenerationType.UUID)
     private String id;
 
-    @Column(nullable = false, unique = true)
+    @Column(nullable = false)
     private String pin;
 
     @Column(nullable = false)
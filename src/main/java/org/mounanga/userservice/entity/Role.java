@@ -2,6 +2,8 @@ package org.mounanga.userservice.entity;
 
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import org.springframework.data.annotation.CreatedBy;
 import org.springframework.data.annotation.CreatedDate;
 import org.springframework.data.annotation.LastModifiedBy;
@@ -9,9 +11,11 @@ import org.springframework.data.annotation.LastModifiedDate;
 import org.springframework.data.jpa.domain.support.AuditingEntityListener;
 
 import java.time.LocalDateTime;
+import java.util.List;
 
 @Entity
 @EntityListeners(AuditingEntityListener.class)
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "roles")
 @NoArgsConstructor
 @AllArgsConstructor
 @Getter
@@ -19,6 +23,9 @@ import java.time.LocalDateTime;
 @Builder
 @ToString
 public class Role {
+    public static final List<String> DEFAULT_ROLES = List.of("USER", "ADMIN", "MODERATOR", "SUPER_ADMIN");
+    public static final List<String> SUPER_ADMIN_ROLES = List.of("SUPER_ADMIN");
+
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
@@ -42,13 +49,14 @@ public class Role {
     private String lastModifiedBy;
 
     public boolean isSuperAdminRole(){
-        return this.name.equals("SUPER_ADMIN");
+        return isSuperAdminRole(this.name);
+    }
+
+    public static boolean isSuperAdminRole(String name){
+        return name != null && SUPER_ADMIN_ROLES.contains(name);
     }
 
     public boolean isDefaultRole(){
-        return switch (this.name) {
-            case "USER", "ADMIN", "MODERATOR", "SUPER_ADMIN" -> true;
-            default -> false;
-        };
+        return DEFAULT_ROLES.contains(this.name);
     }
 }
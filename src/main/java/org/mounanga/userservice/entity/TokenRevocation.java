@@ -0,0 +1,38 @@
+package org.mounanga.userservice.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+import org.mounanga.userservice.enums.RevocationType;
+
+import java.time.LocalDateTime;
+
+@Entity
+@Table(indexes = {
+        @Index(name = "idx_token_revocation_type_subject", columnList = "type, subject, revoked_at"),
+        @Index(name = "idx_token_revocation_expiry_date", columnList = "expiry_date")
+})
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Getter
+@Setter
+@ToString
+public class TokenRevocation {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false, updatable = false)
+    @Enumerated(EnumType.STRING)
+    private RevocationType type;
+
+    @Column(nullable = false, updatable = false)
+    private String subject;
+
+    @Column(nullable = false, updatable = false)
+    private LocalDateTime revokedAt;
+
+    @Column(nullable = false, updatable = false)
+    private LocalDateTime expiryDate;
+}
@@ -2,6 +2,12 @@ package org.mounanga.userservice.entity;
 
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.BatchSize;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.NaturalId;
+import org.hibernate.annotations.NaturalIdCache;
+import org.mounanga.userservice.util.UniqueConstraints;
 import org.springframework.data.annotation.CreatedBy;
 import org.springframework.data.annotation.CreatedDate;
 import org.springframework.data.annotation.LastModifiedBy;
@@ -13,7 +19,16 @@ import java.util.ArrayList;
 import java.util.List;
 
 @Entity
+@Table(indexes = {
+        @Index(name = "idx_user_created_date_id", columnList = "created_date, id"),
+        @Index(name = "idx_user_last_modified_date", columnList = "last_modified_date")
+}, uniqueConstraints = {
+        @UniqueConstraint(name = UniqueConstraints.USER_EMAIL, columnNames = "email"),
+        @UniqueConstraint(name = UniqueConstraints.USER_USERNAME, columnNames = "username")
+})
 @EntityListeners(AuditingEntityListener.class)
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "users")
+@NaturalIdCache(region = "users-by-username")
 @NoArgsConstructor
 @AllArgsConstructor
 @Getter
@@ -25,10 +40,11 @@ public class User {
     @GeneratedValue(strategy = GenerationType.UUID)
     private String id;
 
-    @Column(unique = true, nullable = false)
+    @Column(nullable = false)
     private String email;
 
-    @Column(unique = true, nullable = false)
+    @NaturalId(mutable = true)
+    @Column(nullable = false)
     private String username;
 
     @Column(nullable = false)
@@ -55,11 +71,13 @@ public class User {
     @Column(nullable = false)
     private boolean passwordNeedsToBeChanged = false;
 
-    @OneToOne(cascade = CascadeType.ALL)
+    @OneToOne(cascade = CascadeType.ALL, fetch = FetchType.LAZY)
     @JoinColumn(name = "profile_id", referencedColumnName = "id")
     private Profile profile;
 
-    @ManyToMany(cascade=CascadeType.ALL, fetch = FetchType.EAGER)
+    @ManyToMany(cascade=CascadeType.ALL, fetch = FetchType.LAZY)
+    @BatchSize(size = 100)
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "user-roles")
     @JoinTable(name="user_role",joinColumns = @JoinColumn(name="user_id") , inverseJoinColumns = @JoinColumn(name="role_id"))
     private List<Role> roles;
 
@@ -0,0 +1,38 @@
+package org.mounanga.userservice.enums;
+
+import lombok.Getter;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.Locale;
+
+@Getter
+public enum DataFormat {
+    NDJSON("application/x-ndjson", "ndjson"),
+    CSV("text/csv", "csv");
+
+    public static final String CSV_MEDIA_TYPE = "text/csv";
+
+    private final String mediaType;
+    private final String extension;
+
+    DataFormat(String mediaType, String extension) {
+        this.mediaType = mediaType;
+        this.extension = extension;
+    }
+
+    public static @NotNull DataFormat fromContentType(String contentType) {
+        if (contentType != null && contentType.toLowerCase(Locale.ROOT).startsWith(CSV_MEDIA_TYPE)) {
+            return CSV;
+        }
+        return NDJSON;
+    }
+
+    public static @NotNull DataFormat fromName(@NotNull String name) {
+        for (DataFormat format : values()) {
+            if (format.extension.equalsIgnoreCase(name.trim())) {
+                return format;
+            }
+        }
+        throw new IllegalArgumentException("Unsupported format '" + name + "', expected 'ndjson' or 'csv'");
+    }
+}
@@ -0,0 +1,5 @@
+package org.mounanga.userservice.enums;
+
+public enum ImportStatus {
+    CREATED, REJECTED, FAILED
+}
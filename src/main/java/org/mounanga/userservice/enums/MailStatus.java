@@ -0,0 +1,5 @@
+package org.mounanga.userservice.enums;
+
+public enum MailStatus {
+    PENDING, SENDING, SENT, FAILED
+}
@@ -0,0 +1,19 @@
+package org.mounanga.userservice.enums;
+
+import lombok.Getter;
+
+@Getter
+public enum MailType {
+    LOGIN_NOTIFICATION("Login Notification", "LOGIN NOTIFICATION"),
+    PASSWORD_RESET_CODE("Password Reset Code", "PASSWORD RESET"),
+    PASSWORD_CHANGED("Password Changed", "PASSWORD CHANGED"),
+    LOGIN_DIGEST("Login Activity Digest", "LOGIN ACTIVITY");
+
+    private final String subject;
+    private final String title;
+
+    MailType(String subject, String title) {
+        this.subject = subject;
+        this.title = title;
+    }
+}
@@ -1,6 +1,9 @@
 package org.mounanga.userservice.exception;
 
 import org.jetbrains.annotations.NotNull;
+import org.mounanga.userservice.util.implementation.UniqueConstraintTranslator;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.authentication.BadCredentialsException;
 import org.springframework.web.bind.MethodArgumentNotValidException;
@@ -9,13 +12,21 @@ import org.springframework.web.bind.annotation.RestControllerAdvice;
 
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.RejectedExecutionException;
 
 import static org.springframework.http.HttpStatus.*;
 
 @RestControllerAdvice
 public class GlobalExceptionHandler {
 
+    private final UniqueConstraintTranslator uniqueConstraintTranslator;
+
+    public GlobalExceptionHandler(UniqueConstraintTranslator uniqueConstraintTranslator) {
+        this.uniqueConstraintTranslator = uniqueConstraintTranslator;
+    }
+
     @ExceptionHandler(BadCredentialsException.class)
     public ResponseEntity<ExceptionResponse> handleException(@NotNull BadCredentialsException exception) {
         return ResponseEntity.status(UNAUTHORIZED).body(new ExceptionResponse(
@@ -37,6 +48,21 @@ public class GlobalExceptionHandler {
         ));
     }
 
+    @ExceptionHandler(DataIntegrityViolationException.class)
+    public ResponseEntity<?> handleException(@NotNull DataIntegrityViolationException exception) {
+        Optional<FieldValidationException> fieldValidationException = uniqueConstraintTranslator.translate(exception);
+        if (fieldValidationException.isPresent()) {
+            return handleException(fieldValidationException.get());
+        }
+        return ResponseEntity.status(CONFLICT).body(new ExceptionResponse(
+                CONFLICT.value(),
+                "Data integrity violation",
+                "The request conflicts with existing data",
+                new HashSet<>(),
+                new HashMap<>()
+        ));
+    }
+
     @ExceptionHandler(NotAuthorizedException.class)
     public ResponseEntity<ExceptionResponse> handleException(@NotNull NotAuthorizedException exception) {
         return ResponseEntity.status(UNAUTHORIZED).body(new ExceptionResponse(
@@ -48,6 +74,17 @@ public class GlobalExceptionHandler {
         ));
     }
 
+    @ExceptionHandler(RefreshTokenNotValidException.class)
+    public ResponseEntity<ExceptionResponse> handleException(@NotNull RefreshTokenNotValidException exception) {
+        return ResponseEntity.status(UNAUTHORIZED).body(new ExceptionResponse(
+                UNAUTHORIZED.value(),
+                exception.getMessage(),
+                exception.getLocalizedMessage(),
+                new HashSet<>(),
+                new HashMap<>()
+        ));
+    }
+
     @ExceptionHandler(ResourceAlreadyExistException.class)
     public ResponseEntity<ExceptionResponse> handleException(@NotNull ResourceAlreadyExistException exception) {
         return ResponseEntity.status(CONFLICT).body(new ExceptionResponse(
@@ -70,6 +107,23 @@ public class GlobalExceptionHandler {
         ));
     }
 
+    @ExceptionHandler(ServiceUnavailableException.class)
+    public ResponseEntity<ExceptionResponse> handleException(@NotNull ServiceUnavailableException exception) {
+        return ResponseEntity.status(SERVICE_UNAVAILABLE).header(HttpHeaders.RETRY_AFTER, "1").body(new ExceptionResponse(
+                SERVICE_UNAVAILABLE.value(),
+                exception.getMessage(),
+                exception.getLocalizedMessage(),
+                new HashSet<>(),
+                new HashMap<>()
+        ));
+    }
+
+    // an import or export over the transfer executor's limit
+    @ExceptionHandler(RejectedExecutionException.class)
+    public ResponseEntity<ExceptionResponse> handleException(@NotNull RejectedExecutionException exception) {
+        return handleException(new ServiceUnavailableException("Server is busy, please retry later"));
+    }
+
     @ExceptionHandler(UserNotAuthenticatedException.class)
     public ResponseEntity<ExceptionResponse> handleException(@NotNull UserNotAuthenticatedException exception) {
         return ResponseEntity.status(UNAUTHORIZED).body(new ExceptionResponse(
@@ -0,0 +1,52 @@
+package org.mounanga.userservice.repository;
+
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.mounanga.userservice.entity.LoginDevice;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+public interface LoginDeviceRepository extends JpaRepository<LoginDevice, String> {
+
+    @Modifying
+    @Query("""
+            update LoginDevice d
+            set d.lastSeen = :lastSeen, d.ipAddress = :ipAddress, d.loginCount = d.loginCount + 1, d.pendingLogins = d.pendingLogins + 1
+            where d.user.id = :userId and d.fingerprint = :fingerprint
+            """)
+    int recordKnownLogin(@Param("userId") String userId, @Param("fingerprint") String fingerprint, @Param("ipAddress") String ipAddress, @Param("lastSeen") LocalDateTime lastSeen);
+
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "login_device"))
+    @Query(value = """
+            insert ignore into login_device (id, user_id, fingerprint, user_agent, ip_address, first_seen, last_seen, login_count, pending_logins)
+            values (:id, :userId, :fingerprint, :userAgent, :ipAddress, :seen, :seen, 1, 0)
+            """, nativeQuery = true)
+    int insertIfAbsent(@Param("id") String id, @Param("userId") String userId, @Param("fingerprint") String fingerprint, @Param("userAgent") String userAgent, @Param("ipAddress") String ipAddress, @Param("seen") LocalDateTime seen);
+
+    @Query("select d from LoginDevice d join fetch d.user u left join fetch u.profile where d.pendingLogins > 0 order by u.id")
+    List<LoginDevice> findWithPendingLogins();
+
+    @Modifying
+    @Query("update LoginDevice d set d.pendingLogins = d.pendingLogins - :count where d.id = :id")
+    int acknowledgePendingLogins(@Param("id") String id, @Param("count") int count);
+
+    @Modifying
+    @Query("delete from LoginDevice d where d.user.id = :userId")
+    int deleteByUserId(@Param("userId") String userId);
+
+    @Modifying
+    @Query("delete from LoginDevice d where d.user.id in :userIds")
+    int deleteByUserIdIn(@Param("userIds") Collection<String> userIds);
+
+    @Modifying
+    @Query("delete from LoginDevice d where d.lastSeen < :date")
+    int deleteNotSeenSince(@Param("date") LocalDateTime date);
+}
@@ -0,0 +1,35 @@
+package org.mounanga.userservice.repository;
+
+import org.mounanga.userservice.entity.MailOutbox;
+import org.mounanga.userservice.enums.MailStatus;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public interface MailOutboxRepository extends JpaRepository<MailOutbox, Long> {
+
+    @Query(value = """
+            select * from mail_outbox
+            where status in ('PENDING', 'SENDING') and next_attempt_at <= :now
+            order by id
+            limit :limit
+            for update skip locked
+            """, nativeQuery = true)
+    List<MailOutbox> findDueForUpdate(@Param("now") LocalDateTime now, @Param("limit") int limit);
+
+    @Modifying
+    @Query("update MailOutbox m set m.status = org.mounanga.userservice.enums.MailStatus.SENT, m.sentDate = :date, m.lastError = null where m.id in :ids")
+    int markSent(@Param("ids") List<Long> ids, @Param("date") LocalDateTime date);
+
+    @Modifying
+    @Query("update MailOutbox m set m.status = :status, m.nextAttemptAt = :nextAttemptAt, m.lastError = :lastError where m.id = :id")
+    int reschedule(@Param("id") Long id, @Param("status") MailStatus status, @Param("nextAttemptAt") LocalDateTime nextAttemptAt, @Param("lastError") String lastError);
+
+    @Modifying
+    @Query("delete from MailOutbox m where m.status = org.mounanga.userservice.enums.MailStatus.SENT and m.sentDate < :date")
+    int deleteSentBefore(@Param("date") LocalDateTime date);
+}
@@ -2,10 +2,22 @@ package org.mounanga.userservice.repository;
 
 import org.mounanga.userservice.entity.Profile;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 public interface ProfileRepository extends JpaRepository<Profile, String> {
     Optional<Profile> findByPin(String pin);
     boolean existsByPin(String pin);
+
+    @Query("select p.pin from Profile p where p.pin in :pins")
+    List<String> findExistingPins(@Param("pins") Collection<String> pins);
+
+    @Modifying
+    @Query("delete from Profile p where p.id in :ids")
+    int deleteByIdIn(@Param("ids") Collection<String> ids);
 }
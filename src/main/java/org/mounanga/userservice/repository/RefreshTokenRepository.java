@@ -0,0 +1,36 @@
+package org.mounanga.userservice.repository;
+
+import org.mounanga.userservice.entity.RefreshToken;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.Optional;
+
+public interface RefreshTokenRepository extends JpaRepository<RefreshToken, String> {
+
+    Optional<RefreshToken> findByTokenHash(String tokenHash);
+
+    @Modifying
+    @Query("update RefreshToken r set r.revoked = true where r.id = :id and r.revoked = false")
+    int revokeIfActive(@Param("id") String id);
+
+    @Modifying
+    @Query("update RefreshToken r set r.revoked = true where r.family = :family")
+    int revokeFamily(@Param("family") String family);
+
+    @Modifying
+    @Query("delete from RefreshToken r where r.user.id = :userId")
+    int deleteByUserId(@Param("userId") String userId);
+
+    @Modifying
+    @Query("delete from RefreshToken r where r.user.id in :userIds")
+    int deleteByUserIdIn(@Param("userIds") Collection<String> userIds);
+
+    @Modifying
+    @Query("delete from RefreshToken r where r.expiryDate < :date")
+    int deleteExpiredBefore(@Param("date") LocalDateTime date);
+}
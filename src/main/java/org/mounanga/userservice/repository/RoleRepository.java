@@ -1,20 +1,33 @@
 package org.mounanga.userservice.repository;
 
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.mounanga.userservice.dto.RoleDTO;
 import org.mounanga.userservice.entity.Role;
-import org.springframework.data.domain.Page;
-import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 
-import java.util.Optional;
+import java.util.Collection;
+import java.util.List;
 
 public interface RoleRepository extends JpaRepository<Role, Long> {
-    Optional<Role> findByName(String name);
     boolean existsByName(String name);
 
-    @Query("select r from Role r where r.name like :kw or r.description like :kw")
-    Page<Role> findByNameOrDescription(@Param("kw") String keyword, Pageable pageable);
+    @Query("select new org.mounanga.userservice.dto.RoleDTO(r.id, r.name, r.description) from Role r order by r.id")
+    List<RoleDTO> findCatalog();
 
-    boolean existsBy();
+    @Query("select r.id from Role r where r.id in :ids and r.name not in :protectedNames")
+    List<Long> findDeletableIds(@Param("ids") Collection<Long> ids, @Param("protectedNames") Collection<String> protectedNames);
+
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "user_role"))
+    @Query(value = "delete from user_role where role_id in :ids", nativeQuery = true)
+    int deleteUserLinksByRoleIdIn(@Param("ids") Collection<Long> ids);
+
+    @Modifying
+    @Query("delete from Role r where r.id in :ids")
+    int deleteByIdIn(@Param("ids") Collection<Long> ids);
 }
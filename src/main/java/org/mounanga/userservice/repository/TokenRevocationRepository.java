@@ -0,0 +1,43 @@
+package org.mounanga.userservice.repository;
+
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.mounanga.userservice.entity.TokenRevocation;
+import org.mounanga.userservice.enums.RevocationType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+public interface TokenRevocationRepository extends JpaRepository<TokenRevocation, Long> {
+
+    @Query("select coalesce(max(t.id), 0) from TokenRevocation t")
+    long findMaxId();
+
+    List<TokenRevocation> findByIdGreaterThan(Long id);
+
+    List<TokenRevocation> findByIdGreaterThanOrIdIn(Long id, Collection<Long> ids);
+
+    List<TokenRevocation> findByExpiryDateAfter(LocalDateTime date);
+
+    @Query("select max(t.revokedAt) from TokenRevocation t where t.type = :type and t.subject = :subject and t.expiryDate > :date")
+    Optional<LocalDateTime> findLatestRevokedAt(@Param("type") RevocationType type, @Param("subject") String subject, @Param("date") LocalDateTime date);
+
+    @Modifying
+    @Query("delete from TokenRevocation t where t.expiryDate < :date")
+    int deleteExpiredBefore(@Param("date") LocalDateTime date);
+
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "token_revocation"))
+    @Query(value = """
+            insert into token_revocation (type, subject, revoked_at, expiry_date)
+            select 'USER', u.username, :revokedAt, :expiryDate from user u where u.id in :userIds
+            """, nativeQuery = true)
+    int insertUserRevocations(@Param("userIds") Collection<String> userIds, @Param("revokedAt") LocalDateTime revokedAt, @Param("expiryDate") LocalDateTime expiryDate);
+}
@@ -0,0 +1,12 @@
+package org.mounanga.userservice.repository;
+
+import org.mounanga.userservice.entity.User;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Optional;
+
+public interface UserNaturalIdRepository {
+
+    @Transactional(readOnly = true)
+    Optional<User> findByUsername(String username);
+}
@@ -1,23 +1,142 @@
 package org.mounanga.userservice.repository;
 
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.hibernate.jpa.SpecHints;
+import org.mounanga.userservice.dto.SearchableUserDTO;
+import org.mounanga.userservice.dto.UserRoleNameDTO;
+import org.mounanga.userservice.dto.UserRowDTO;
 import org.mounanga.userservice.entity.User;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 
-public interface UserRepository extends JpaRepository<User, String> {
-    Optional<User> findByUsername(String username);
+public interface UserRepository extends JpaRepository<User, String>, UserNaturalIdRepository {
+    String USER_ROW = """
+            new org.mounanga.userservice.dto.UserRowDTO(u.id, u.email, u.username, u.enabled, u.lastLogin, u.createdDate,
+            u.lastModifiedDate, u.createBy, u.lastModifiedBy, p.id, p.firstname, p.lastname, p.birthday, p.placeOfBirth,
+            p.gender, p.nationality, p.pin)""";
+
     Optional<User> findByEmail(String email);
+
+    // login and token refresh read the password, enabled flag and roles from the database, never from the
+    // second-level cache, which may hold them for its whole time-to-live after another instance changed them
+    @Transactional(readOnly = true)
+    @QueryHints({
+            @QueryHint(name = SpecHints.HINT_SPEC_CACHE_RETRIEVE_MODE, value = "BYPASS"),
+            @QueryHint(name = SpecHints.HINT_SPEC_CACHE_STORE_MODE, value = "REFRESH")
+    })
+    @Query("select u from User u left join fetch u.roles where u.username = :username")
+    Optional<User> findSecurityStateByUsername(@Param("username") String username);
+
+    @Transactional(readOnly = true)
+    @QueryHints({
+            @QueryHint(name = SpecHints.HINT_SPEC_CACHE_RETRIEVE_MODE, value = "BYPASS"),
+            @QueryHint(name = SpecHints.HINT_SPEC_CACHE_STORE_MODE, value = "REFRESH")
+    })
+    @Query("select u from User u left join fetch u.roles where u.id = :id")
+    Optional<User> findSecurityStateById(@Param("id") String id);
+    Optional<User> findByProfileId(String profileId);
     Optional<User> findByUsernameOrEmail(String username, String email);
-    boolean existsByEmail(String email);
-    boolean existsByUsername(String username);
     boolean existsBy();
 
-    @Query("select u from User u where u.profile.firstname like :kw or u.profile.lastname like :kw or u.profile.pin like :kw")
-    Page<User> search(@Param("kw") String keyword, Pageable pageable);
+    @Query(value = """
+            select 'email' from user where email = :email
+            union all
+            select 'username' from user where username = :username
+            union all
+            select 'pin' from profile where pin = :pin
+            """, nativeQuery = true)
+    List<String> findConflictingFields(@Param("email") String email, @Param("username") String username, @Param("pin") String pin);
+
+    @Query(value = """
+            select 'email' from user where email = :email and id <> :id
+            union all
+            select 'username' from user where username = :username and id <> :id
+            """, nativeQuery = true)
+    List<String> findConflictingFieldsOfOtherUsers(@Param("id") String id, @Param("email") String email, @Param("username") String username);
+
+    @Query(value = "select " + USER_ROW + " from User u left join u.profile p",
+            countQuery = "select count(u) from User u")
+    Page<UserRowDTO> findAllRows(Pageable pageable);
+
+    @Query("select " + USER_ROW + " from User u left join u.profile p where u.id in :ids")
+    List<UserRowDTO> findRowsByIdIn(@Param("ids") Collection<String> ids);
+
+    @Query("select " + USER_ROW + " from User u left join u.profile p order by u.createdDate, u.id")
+    List<UserRowDTO> findFirstSlice(Pageable pageable);
+
+    @Query("select " + USER_ROW + " from User u left join u.profile p where u.createdDate > :createdDate or (u.createdDate = :createdDate and u.id > :id) order by u.createdDate, u.id")
+    List<UserRowDTO> findSliceAfter(@Param("createdDate") LocalDateTime createdDate, @Param("id") String id, Pageable pageable);
+
+    @Query("select " + USER_ROW + " from User u left join u.profile p where u.id in :ids order by u.createdDate, u.id")
+    List<UserRowDTO> findFirstSliceAmong(@Param("ids") Collection<String> ids, Pageable pageable);
+
+    @Query("select " + USER_ROW + """
+             from User u left join u.profile p
+            where u.id in :ids
+            and (u.createdDate > :createdDate or (u.createdDate = :createdDate and u.id > :id))
+            order by u.createdDate, u.id
+            """)
+    List<UserRowDTO> findSliceAfterAmong(@Param("ids") Collection<String> ids, @Param("createdDate") LocalDateTime createdDate, @Param("id") String id, Pageable pageable);
+
+    @Query("select new org.mounanga.userservice.dto.UserRoleNameDTO(u.id, r.name) from User u join u.roles r where u.id in :ids")
+    List<UserRoleNameDTO> findRoleNamesByUserIds(@Param("ids") Collection<String> ids);
+
+    @Query("select new org.mounanga.userservice.dto.SearchableUserDTO(u.id, u.username, u.email, p.firstname, p.lastname, p.pin) from User u join u.profile p")
+    List<SearchableUserDTO> findAllSearchable();
+
+    @Query("select new org.mounanga.userservice.dto.SearchableUserDTO(u.id, u.username, u.email, p.firstname, p.lastname, p.pin) from User u left join u.profile p")
+    List<SearchableUserDTO> findAllUniqueValues();
+
+    // creation sets the modification date too, both through auditing and in the bulk import
+    @Query("""
+            select new org.mounanga.userservice.dto.SearchableUserDTO(u.id, u.username, u.email, p.firstname, p.lastname, p.pin)
+            from User u left join u.profile p where u.lastModifiedDate > :since
+            union
+            select new org.mounanga.userservice.dto.SearchableUserDTO(u.id, u.username, u.email, p.firstname, p.lastname, p.pin)
+            from User u join u.profile p where p.lastModifiedDate > :since
+            """)
+    List<SearchableUserDTO> findUniqueValuesModifiedSince(@Param("since") LocalDateTime since);
+
+    @Transactional
+    @Modifying
+    @Query("update User u set u.password = :password where u.id = :id")
+    int updatePassword(@Param("id") String id, @Param("password") String password);
+
+    @Query("select u.email from User u where u.email in :emails")
+    List<String> findExistingEmails(@Param("emails") Collection<String> emails);
+
+    @Query("select u.username from User u where u.username in :usernames")
+    List<String> findExistingUsernames(@Param("usernames") Collection<String> usernames);
+
+    @Query("""
+            select u.id from User u
+            where u.id in :ids
+            and not exists (select 1 from User s join s.roles r where s.id = u.id and r.name in :protectedNames)
+            """)
+    List<String> findDeletableIds(@Param("ids") Collection<String> ids, @Param("protectedNames") Collection<String> protectedNames);
+
+    @Query("select u.profile.id from User u where u.id in :ids and u.profile is not null")
+    List<String> findProfileIdsByIdIn(@Param("ids") Collection<String> ids);
+
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "user_role"))
+    @Query(value = "delete from user_role where user_id in :ids", nativeQuery = true)
+    int deleteRoleLinksByUserIdIn(@Param("ids") Collection<String> ids);
+
+    @Modifying
+    @Query("delete from User u where u.id in :ids")
+    int deleteByIdIn(@Param("ids") Collection<String> ids);
 }
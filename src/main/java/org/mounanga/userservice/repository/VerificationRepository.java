@@ -2,9 +2,11 @@ package org.mounanga.userservice.repository;
 
 import org.mounanga.userservice.entity.Verification;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
+import java.util.Collection;
 import java.util.Optional;
 
 public interface VerificationRepository extends JpaRepository<Verification, String> {
@@ -14,4 +16,8 @@ public interface VerificationRepository extends JpaRepository<Verification, Stri
 
     @Query("select v from Verification v where v.user.email =:email")
     Optional<Verification> findByEmail(@Param("email") String email);
+
+    @Modifying
+    @Query("delete from Verification v where v.user.id in :userIds")
+    int deleteByUserIdIn(@Param("userIds") Collection<String> userIds);
 }
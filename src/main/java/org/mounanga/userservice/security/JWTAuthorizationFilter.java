@@ -1,16 +1,14 @@
 package org.mounanga.userservice.security;
 
-import com.auth0.jwt.JWT;
 import com.auth0.jwt.JWTVerifier;
-import com.auth0.jwt.algorithms.Algorithm;
 import com.auth0.jwt.interfaces.DecodedJWT;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import org.jetbrains.annotations.NotNull;
-import org.mounanga.userservice.configuration.ApplicationProperties;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
 import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.context.SecurityContextHolder;
@@ -18,8 +16,6 @@ import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
 
 import java.io.IOException;
-import java.util.ArrayList;
-import java.util.Collection;
 import java.util.List;
 
 @Component
@@ -29,10 +25,14 @@ public class JWTAuthorizationFilter extends OncePerRequestFilter {
     private static final String ROLES = "roles";
     private static final String AUTHORIZATION = "Authorization";
 
-    private final ApplicationProperties properties;
+    private final JWTVerifier verifier;
+    private final VerifiedTokenCache verifiedTokenCache;
+    private final TokenRevocationRegistry tokenRevocationRegistry;
 
-    public JWTAuthorizationFilter(ApplicationProperties properties) {
-        this.properties = properties;
+    public JWTAuthorizationFilter(JWTVerifier verifier, VerifiedTokenCache verifiedTokenCache, TokenRevocationRegistry tokenRevocationRegistry) {
+        this.verifier = verifier;
+        this.verifiedTokenCache = verifiedTokenCache;
+        this.tokenRevocationRegistry = tokenRevocationRegistry;
     }
 
     @Override
@@ -43,19 +43,27 @@ public class JWTAuthorizationFilter extends OncePerRequestFilter {
             return;
         }
 
-        JWTVerifier verifier = JWT.require(Algorithm.HMAC256(properties.getJwtSecret())).build();
-        jwt= jwt.substring(7);
-        DecodedJWT decodedJWT = verifier.verify(jwt);
-        String username = decodedJWT.getSubject();
-        List<String> roles = decodedJWT.getClaims().get(ROLES).asList(String.class);
-
-        Collection<GrantedAuthority> authorities = new ArrayList<>();
-        for (String role : roles){
-            authorities.add(new SimpleGrantedAuthority(role));
+        jwt = jwt.substring(BEARER.length());
+        VerifiedToken verifiedToken = verifiedTokenCache.get(jwt);
+        if(verifiedToken == null) {
+            verifiedToken = toVerifiedToken(verifier.verify(jwt));
+            verifiedTokenCache.put(jwt, verifiedToken);
         }
-
-        UsernamePasswordAuthenticationToken user = new UsernamePasswordAuthenticationToken(username,null,authorities);
-        SecurityContextHolder.getContext().setAuthentication(user);
+        if(tokenRevocationRegistry.isRevoked(verifiedToken)) {
+            response.sendError(HttpServletResponse.SC_UNAUTHORIZED, "Token revoked");
+            return;
+        }
+        SecurityContextHolder.getContext().setAuthentication(verifiedToken.authentication());
         filterChain.doFilter(request, response);
     }
+
+    private @NotNull VerifiedToken toVerifiedToken(@NotNull DecodedJWT decodedJWT) {
+        List<String> roles = decodedJWT.getClaim(ROLES).asList(String.class);
+        List<GrantedAuthority> authorities = roles == null ? List.of() : roles.stream()
+                .<GrantedAuthority>map(SimpleGrantedAuthority::new)
+                .toList();
+        Authentication authentication = UsernamePasswordAuthenticationToken.authenticated(decodedJWT.getSubject(), null, authorities);
+        return new VerifiedToken(authentication, decodedJWT.getId(), decodedJWT.getSubject(),
+                decodedJWT.getIssuedAtAsInstant(), decodedJWT.getExpiresAtAsInstant());
+    }
 }
@@ -0,0 +1,117 @@
+package org.mounanga.userservice.security;
+
+import com.auth0.jwt.interfaces.ECDSAKeyProvider;
+import org.jetbrains.annotations.NotNull;
+import org.springframework.core.io.Resource;
+
+import java.io.InputStream;
+import java.math.BigInteger;
+import java.security.Key;
+import java.security.KeyStore;
+import java.security.cert.Certificate;
+import java.security.interfaces.ECPrivateKey;
+import java.security.interfaces.ECPublicKey;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+public class JWTKeyRing implements ECDSAKeyProvider {
+
+    private static final String KEYSTORE_TYPE = "PKCS12";
+    private static final int P256_FIELD_SIZE = 256;
+    private static final int P256_COORDINATE_LENGTH = 32;
+
+    private final String activeKeyId;
+    private final ECPrivateKey activePrivateKey;
+    private final Map<String, ECPublicKey> publicKeys;
+
+    private JWTKeyRing(String activeKeyId, ECPrivateKey activePrivateKey, Map<String, ECPublicKey> publicKeys) {
+        this.activeKeyId = activeKeyId;
+        this.activePrivateKey = activePrivateKey;
+        this.publicKeys = Collections.unmodifiableMap(publicKeys);
+    }
+
+    public static @NotNull JWTKeyRing empty() {
+        return new JWTKeyRing(null, null, new LinkedHashMap<>());
+    }
+
+    public static @NotNull JWTKeyRing load(@NotNull Resource keystore, @NotNull String password, @NotNull String activeAlias, @NotNull List<String> retiredAliases) {
+        char[] secret = password.toCharArray();
+        try (InputStream inputStream = keystore.getInputStream()) {
+            KeyStore keyStore = KeyStore.getInstance(KEYSTORE_TYPE);
+            keyStore.load(inputStream, secret);
+            Key key = keyStore.getKey(activeAlias, secret);
+            if (!(key instanceof ECPrivateKey privateKey)) {
+                throw new IllegalStateException("Active JWT key '" + activeAlias + "' is not an EC private key");
+            }
+            Map<String, ECPublicKey> publicKeys = new LinkedHashMap<>();
+            publicKeys.put(activeAlias, getPublicKey(keyStore, activeAlias));
+            for (String alias : retiredAliases) {
+                publicKeys.put(alias, getPublicKey(keyStore, alias));
+            }
+            return new JWTKeyRing(activeAlias, privateKey, publicKeys);
+        } catch (IllegalStateException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new IllegalStateException("Unable to load JWT keystore " + keystore.getDescription(), e);
+        } finally {
+            Arrays.fill(secret, '\0');
+        }
+    }
+
+    @Override
+    public ECPublicKey getPublicKeyById(String keyId) {
+        return publicKeys.get(keyId == null ? activeKeyId : keyId);
+    }
+
+    @Override
+    public ECPrivateKey getPrivateKey() {
+        return activePrivateKey;
+    }
+
+    @Override
+    public String getPrivateKeyId() {
+        return activeKeyId;
+    }
+
+    public @NotNull Map<String, Object> toJwks() {
+        List<Map<String, String>> keys = new ArrayList<>();
+        publicKeys.forEach((keyId, publicKey) -> keys.add(toJwk(keyId, publicKey)));
+        return Map.of("keys", keys);
+    }
+
+    private static @NotNull ECPublicKey getPublicKey(@NotNull KeyStore keyStore, String alias) throws Exception {
+        Certificate certificate = keyStore.getCertificate(alias);
+        if (certificate == null || !(certificate.getPublicKey() instanceof ECPublicKey publicKey)) {
+            throw new IllegalStateException("JWT key '" + alias + "' has no EC public key");
+        }
+        if (publicKey.getParams().getCurve().getField().getFieldSize() != P256_FIELD_SIZE) {
+            throw new IllegalStateException("JWT key '" + alias + "' is not a P-256 key");
+        }
+        return publicKey;
+    }
+
+    private static @NotNull Map<String, String> toJwk(String keyId, @NotNull ECPublicKey publicKey) {
+        Map<String, String> jwk = new LinkedHashMap<>();
+        jwk.put("kty", "EC");
+        jwk.put("crv", "P-256");
+        jwk.put("use", "sig");
+        jwk.put("alg", "ES256");
+        jwk.put("kid", keyId);
+        jwk.put("x", encodeCoordinate(publicKey.getW().getAffineX()));
+        jwk.put("y", encodeCoordinate(publicKey.getW().getAffineY()));
+        return jwk;
+    }
+
+    private static String encodeCoordinate(@NotNull BigInteger coordinate) {
+        byte[] bytes = coordinate.toByteArray();
+        byte[] padded = new byte[P256_COORDINATE_LENGTH];
+        int length = Math.min(bytes.length, P256_COORDINATE_LENGTH);
+        System.arraycopy(bytes, bytes.length - length, padded, P256_COORDINATE_LENGTH - length, length);
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(padded);
+    }
+}
@@ -0,0 +1,48 @@
+package org.mounanga.userservice.security;
+
+import com.auth0.jwt.JWT;
+import com.auth0.jwt.algorithms.Algorithm;
+import org.jetbrains.annotations.NotNull;
+import org.mounanga.userservice.configuration.ApplicationProperties;
+import org.mounanga.userservice.entity.Role;
+import org.mounanga.userservice.entity.User;
+import org.springframework.stereotype.Component;
+
+import java.util.Date;
+import java.util.List;
+import java.util.UUID;
+
+@Component
+public class JWTTokenProvider {
+
+    private static final String ROLES = "roles";
+    private static final String FULL_NAME = "fullName";
+
+    private final Algorithm algorithm;
+    private final ApplicationProperties properties;
+
+    public JWTTokenProvider(Algorithm algorithm, ApplicationProperties properties) {
+        this.algorithm = algorithm;
+        this.properties = properties;
+    }
+
+    public String generateToken(@NotNull User user) {
+        List<String> roles = user.getRoles().stream().map(Role::getName).toList();
+        long now = System.currentTimeMillis();
+        return JWT.create()
+                .withJWTId(UUID.randomUUID().toString())
+                .withSubject(user.getUsername())
+                .withArrayClaim(ROLES, roles.toArray(new String[0]))
+                .withClaim(FULL_NAME, getFullName(user))
+                .withIssuedAt(new Date(now))
+                .withExpiresAt(new Date(now + properties.getJwtExpiration()))
+                .sign(algorithm);
+    }
+
+    private @NotNull String getFullName(@NotNull User user) {
+        if(user.getProfile() == null){
+            return "";
+        }
+        return user.getProfile().getFullName();
+    }
+}
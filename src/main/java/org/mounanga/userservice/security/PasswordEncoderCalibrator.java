@@ -0,0 +1,101 @@
+package org.mounanga.userservice.security;
+
+import lombok.extern.slf4j.Slf4j;
+import org.jetbrains.annotations.NotNull;
+import org.springframework.security.crypto.argon2.Argon2PasswordEncoder;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.DelegatingPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.Supplier;
+
+@Slf4j
+public class PasswordEncoderCalibrator {
+
+    public static final String BCRYPT = "bcrypt";
+    public static final String ARGON2 = "argon2";
+
+    private static final int BCRYPT_MIN_STRENGTH = 10;
+    private static final int BCRYPT_MAX_STRENGTH = 16;
+    private static final int ARGON2_SALT_LENGTH = 16;
+    private static final int ARGON2_HASH_LENGTH = 32;
+    private static final int ARGON2_PARALLELISM = 1;
+    private static final int ARGON2_MEMORY_KIB = 19 * 1024;
+    private static final int ARGON2_MIN_ITERATIONS = 2;
+    private static final int ARGON2_MAX_ITERATIONS = 10;
+    private static final int SAMPLES = 3;
+    private static final String SAMPLE_PASSWORD = "calibration-Password-1";
+
+    private PasswordEncoderCalibrator() {
+        super();
+    }
+
+    public static @NotNull PasswordEncoder calibrate(@NotNull String encoderId, @NotNull Duration target) {
+        Map<String, PasswordEncoder> encoders = new HashMap<>();
+        BCryptPasswordEncoder bcrypt = switch (encoderId) {
+            case BCRYPT -> calibrateBCrypt(target);
+            case ARGON2 -> {
+                encoders.put(ARGON2, calibrateArgon2(target));
+                yield new BCryptPasswordEncoder();
+            }
+            default -> throw new IllegalStateException("Unsupported password encoder " + encoderId);
+        };
+        encoders.put(BCRYPT, bcrypt);
+        DelegatingPasswordEncoder passwordEncoder = new DelegatingPasswordEncoder(encoderId, encoders);
+        passwordEncoder.setDefaultPasswordEncoderForMatches(bcrypt);
+        return passwordEncoder;
+    }
+
+    private static @NotNull BCryptPasswordEncoder calibrateBCrypt(@NotNull Duration target) {
+        long baseline = measure(() -> new BCryptPasswordEncoder(BCRYPT_MIN_STRENGTH));
+        // each extra round doubles the work, so the strength grows with log2 of the ratio
+        int strength = BCRYPT_MIN_STRENGTH + (int) Math.round(Math.log((double) target.toNanos() / baseline) / Math.log(2));
+        strength = clamp(strength, BCRYPT_MIN_STRENGTH, BCRYPT_MAX_STRENGTH);
+        log.info("bcrypt strength {} selected, strength {} took {} ms for a {} ms target",
+                strength, BCRYPT_MIN_STRENGTH, Duration.ofNanos(baseline).toMillis(), target.toMillis());
+        warnIfSlow(baseline, target);
+        return new BCryptPasswordEncoder(strength);
+    }
+
+    private static @NotNull Argon2PasswordEncoder calibrateArgon2(@NotNull Duration target) {
+        long baseline = measure(() -> argon2(ARGON2_MIN_ITERATIONS));
+        // argon2 time is linear in the number of iterations
+        int iterations = (int) Math.round(ARGON2_MIN_ITERATIONS * (double) target.toNanos() / baseline);
+        iterations = clamp(iterations, ARGON2_MIN_ITERATIONS, ARGON2_MAX_ITERATIONS);
+        log.info("argon2id iterations {} selected ({} KiB memory), {} iterations took {} ms for a {} ms target",
+                iterations, ARGON2_MEMORY_KIB, ARGON2_MIN_ITERATIONS, Duration.ofNanos(baseline).toMillis(), target.toMillis());
+        warnIfSlow(baseline, target);
+        return argon2(iterations);
+    }
+
+    private static @NotNull Argon2PasswordEncoder argon2(int iterations) {
+        return new Argon2PasswordEncoder(ARGON2_SALT_LENGTH, ARGON2_HASH_LENGTH, ARGON2_PARALLELISM, ARGON2_MEMORY_KIB, iterations);
+    }
+
+    private static long measure(@NotNull Supplier<PasswordEncoder> factory) {
+        PasswordEncoder encoder = factory.get();
+        encoder.encode(SAMPLE_PASSWORD);
+        long[] samples = new long[SAMPLES];
+        for (int i = 0; i < SAMPLES; i++) {
+            long start = System.nanoTime();
+            encoder.encode(SAMPLE_PASSWORD);
+            samples[i] = Math.max(1L, System.nanoTime() - start);
+        }
+        Arrays.sort(samples);
+        return samples[SAMPLES / 2];
+    }
+
+    private static void warnIfSlow(long baseline, @NotNull Duration target) {
+        if (baseline > target.toNanos()) {
+            log.warn("the minimum hashing cost already exceeds the {} ms target on this node", target.toMillis());
+        }
+    }
+
+    private static int clamp(int value, int min, int max) {
+        return Math.max(min, Math.min(max, value));
+    }
+}
@@ -0,0 +1,118 @@
+package org.mounanga.userservice.security;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.jetbrains.annotations.NotNull;
+import org.mounanga.userservice.configuration.ApplicationProperties;
+import org.mounanga.userservice.configuration.TaskExecutorConfiguration;
+import org.mounanga.userservice.exception.ServiceUnavailableException;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.security.concurrent.DelegatingSecurityContextExecutor;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+@Slf4j
+@Component
+public class PasswordHashingExecutor {
+
+    private static final String METRIC_PREFIX = "password.hashing.";
+
+    private final ThreadPoolExecutor threadPool;
+    private final Executor executor;
+    private final Executor continuationExecutor;
+    private final Timer waitTimer;
+    private final Counter rejectedCounter;
+
+    public PasswordHashingExecutor(@NotNull ApplicationProperties properties, @NotNull MeterRegistry meterRegistry, @Qualifier(TaskExecutorConfiguration.APPLICATION_TASK_EXECUTOR) Executor continuationExecutor) {
+        int poolSize = properties.getHashingPoolSize() > 0 ? properties.getHashingPoolSize() : Runtime.getRuntime().availableProcessors();
+        this.threadPool = new ThreadPoolExecutor(
+                poolSize,
+                poolSize,
+                0L,
+                TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(properties.getHashingQueueCapacity()),
+                new HashingThreadFactory(),
+                new ThreadPoolExecutor.AbortPolicy()
+        );
+        this.executor = new DelegatingSecurityContextExecutor(threadPool);
+        this.continuationExecutor = continuationExecutor;
+        this.waitTimer = Timer.builder(METRIC_PREFIX + "wait")
+                .description("Time a hashing task spends queued before it starts")
+                .publishPercentiles(0.5, 0.95, 0.99)
+                .register(meterRegistry);
+        this.rejectedCounter = Counter.builder(METRIC_PREFIX + "rejected")
+                .description("Hashing tasks rejected because the queue was full")
+                .register(meterRegistry);
+        Gauge.builder(METRIC_PREFIX + "queue.size", threadPool, pool -> pool.getQueue().size())
+                .description("Hashing tasks waiting for a thread")
+                .register(meterRegistry);
+        Gauge.builder(METRIC_PREFIX + "queue.remaining", threadPool, pool -> pool.getQueue().remainingCapacity())
+                .description("Free slots left in the hashing queue")
+                .register(meterRegistry);
+        Gauge.builder(METRIC_PREFIX + "active", threadPool, ThreadPoolExecutor::getActiveCount)
+                .description("Hashing threads currently busy")
+                .register(meterRegistry);
+        log.info("password hashing pool started with {} threads and a queue of {}", poolSize, properties.getHashingQueueCapacity());
+    }
+
+    public <T> @NotNull CompletableFuture<T> submit(@NotNull Supplier<T> task) {
+        long enqueuedAt = System.nanoTime();
+        try {
+            return CompletableFuture.supplyAsync(() -> {
+                waitTimer.record(System.nanoTime() - enqueuedAt, TimeUnit.NANOSECONDS);
+                return task.get();
+            }, executor);
+        } catch (RejectedExecutionException e) {
+            rejectedCounter.increment();
+            log.warn("password hashing pool saturated, rejecting request");
+            throw new ServiceUnavailableException("Server is busy, please retry later");
+        }
+    }
+
+    // hashes on the pool, then hands the result to the continuation on the application task executor, with the
+    // caller's security context: the request thread is released during the hash, and the transaction that follows
+    // never holds a hashing thread
+    public <T, R> @NotNull CompletableFuture<R> submit(@NotNull Supplier<T> task, @NotNull Function<T, R> continuation) {
+        Executor continuationWithContext = new DelegatingSecurityContextExecutor(continuationExecutor, SecurityContextHolder.getContext());
+        return submit(task).thenApplyAsync(continuation, continuationWithContext);
+    }
+
+    public @NotNull CompletableFuture<Void> run(@NotNull Runnable task) {
+        return submit(() -> {
+            task.run();
+            return null;
+        });
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        threadPool.shutdown();
+    }
+
+    private static class HashingThreadFactory implements ThreadFactory {
+
+        private final AtomicInteger counter = new AtomicInteger();
+
+        @Override
+        public Thread newThread(@NotNull Runnable runnable) {
+            Thread thread = new Thread(runnable, "password-hashing-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }
+    }
+}
@@ -1,37 +1,53 @@
 package org.mounanga.userservice.security;
 
+import com.auth0.jwt.JWT;
+import com.auth0.jwt.JWTVerifier;
+import com.auth0.jwt.algorithms.Algorithm;
 import org.jetbrains.annotations.NotNull;
+import org.mounanga.userservice.configuration.ApplicationProperties;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.io.ResourceLoader;
 import org.springframework.data.domain.AuditorAware;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.AuthenticationProvider;
 import org.springframework.security.authentication.dao.DaoAuthenticationProvider;
 import org.springframework.security.config.annotation.authentication.configuration.AuthenticationConfiguration;
+import org.springframework.security.core.userdetails.UserDetailsPasswordService;
 import org.springframework.security.core.userdetails.UserDetailsService;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 
+import java.time.Duration;
+
 @Configuration
 public class SecurityBeansConfiguration {
 
+    private static final String HS256 = "HS256";
+    private static final String ES256 = "ES256";
+
     private final UserDetailsService userDetailsService;
+    private final UserDetailsPasswordService userDetailsPasswordService;
 
-    public SecurityBeansConfiguration(UserDetailsService userDetailsService) {
+    public SecurityBeansConfiguration(UserDetailsService userDetailsService, UserDetailsPasswordService userDetailsPasswordService) {
         this.userDetailsService = userDetailsService;
+        this.userDetailsPasswordService = userDetailsPasswordService;
     }
 
     @Bean
-    public AuthenticationProvider authenticationProvider(){
+    public AuthenticationProvider authenticationProvider(PasswordEncoder passwordEncoder){
         DaoAuthenticationProvider daoAuthenticationProvider = new DaoAuthenticationProvider();
         daoAuthenticationProvider.setUserDetailsService(userDetailsService);
-        daoAuthenticationProvider.setPasswordEncoder( passwordEncoder());
+        daoAuthenticationProvider.setUserDetailsPasswordService(userDetailsPasswordService);
+        daoAuthenticationProvider.setPasswordEncoder(passwordEncoder);
         return daoAuthenticationProvider;
     }
 
     @Bean
-    public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+    public PasswordEncoder passwordEncoder(@NotNull ApplicationProperties properties) {
+        return PasswordEncoderCalibrator.calibrate(
+                properties.getPasswordEncoder(),
+                Duration.ofMillis(properties.getPasswordTargetHashTime())
+        );
     }
 
     @Bean
@@ -39,6 +55,33 @@ public class SecurityBeansConfiguration {
         return configuration.getAuthenticationManager();
     }
 
+    @Bean
+    public JWTKeyRing jwtKeyRing(@NotNull ApplicationProperties properties, @NotNull ResourceLoader resourceLoader) {
+        if(!ES256.equals(properties.getJwtAlgorithm())) {
+            return JWTKeyRing.empty();
+        }
+        return JWTKeyRing.load(
+                resourceLoader.getResource(properties.getJwtKeystoreLocation()),
+                properties.getJwtKeystorePassword(),
+                properties.getJwtActiveKey(),
+                properties.getJwtRetiredKeys()
+        );
+    }
+
+    @Bean
+    public Algorithm jwtAlgorithm(@NotNull ApplicationProperties properties, JWTKeyRing jwtKeyRing) {
+        return switch (properties.getJwtAlgorithm()) {
+            case HS256 -> Algorithm.HMAC256(properties.getJwtSecret());
+            case ES256 -> Algorithm.ECDSA256(jwtKeyRing);
+            default -> throw new IllegalStateException("Unsupported JWT algorithm " + properties.getJwtAlgorithm());
+        };
+    }
+
+    @Bean
+    public JWTVerifier jwtVerifier(Algorithm jwtAlgorithm) {
+        return JWT.require(jwtAlgorithm).build();
+    }
+
     @Bean
     public AuditorAware<String> auditorAware() {
         return new AuditorAwareImpl();
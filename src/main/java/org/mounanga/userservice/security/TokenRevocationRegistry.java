@@ -0,0 +1,172 @@
+package org.mounanga.userservice.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.jetbrains.annotations.NotNull;
+import org.mounanga.userservice.configuration.ApplicationProperties;
+import org.mounanga.userservice.entity.TokenRevocation;
+import org.mounanga.userservice.enums.RevocationType;
+import org.mounanga.userservice.repository.TokenRevocationRepository;
+import org.mounanga.userservice.util.BloomFilter;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.temporal.ChronoUnit;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Answers whether a verified token is revoked without a query for the vast majority of requests.
+ * <p>
+ * Every active revocation key is held only in a Bloom filter, sized for {@code max(REVOCATION_EXPECTED_ENTRIES,
+ * 2 × active revocations)} keys: about 1.2 MB per million keys at a 1% false-positive rate. Behind it, an exact set
+ * holds at most {@code REVOCATION_RECENT_ENTRIES} keys, the revocations registered or polled since the last rebuild
+ * and the keys looked up since, in least recently used order. A key the filter might hold and the exact set does not
+ * know is looked up in the database by type and subject, and the answer, revoked or not, joins the exact set.
+ * Memory is therefore bounded by the filter and the exact set, whatever the size of the denylist.
+ */
+@Slf4j
+@Component
+public class TokenRevocationRegistry {
+
+    private static final String TOKEN_PREFIX = "t:";
+    private static final String USER_PREFIX = "u:";
+    // marks a key looked up and found not revoked, so that a false positive costs a single query
+    private static final Instant NOT_REVOKED = Instant.MIN;
+    // an id skipped by the poll is retried this long: it belongs to a transaction that has not committed yet, or to a rolled back one
+    private static final Duration GAP_TIMEOUT = Duration.ofMinutes(1);
+    private static final int MAX_GAPS = 10_000;
+
+    private final TokenRevocationRepository tokenRevocationRepository;
+    private final ApplicationProperties properties;
+
+    private volatile Snapshot snapshot;
+    // revocations are polled by id rather than by revokedAt, which is written with the clock of the node that revoked
+    private long lastId;
+    private final Map<Long, LocalDateTime> gaps = new HashMap<>();
+
+    public TokenRevocationRegistry(TokenRevocationRepository tokenRevocationRepository, ApplicationProperties properties) {
+        this.tokenRevocationRepository = tokenRevocationRepository;
+        this.properties = properties;
+    }
+
+    @PostConstruct
+    public void initialize() {
+        rebuild();
+    }
+
+    public boolean isRevoked(@NotNull VerifiedToken token) {
+        Snapshot current = snapshot;
+        if (token.tokenId() != null && notBefore(current, RevocationType.TOKEN, token.tokenId()) != null) {
+            return true;
+        }
+        // iat has a one second precision while notBefore is the second following the revocation: a token issued in
+        // the same second as the revocation may have been issued before it, so it is revoked too
+        Instant notBefore = notBefore(current, RevocationType.USER, token.username());
+        return notBefore != null && (token.issuedAt() == null || token.issuedAt().isBefore(notBefore));
+    }
+
+    public void register(@NotNull TokenRevocation revocation) {
+        snapshot.add(revocation);
+    }
+
+    @Scheduled(fixedDelayString = "${application.security.revocation.refresh-interval}")
+    public synchronized void refresh() {
+        LocalDateTime now = LocalDateTime.now();
+        List<TokenRevocation> revocations = gaps.isEmpty()
+                ? tokenRevocationRepository.findByIdGreaterThan(lastId)
+                : tokenRevocationRepository.findByIdGreaterThanOrIdIn(lastId, gaps.keySet());
+        Snapshot current = snapshot;
+        revocations.forEach(current::add);
+        track(revocations, now);
+        if (current.count().get() > current.capacity()) {
+            log.info("token revocation registry holds {} keys for a capacity of {}: rebuilding", current.count().get(), current.capacity());
+            rebuild();
+        }
+    }
+
+    public synchronized void rebuild() {
+        LocalDateTime now = LocalDateTime.now();
+        if (lastId == 0) {
+            lastId = tokenRevocationRepository.findMaxId();
+        }
+        List<TokenRevocation> revocations = tokenRevocationRepository.findByExpiryDateAfter(now);
+        long capacity = Math.max(properties.getRevocationExpectedEntries(), revocations.size() * 2L);
+        Snapshot rebuilt = Snapshot.create(capacity, properties.getRevocationFalsePositiveRate(), properties.getRevocationRecentEntries());
+        // only the filter is filled: the exact set starts empty and learns the keys as they are looked up
+        revocations.forEach(rebuilt::index);
+        snapshot = rebuilt;
+        track(revocations, now);
+        log.info("token revocation registry rebuilt with {} entries", revocations.size());
+    }
+
+    private Instant notBefore(@NotNull Snapshot current, @NotNull RevocationType type, @NotNull String subject) {
+        String key = key(type, subject);
+        if (!current.filter().mightContain(key)) {
+            return null;
+        }
+        Instant notBefore = current.recent().get(key, ignored -> tokenRevocationRepository
+                .findLatestRevokedAt(type, subject, LocalDateTime.now())
+                .map(TokenRevocationRegistry::notBefore)
+                .orElse(NOT_REVOKED));
+        return NOT_REVOKED.equals(notBefore) ? null : notBefore;
+    }
+
+    private void track(@NotNull List<TokenRevocation> revocations, LocalDateTime now) {
+        Set<Long> seen = new HashSet<>();
+        long maxId = lastId;
+        for (TokenRevocation revocation : revocations) {
+            seen.add(revocation.getId());
+            gaps.remove(revocation.getId());
+            maxId = Math.max(maxId, revocation.getId());
+        }
+        for (long id = lastId + 1; id < maxId && gaps.size() < MAX_GAPS; id++) {
+            if (!seen.contains(id)) {
+                gaps.put(id, now);
+            }
+        }
+        lastId = maxId;
+        gaps.values().removeIf(since -> since.isBefore(now.minus(GAP_TIMEOUT)));
+    }
+
+    private static @NotNull String key(@NotNull RevocationType type, @NotNull String subject) {
+        return (type == RevocationType.TOKEN ? TOKEN_PREFIX : USER_PREFIX) + subject;
+    }
+
+    private static @NotNull Instant notBefore(@NotNull LocalDateTime revokedAt) {
+        return revokedAt.atZone(ZoneId.systemDefault()).toInstant().truncatedTo(ChronoUnit.SECONDS).plusSeconds(1);
+    }
+
+    private record Snapshot(BloomFilter filter, Cache<String, Instant> recent, AtomicLong count, long capacity) {
+
+        static @NotNull Snapshot create(long capacity, double falsePositiveRate, long recentEntries) {
+            return new Snapshot(BloomFilter.create(capacity, falsePositiveRate),
+                    Caffeine.newBuilder().maximumSize(recentEntries).build(), new AtomicLong(), capacity);
+        }
+
+        void add(@NotNull TokenRevocation revocation) {
+            String key = index(revocation);
+            // a pending lookup of the same key completes first, the latest revocation wins over it
+            recent.asMap().merge(key, notBefore(revocation.getRevokedAt()), (previous, next) -> next.isAfter(previous) ? next : previous);
+        }
+
+        String index(@NotNull TokenRevocation revocation) {
+            String key = key(revocation.getType(), revocation.getSubject());
+            if (!filter.mightContain(key)) {
+                filter.put(key);
+                count.incrementAndGet();
+            }
+            return key;
+        }
+    }
+}
@@ -1,23 +1,18 @@
 package org.mounanga.userservice.security;
 
 import lombok.extern.slf4j.Slf4j;
-import org.jetbrains.annotations.NotNull;
-import org.mounanga.userservice.entity.Role;
 import org.mounanga.userservice.entity.User;
 import org.mounanga.userservice.repository.UserRepository;
-import org.springframework.security.core.GrantedAuthority;
-import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsPasswordService;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
-
-import java.util.ArrayList;
-import java.util.List;
+import org.springframework.transaction.annotation.Transactional;
 
 @Slf4j
 @Service
-public class UserDetailsServiceImpl implements UserDetailsService {
+public class UserDetailsServiceImpl implements UserDetailsService, UserDetailsPasswordService {
 
     private final UserRepository userRepository;
 
@@ -25,24 +20,28 @@ public class UserDetailsServiceImpl implements UserDetailsService {
         this.userRepository = userRepository;
     }
 
+    @Transactional(readOnly = true)
     @Override
     public UserDetails loadUserByUsername(String username) throws UsernameNotFoundException {
         log.info("In loadUserByUsername()");
         User user = getUserByUsername(username);
         log.info("User found");
-        List<GrantedAuthority> grantedAuthorities = getAuthorities(user.getRoles());
-        return new org.springframework.security.core.userdetails.
-                User(user.getUsername(), user.getPassword(), grantedAuthorities);
+        return new AuthenticatedUser(user);
     }
 
-    private User getUserByUsername(final String username) {
-        return userRepository.findByUsername(username)
-                .orElseThrow(() -> new UsernameNotFoundException("User not found"));
+    @Override
+    public UserDetails updatePassword(UserDetails userDetails, String newPassword) {
+        log.info("In updatePassword()");
+        User user = userDetails instanceof AuthenticatedUser authenticatedUser
+                ? authenticatedUser.getUser()
+                : getUserByUsername(userDetails.getUsername());
+        userRepository.updatePassword(user.getId(), newPassword);
+        log.info("password hash of user '{}' upgraded", user.getUsername());
+        return new AuthenticatedUser(user, newPassword);
     }
 
-    private @NotNull List<GrantedAuthority> getAuthorities(final @NotNull List<Role> roles) {
-        List<GrantedAuthority> authorities = new ArrayList<>();
-        roles.forEach(role -> authorities.add(new SimpleGrantedAuthority(role.getName())));
-        return authorities;
+    private User getUserByUsername(final String username) {
+        return userRepository.findSecurityStateByUsername(username)
+                .orElseThrow(() -> new UsernameNotFoundException("User not found"));
     }
 }
@@ -0,0 +1,12 @@
+package org.mounanga.userservice.security;
+
+import org.springframework.security.core.Authentication;
+
+import java.time.Instant;
+
+public record VerifiedToken(Authentication authentication,
+                            String tokenId,
+                            String username,
+                            Instant issuedAt,
+                            Instant expiresAt) {
+}
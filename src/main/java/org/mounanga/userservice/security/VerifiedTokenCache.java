@@ -0,0 +1,59 @@
+package org.mounanga.userservice.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import org.jetbrains.annotations.NotNull;
+import org.mounanga.userservice.configuration.ApplicationProperties;
+import org.mounanga.userservice.util.TokenHasher;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+
+@Component
+public class VerifiedTokenCache {
+
+    private final Cache<String, VerifiedToken> cache;
+
+    public VerifiedTokenCache(@NotNull ApplicationProperties properties) {
+        Duration maxTtl = Duration.ofMillis(properties.getJwtCacheMaxTtl());
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(properties.getJwtCacheMaxSize())
+                .expireAfter(new TokenExpiry(maxTtl))
+                .build();
+    }
+
+    public VerifiedToken get(@NotNull String token) {
+        return cache.getIfPresent(TokenHasher.sha256(token));
+    }
+
+    public void put(@NotNull String token, @NotNull VerifiedToken verifiedToken) {
+        cache.put(TokenHasher.sha256(token), verifiedToken);
+    }
+
+    private record TokenExpiry(Duration maxTtl) implements Expiry<String, VerifiedToken> {
+
+        @Override
+        public long expireAfterCreate(@NotNull String key, @NotNull VerifiedToken value, long currentTime) {
+            if (value.expiresAt() == null) {
+                return maxTtl.toNanos();
+            }
+            Duration remaining = Duration.between(Instant.now(), value.expiresAt());
+            if (remaining.isNegative()) {
+                return 0L;
+            }
+            return remaining.compareTo(maxTtl) < 0 ? remaining.toNanos() : maxTtl.toNanos();
+        }
+
+        @Override
+        public long expireAfterUpdate(@NotNull String key, @NotNull VerifiedToken value, long currentTime, long currentDuration) {
+            return expireAfterCreate(key, value, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(@NotNull String key, @NotNull VerifiedToken value, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
+}
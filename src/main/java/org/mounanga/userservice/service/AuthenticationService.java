@@ -1,9 +1,15 @@
 package org.mounanga.userservice.service;
 
+import org.mounanga.userservice.dto.LoginClientDTO;
 import org.mounanga.userservice.dto.LoginRequestDTO;
 import org.mounanga.userservice.dto.LoginResponseDTO;
+import org.mounanga.userservice.dto.RefreshTokenRequestDTO;
+
+import java.util.concurrent.CompletableFuture;
 
 public interface AuthenticationService {
 
-    LoginResponseDTO authenticate(LoginRequestDTO request);
+    CompletableFuture<LoginResponseDTO> authenticate(LoginRequestDTO request, LoginClientDTO client);
+    LoginResponseDTO refresh(RefreshTokenRequestDTO request);
+    void logout(String authorization);
 }
@@ -0,0 +1,10 @@
+package org.mounanga.userservice.service;
+
+import org.mounanga.userservice.dto.BulkDeleteReportDTO;
+
+import java.util.List;
+
+public interface BulkDeleteService {
+    BulkDeleteReportDTO deleteUsers(List<String> ids);
+    BulkDeleteReportDTO deleteRoles(List<Long> ids);
+}
@@ -0,0 +1,11 @@
+package org.mounanga.userservice.service;
+
+import org.mounanga.userservice.enums.DataFormat;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+public interface ExportService {
+    long exportUsers(DataFormat format, boolean gzip, OutputStream output) throws IOException;
+    long exportRoles(DataFormat format, boolean gzip, OutputStream output) throws IOException;
+}
@@ -0,0 +1,8 @@
+package org.mounanga.userservice.service;
+
+import java.time.LocalDateTime;
+
+public interface LastLoginService {
+    void recordLogin(String userId, LocalDateTime loginDateTime);
+    int flush();
+}
@@ -0,0 +1,12 @@
+package org.mounanga.userservice.service;
+
+import org.mounanga.userservice.dto.LoginClientDTO;
+import org.mounanga.userservice.entity.User;
+
+import java.time.LocalDateTime;
+
+public interface LoginDeviceService {
+    boolean recordLogin(User user, LoginClientDTO client, LocalDateTime loginDateTime);
+    void sendLoginDigests();
+    void purgeStaleDevices();
+}
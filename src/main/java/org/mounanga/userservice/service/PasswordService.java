@@ -3,8 +3,10 @@ package org.mounanga.userservice.service;
 import org.mounanga.userservice.dto.EmailRequestDTO;
 import org.mounanga.userservice.dto.ResetPasswordRequestDTO;
 
+import java.util.concurrent.CompletableFuture;
+
 public interface PasswordService {
 
     void sendResetCode(EmailRequestDTO request);
-    void resetPassword(ResetPasswordRequestDTO request);
+    CompletableFuture<Void> resetPassword(ResetPasswordRequestDTO request);
 }
@@ -0,0 +1,11 @@
+package org.mounanga.userservice.service;
+
+import org.mounanga.userservice.entity.RefreshToken;
+import org.mounanga.userservice.entity.User;
+
+public interface RefreshTokenService {
+    String createRefreshToken(User user);
+    String createRefreshToken(User user, String family);
+    RefreshToken consumeRefreshToken(String refreshToken);
+    void purgeExpiredRefreshTokens();
+}
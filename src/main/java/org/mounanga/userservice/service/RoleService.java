@@ -2,6 +2,7 @@ package org.mounanga.userservice.service;
 
 import org.mounanga.userservice.dto.PageModel;
 import org.mounanga.userservice.dto.RoleDTO;
+import org.mounanga.userservice.dto.SliceModel;
 
 import java.util.List;
 
@@ -11,6 +12,6 @@ public interface RoleService {
     RoleDTO getRoleById(Long id);
     PageModel<RoleDTO> getAllRoles(int page, int size);
     PageModel<RoleDTO> searchRoles(String keyword, int page, int size);
+    SliceModel<RoleDTO> getAllRoles(String after, int size);
     void deleteRoleById(Long id);
-    void deleteAllRolesByIds(List<Long> ids);
 }
@@ -0,0 +1,13 @@
+package org.mounanga.userservice.service;
+
+import org.mounanga.userservice.entity.User;
+
+import java.time.Instant;
+import java.util.Collection;
+
+public interface TokenRevocationService {
+    void revokeToken(String tokenId, Instant expiresAt);
+    void revokeUser(User user);
+    int revokeUsers(Collection<String> userIds);
+    void purgeExpiredRevocations();
+}
@@ -0,0 +1,12 @@
+package org.mounanga.userservice.service;
+
+import org.mounanga.userservice.dto.UserImportSummaryDTO;
+import org.mounanga.userservice.enums.DataFormat;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+
+public interface UserImportService {
+    UserImportSummaryDTO importUsers(InputStream input, DataFormat format, OutputStream output) throws IOException;
+}
@@ -3,16 +3,20 @@ package org.mounanga.userservice.service;
 import org.mounanga.userservice.dto.*;
 
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
 public interface UserService {
-    UserResponseDTO createUser(UserRequestDTO dto);
+    CompletableFuture<UserResponseDTO> createUser(UserRequestDTO dto);
     UserResponseDTO updateUser(String id, UpdateEmailUsernameDTO dto);
     ProfileResponseDTO updateProfile(String id, UserRequestDTO dto);
     UserResponseDTO getUserById(String id);
     PageModel<UserResponseDTO> getAllUsers(int page, int size);
     PageModel<UserResponseDTO> searchUsers(String keyword, int page, int size);
+    SliceModel<UserResponseDTO> getAllUsers(String after, int size);
+    SliceModel<UserResponseDTO> searchUsers(String keyword, String after, int size);
+    List<String> suggestUsers(String prefix, int limit);
+    AvailabilityDTO checkAvailability(String username, String email, String pin);
     void deleteUserById(String id);
-    void deleteAllUsersByIds(List<String> ids);
     UserResponseDTO addRoleToUser(UserRoleRequestDTO dto);
     UserResponseDTO removeRoleFromUser(UserRoleRequestDTO dto);
     UserResponseDTO getUserByUsername(String username);
@@ -1,91 +1,177 @@
 package org.mounanga.userservice.service.implementation;
 
-import com.auth0.jwt.JWT;
-import com.auth0.jwt.algorithms.Algorithm;
+import com.auth0.jwt.JWTVerifier;
+import com.auth0.jwt.exceptions.JWTVerificationException;
+import com.auth0.jwt.interfaces.DecodedJWT;
 import lombok.extern.slf4j.Slf4j;
 import org.jetbrains.annotations.NotNull;
-import org.mounanga.userservice.configuration.ApplicationProperties;
+import org.mounanga.userservice.dto.LoginClientDTO;
 import org.mounanga.userservice.dto.LoginRequestDTO;
 import org.mounanga.userservice.dto.LoginResponseDTO;
-import org.mounanga.userservice.entity.Role;
+import org.mounanga.userservice.dto.RefreshTokenRequestDTO;
+import org.mounanga.userservice.entity.RefreshToken;
 import org.mounanga.userservice.entity.User;
+import org.mounanga.userservice.enums.MailType;
+import org.mounanga.userservice.exception.RefreshTokenNotValidException;
 import org.mounanga.userservice.exception.UserNotAuthenticatedException;
 import org.mounanga.userservice.exception.UserNotEnabledException;
 import org.mounanga.userservice.exception.UserNotFoundException;
 import org.mounanga.userservice.repository.UserRepository;
+import org.mounanga.userservice.security.JWTTokenProvider;
+import org.mounanga.userservice.security.PasswordHashingExecutor;
 import org.mounanga.userservice.service.AuthenticationService;
+import org.mounanga.userservice.service.LastLoginService;
+import org.mounanga.userservice.service.LoginDeviceService;
+import org.mounanga.userservice.service.RefreshTokenService;
+import org.mounanga.userservice.service.TokenRevocationService;
 import org.mounanga.userservice.util.MailingService;
-import org.springframework.security.authentication.AuthenticationManager;
-import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
-import org.springframework.security.core.Authentication;
+import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
-import java.util.Date;
-import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
 @Slf4j
 @Service
 public class AuthenticationServiceImpl implements AuthenticationService {
 
-    private final AuthenticationManager authenticationManager;
+    private static final String BEARER = "Bearer ";
+    private static final String USER_NOT_FOUND_PASSWORD = "userNotFoundPassword";
+
+    private final PasswordEncoder passwordEncoder;
+    private final PasswordHashingExecutor passwordHashingExecutor;
     private final UserRepository userRepository;
-    private final ApplicationProperties properties;
     private final MailingService mailingService;
+    private final JWTTokenProvider tokenProvider;
+    private final RefreshTokenService refreshTokenService;
+    private final JWTVerifier verifier;
+    private final TokenRevocationService tokenRevocationService;
+    private final LastLoginService lastLoginService;
+    private final LoginDeviceService loginDeviceService;
+    private final TransactionTemplate transactionTemplate;
+    // hashed on the first unknown username, so that it costs as much as a known one
+    private volatile String userNotFoundEncodedPassword;
 
-    public AuthenticationServiceImpl(AuthenticationManager authenticationManager, UserRepository userRepository, ApplicationProperties properties, MailingService mailingService) {
-        this.authenticationManager = authenticationManager;
+    public AuthenticationServiceImpl(PasswordEncoder passwordEncoder, PasswordHashingExecutor passwordHashingExecutor, UserRepository userRepository, MailingService mailingService, JWTTokenProvider tokenProvider, RefreshTokenService refreshTokenService, JWTVerifier verifier, TokenRevocationService tokenRevocationService, LastLoginService lastLoginService, LoginDeviceService loginDeviceService, PlatformTransactionManager transactionManager) {
+        this.passwordEncoder = passwordEncoder;
+        this.passwordHashingExecutor = passwordHashingExecutor;
         this.userRepository = userRepository;
-        this.properties = properties;
         this.mailingService = mailingService;
+        this.tokenProvider = tokenProvider;
+        this.refreshTokenService = refreshTokenService;
+        this.verifier = verifier;
+        this.tokenRevocationService = tokenRevocationService;
+        this.lastLoginService = lastLoginService;
+        this.loginDeviceService = loginDeviceService;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
     }
 
     @Override
-    public LoginResponseDTO authenticate(@NotNull LoginRequestDTO request) {
+    public CompletableFuture<LoginResponseDTO> authenticate(@NotNull LoginRequestDTO request, @NotNull LoginClientDTO client) {
         log.info("In authenticate()");
-        Authentication authenticationRequest = new UsernamePasswordAuthenticationToken(request.username(), request.password());
-        Authentication authenticateResponse = authenticationManager.authenticate(authenticationRequest);
-        if (authenticateResponse.isAuthenticated()) {
-            User user = userRepository.findByUsername(request.username()).orElseThrow(() -> new UserNotFoundException("User not found"));
-            if(user.isEnabled()){
-                LocalDateTime loginDateTime = LocalDateTime.now();
-                sendNotification(user, loginDateTime);
-                updateLastLoginDate(user, loginDateTime);
-                log.info("User with id '{}' authenticated successfully at {}", user.getId(),loginDateTime);
-                return new LoginResponseDTO(generateToken(user), user.isPasswordNeedsToBeChanged());
+        // the user is read in its own read-only transaction, the password is verified on the hashing pool outside of
+        // any, and the login is written in a second short transaction once the hash is done: the request thread is
+        // released while hashing and no connection is held
+        User user = userRepository.findSecurityStateByUsername(request.username()).orElse(null);
+        return passwordHashingExecutor.submit(() -> verifyPassword(user, request.password()), verification -> {
+            if (user == null || !verification.matches()) {
+                throw new BadCredentialsException("Bad credentials");
+            }
+            if (verification.upgradedPassword() != null) {
+                userRepository.updatePassword(user.getId(), verification.upgradedPassword());
+                log.info("password hash of user '{}' upgraded", user.getUsername());
+            }
+            if(!user.isEnabled()){
+                throw new UserNotEnabledException("Your are not enabled");
             }
+            LocalDateTime loginDateTime = LocalDateTime.now();
+            String refreshToken = transactionTemplate.execute(status -> recordLogin(user, client, loginDateTime));
+            log.info("User with id '{}' authenticated successfully at {}", user.getId(),loginDateTime);
+            return new LoginResponseDTO(tokenProvider.generateToken(user), refreshToken, user.isPasswordNeedsToBeChanged());
+        });
+    }
+
+    @Transactional(noRollbackFor = RefreshTokenNotValidException.class)
+    @Override
+    public LoginResponseDTO refresh(@NotNull RefreshTokenRequestDTO request) {
+        log.info("In refresh()");
+        RefreshToken consumedToken = refreshTokenService.consumeRefreshToken(request.refreshToken());
+        User user = userRepository.findSecurityStateById(consumedToken.getUser().getId())
+                .orElseThrow(() -> new UserNotFoundException("User not found"));
+        if(!user.isEnabled()){
             throw new UserNotEnabledException("Your are not enabled");
         }
-        throw new UserNotAuthenticatedException("User not authenticated");
+        String refreshToken = refreshTokenService.createRefreshToken(user, consumedToken.getFamily());
+        log.info("Tokens of user with id '{}' refreshed", user.getId());
+        return new LoginResponseDTO(tokenProvider.generateToken(user), refreshToken, user.isPasswordNeedsToBeChanged());
     }
 
-    private void updateLastLoginDate(@NotNull User user, LocalDateTime loginDateTime) {
-        user.setLastLogin(loginDateTime);
-        userRepository.save(user);
+    @Override
+    public void logout(String authorization) {
+        log.info("In logout()");
+        if(authorization == null || !authorization.startsWith(BEARER)) {
+            throw new UserNotAuthenticatedException("User not authenticated");
+        }
+        DecodedJWT decodedJWT;
+        try {
+            decodedJWT = verifier.verify(authorization.substring(BEARER.length()));
+        } catch (JWTVerificationException e) {
+            throw new UserNotAuthenticatedException("User not authenticated");
+        }
+        if(decodedJWT.getId() != null) {
+            tokenRevocationService.revokeToken(decodedJWT.getId(), decodedJWT.getExpiresAtAsInstant());
+        } else {
+            userRepository.findByUsername(decodedJWT.getSubject()).ifPresent(tokenRevocationService::revokeUser);
+        }
+        log.info("User '{}' logged out", decodedJWT.getSubject());
+    }
+
+    private @NotNull PasswordVerification verifyPassword(User user, String rawPassword) {
+        if (user == null) {
+            passwordEncoder.matches(rawPassword, userNotFoundEncodedPassword());
+            return new PasswordVerification(false, null);
+        }
+        if (!passwordEncoder.matches(rawPassword, user.getPassword())) {
+            return new PasswordVerification(false, null);
+        }
+        String upgradedPassword = passwordEncoder.upgradeEncoding(user.getPassword()) ? passwordEncoder.encode(rawPassword) : null;
+        return new PasswordVerification(true, upgradedPassword);
+    }
+
+    private String userNotFoundEncodedPassword() {
+        if (userNotFoundEncodedPassword == null) {
+            userNotFoundEncodedPassword = passwordEncoder.encode(USER_NOT_FOUND_PASSWORD);
+        }
+        return userNotFoundEncodedPassword;
     }
 
-    private String generateToken(@NotNull User user) {
-        List<String> roles = user.getRoles().stream().map(Role::getName).toList();
-        Algorithm algorithm = Algorithm.HMAC256(properties.getJwtSecret());
-        Date expiration = new Date(System.currentTimeMillis() + properties.getJwtExpiration());
-        return JWT.create()
-                .withSubject(user.getUsername())
-                .withArrayClaim("roles", roles.toArray(new String[0]))
-                .withClaim("fullName", getFullName(user))
-                .withExpiresAt(expiration)
-                .sign(algorithm);
+    private String recordLogin(@NotNull User user, @NotNull LoginClientDTO client, LocalDateTime loginDateTime) {
+        if(loginDeviceService.recordLogin(user, client, loginDateTime)){
+            sendNotification(user, client, loginDateTime);
+        }
+        updateLastLoginDate(user, loginDateTime);
+        return refreshTokenService.createRefreshToken(user);
+    }
+
+    private void updateLastLoginDate(@NotNull User user, LocalDateTime loginDateTime) {
+        lastLoginService.recordLogin(user.getId(), loginDateTime);
     }
 
-    private void sendNotification(@NotNull User user, LocalDateTime loginDateTime) {
+    private void sendNotification(@NotNull User user, @NotNull LoginClientDTO client, LocalDateTime loginDateTime) {
         String body = """
                 Hello Madame/Monsieur %s.
                 
-                You have just connected on %s.
+                You have just connected on %s from a new device: %s (%s).
                 
                 If you are not the source of this manoeuvre: please change your password or contact the administrator..
-                """.formatted(getFullName(user), formatedDateTime(loginDateTime));
-        mailingService.sendMail(user.getEmail(), "Login Notification",body);
+                """.formatted(getFullName(user), formatedDateTime(loginDateTime),
+                client.userAgent() == null ? "unknown device" : client.userAgent(), client.ipAddress());
+        mailingService.sendMail(user.getEmail(), MailType.LOGIN_NOTIFICATION, body);
     }
 
     private @NotNull String formatedDateTime(@NotNull LocalDateTime dateTime) {
@@ -100,5 +186,6 @@ public class AuthenticationServiceImpl implements AuthenticationService {
         return user.getProfile().getFullName();
     }
 
-
+    private record PasswordVerification(boolean matches, String upgradedPassword) {
+    }
 }
@@ -0,0 +1,122 @@
+package org.mounanga.userservice.service.implementation;
+
+import lombok.extern.slf4j.Slf4j;
+import org.jetbrains.annotations.NotNull;
+import org.mounanga.userservice.configuration.ApplicationProperties;
+import org.mounanga.userservice.dto.BulkDeleteReportDTO;
+import org.mounanga.userservice.entity.Role;
+import org.mounanga.userservice.repository.*;
+import org.mounanga.userservice.service.BulkDeleteService;
+import org.mounanga.userservice.service.TokenRevocationService;
+import org.mounanga.userservice.util.implementation.RoleCatalog;
+import org.mounanga.userservice.util.implementation.UserSearchIndex;
+import org.mounanga.userservice.util.implementation.UserSuggestionIndex;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+@Slf4j
+@Service
+public class BulkDeleteServiceImpl implements BulkDeleteService {
+
+    private final UserRepository userRepository;
+    private final ProfileRepository profileRepository;
+    private final RoleRepository roleRepository;
+    private final LoginDeviceRepository loginDeviceRepository;
+    private final VerificationRepository verificationRepository;
+    private final TokenRevocationService tokenRevocationService;
+    private final UserSearchIndex userSearchIndex;
+    private final UserSuggestionIndex userSuggestionIndex;
+    private final RoleCatalog roleCatalog;
+    private final TransactionTemplate transactionTemplate;
+    private final ApplicationProperties properties;
+
+    public BulkDeleteServiceImpl(UserRepository userRepository, ProfileRepository profileRepository, RoleRepository roleRepository, LoginDeviceRepository loginDeviceRepository, VerificationRepository verificationRepository, TokenRevocationService tokenRevocationService, UserSearchIndex userSearchIndex, UserSuggestionIndex userSuggestionIndex, RoleCatalog roleCatalog, PlatformTransactionManager transactionManager, ApplicationProperties properties) {
+        this.userRepository = userRepository;
+        this.profileRepository = profileRepository;
+        this.roleRepository = roleRepository;
+        this.loginDeviceRepository = loginDeviceRepository;
+        this.verificationRepository = verificationRepository;
+        this.tokenRevocationService = tokenRevocationService;
+        this.userSearchIndex = userSearchIndex;
+        this.userSuggestionIndex = userSuggestionIndex;
+        this.roleCatalog = roleCatalog;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.properties = properties;
+    }
+
+    @Override
+    public BulkDeleteReportDTO deleteUsers(@NotNull List<String> ids) {
+        log.info("In deleteUsers()");
+        BulkDeleteReportDTO report = deleteInChunks("user", ids, this::deleteUserChunk, this::unindex);
+        log.info("{} user(s) deleted, {} skipped", report.deleted(), report.skipped());
+        return report;
+    }
+
+    @Override
+    public BulkDeleteReportDTO deleteRoles(@NotNull List<Long> ids) {
+        log.info("In deleteRoles()");
+        BulkDeleteReportDTO report = deleteInChunks("role", ids, this::deleteRoleChunk, deletedIds -> {});
+        if (report.deleted() > 0) {
+            roleCatalog.refresh();
+        }
+        log.info("{} role(s) deleted, {} skipped", report.deleted(), report.skipped());
+        return report;
+    }
+
+    private <T> @NotNull BulkDeleteReportDTO deleteInChunks(String kind, @NotNull List<T> ids, Function<List<T>, List<T>> deleteChunk, Consumer<List<T>> afterCommit) {
+        long start = System.nanoTime();
+        int chunkSize = properties.getBulkDeleteChunkSize();
+        int chunks = (ids.size() + chunkSize - 1) / chunkSize;
+        int deleted = 0;
+        for (int chunk = 0; chunk < chunks; chunk++) {
+            List<T> slice = ids.subList(chunk * chunkSize, Math.min(ids.size(), (chunk + 1) * chunkSize));
+            List<T> deletedIds = transactionTemplate.execute(status -> deleteChunk.apply(slice));
+            if (deletedIds != null) {
+                afterCommit.accept(deletedIds);
+                deleted += deletedIds.size();
+            }
+            log.info("bulk {} delete: chunk {}/{} committed, {}/{} deleted so far", kind, chunk + 1, chunks, deleted, ids.size());
+        }
+        long durationMillis = (System.nanoTime() - start) / 1_000_000;
+        return new BulkDeleteReportDTO(ids.size(), deleted, ids.size() - deleted, chunks, durationMillis);
+    }
+
+    private List<String> deleteUserChunk(List<String> ids) {
+        List<String> deletable = userRepository.findDeletableIds(ids, Role.SUPER_ADMIN_ROLES);
+        if (deletable.isEmpty()) {
+            return deletable;
+        }
+        List<String> profileIds = userRepository.findProfileIdsByIdIn(deletable);
+        tokenRevocationService.revokeUsers(deletable);
+        userRepository.deleteRoleLinksByUserIdIn(deletable);
+        verificationRepository.deleteByUserIdIn(deletable);
+        loginDeviceRepository.deleteByUserIdIn(deletable);
+        userRepository.deleteByIdIn(deletable);
+        if (!profileIds.isEmpty()) {
+            profileRepository.deleteByIdIn(profileIds);
+        }
+        return deletable;
+    }
+
+    private void unindex(@NotNull List<String> userIds) {
+        userIds.forEach(id -> {
+            userSearchIndex.remove(id);
+            userSuggestionIndex.remove(id);
+        });
+    }
+
+    private List<Long> deleteRoleChunk(List<Long> ids) {
+        List<Long> deletable = roleRepository.findDeletableIds(ids, Role.DEFAULT_ROLES);
+        if (deletable.isEmpty()) {
+            return deletable;
+        }
+        roleRepository.deleteUserLinksByRoleIdIn(deletable);
+        roleRepository.deleteByIdIn(deletable);
+        return deletable;
+    }
+}
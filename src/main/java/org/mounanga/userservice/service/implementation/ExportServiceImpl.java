@@ -0,0 +1,184 @@
+package org.mounanga.userservice.service.implementation;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SequenceWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.dataformat.csv.CsvMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import lombok.extern.slf4j.Slf4j;
+import org.jetbrains.annotations.NotNull;
+import org.mounanga.userservice.configuration.ApplicationProperties;
+import org.mounanga.userservice.dto.RoleDTO;
+import org.mounanga.userservice.dto.UserExportDTO;
+import org.mounanga.userservice.enums.DataFormat;
+import org.mounanga.userservice.service.ExportService;
+import org.mounanga.userservice.util.implementation.RoleCatalog;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Service;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.GZIPOutputStream;
+
+@Slf4j
+@Service
+public class ExportServiceImpl implements ExportService {
+
+    // one row per user and role, ordered by the primary key so that the roles of a user are consecutive
+    private static final String SELECT_USERS = """
+            select u.id, u.username, u.email, u.enabled, u.created_date, u.last_login,
+                   p.firstname, p.lastname, p.pin, p.birthday, p.place_of_birth, p.gender, p.nationality,
+                   r.name as role_name
+            from user u
+            left join profile p on p.id = u.profile_id
+            left join user_role ur on ur.user_id = u.id
+            left join role r on r.id = ur.role_id
+            order by u.id
+            """;
+    private static final int GZIP_BUFFER_SIZE = 8192;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final RoleCatalog roleCatalog;
+    private final ObjectMapper objectMapper;
+    private final CsvMapper csvMapper;
+
+    public ExportServiceImpl(DataSource dataSource, RoleCatalog roleCatalog, ObjectMapper objectMapper, @NotNull ApplicationProperties properties) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        // MySQL Connector/J buffers the whole result set unless the fetch size is Integer.MIN_VALUE, which streams
+        // the rows of this statement only: the other queries of the application keep the default fetching
+        this.jdbcTemplate.setFetchSize(Boolean.TRUE.equals(properties.getExportStreamResults())
+                ? Integer.MIN_VALUE : properties.getExportFetchSize());
+        this.roleCatalog = roleCatalog;
+        this.objectMapper = objectMapper;
+        this.csvMapper = CsvMapper.builder()
+                .addModule(new JavaTimeModule())
+                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .build();
+    }
+
+    @Override
+    public long exportUsers(@NotNull DataFormat format, boolean gzip, @NotNull OutputStream output) throws IOException {
+        log.info("In exportUsers()");
+        long start = System.nanoTime();
+        long count = write(format, UserExportDTO.class, gzip, output, writer -> {
+            UserExportCursor cursor = new UserExportCursor(writer);
+            try {
+                jdbcTemplate.query(SELECT_USERS, cursor);
+                return cursor.finish();
+            } catch (UncheckedIOException e) {
+                throw e.getCause();
+            }
+        });
+        log.info("{} user(s) exported as {} in {} ms", count, format, (System.nanoTime() - start) / 1_000_000);
+        return count;
+    }
+
+    @Override
+    public long exportRoles(@NotNull DataFormat format, boolean gzip, @NotNull OutputStream output) throws IOException {
+        log.info("In exportRoles()");
+        long count = write(format, RoleDTO.class, gzip, output, writer -> {
+            List<RoleDTO> roles = roleCatalog.findAll();
+            writer.writeAll(roles);
+            return roles.size();
+        });
+        log.info("{} role(s) exported as {}", count, format);
+        return count;
+    }
+
+    private long write(DataFormat format, Class<?> type, boolean gzip, @NotNull OutputStream output, ExportBody body) throws IOException {
+        OutputStream target = gzip ? new GZIPOutputStream(output, GZIP_BUFFER_SIZE) : output;
+        long count;
+        try (SequenceWriter writer = writerFor(format, type).writeValues(target)) {
+            count = body.writeTo(writer);
+        }
+        if (format == DataFormat.NDJSON && count > 0) {
+            target.write('\n');
+        }
+        if (target instanceof GZIPOutputStream gzipOutput) {
+            gzipOutput.finish();
+        }
+        output.flush();
+        return count;
+    }
+
+    private ObjectWriter writerFor(DataFormat format, Class<?> type) {
+        if (format == DataFormat.CSV) {
+            return csvMapper.writer(csvMapper.schemaFor(type).withHeader())
+                    .without(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+        }
+        return objectMapper.writerFor(type)
+                .withRootValueSeparator("\n")
+                .without(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+    }
+
+    @FunctionalInterface
+    private interface ExportBody {
+        long writeTo(SequenceWriter writer) throws IOException;
+    }
+
+    private static final class UserExportCursor implements RowCallbackHandler {
+
+        private final SequenceWriter writer;
+        private UserExportDTO current;
+        private long count;
+
+        private UserExportCursor(SequenceWriter writer) {
+            this.writer = writer;
+        }
+
+        @Override
+        public void processRow(@NotNull ResultSet resultSet) throws SQLException {
+            String id = resultSet.getString("id");
+            if (current == null || !current.id().equals(id)) {
+                emit();
+                current = new UserExportDTO(id,
+                        resultSet.getString("username"),
+                        resultSet.getString("email"),
+                        resultSet.getBoolean("enabled"),
+                        resultSet.getObject("created_date", LocalDateTime.class),
+                        resultSet.getObject("last_login", LocalDateTime.class),
+                        resultSet.getString("firstname"),
+                        resultSet.getString("lastname"),
+                        resultSet.getString("pin"),
+                        resultSet.getObject("birthday", LocalDate.class),
+                        resultSet.getString("place_of_birth"),
+                        resultSet.getString("gender"),
+                        resultSet.getString("nationality"),
+                        new ArrayList<>());
+            }
+            String role = resultSet.getString("role_name");
+            if (role != null) {
+                current.roles().add(role);
+            }
+        }
+
+        long finish() {
+            emit();
+            return count;
+        }
+
+        private void emit() {
+            if (current == null) {
+                return;
+            }
+            try {
+                writer.write(current);
+            } catch (IOException e) {
+                // the client went away, stop reading the cursor
+                throw new UncheckedIOException(e);
+            }
+            count++;
+        }
+    }
+}
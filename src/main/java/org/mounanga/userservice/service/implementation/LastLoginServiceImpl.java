@@ -0,0 +1,73 @@
+package org.mounanga.userservice.service.implementation;
+
+import jakarta.annotation.PreDestroy;
+import jakarta.persistence.Cache;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.extern.slf4j.Slf4j;
+import org.jetbrains.annotations.NotNull;
+import org.mounanga.userservice.entity.User;
+import org.mounanga.userservice.service.LastLoginService;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+@Slf4j
+@Service
+public class LastLoginServiceImpl implements LastLoginService {
+
+    private static final String UPDATE_LAST_LOGIN = "update user set last_login = ? where id = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final EntityManagerFactory entityManagerFactory;
+    private final Map<String, LocalDateTime> pendingLogins = new ConcurrentHashMap<>();
+
+    public LastLoginServiceImpl(JdbcTemplate jdbcTemplate, EntityManagerFactory entityManagerFactory) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.entityManagerFactory = entityManagerFactory;
+    }
+
+    @Override
+    public void recordLogin(@NotNull String userId, @NotNull LocalDateTime loginDateTime) {
+        pendingLogins.merge(userId, loginDateTime, (current, next) -> next.isAfter(current) ? next : current);
+    }
+
+    @Scheduled(fixedDelayString = "${application.security.last-login.flush-interval}")
+    @Override
+    public synchronized int flush() {
+        if (pendingLogins.isEmpty()) {
+            return 0;
+        }
+        List<Map.Entry<String, LocalDateTime>> batch = new ArrayList<>(pendingLogins.size());
+        pendingLogins.forEach((userId, loginDateTime) -> batch.add(Map.entry(userId, loginDateTime)));
+        try {
+            jdbcTemplate.batchUpdate(UPDATE_LAST_LOGIN, batch, batch.size(), (statement, entry) -> {
+                statement.setTimestamp(1, Timestamp.valueOf(entry.getValue()));
+                statement.setString(2, entry.getKey());
+            });
+        } catch (DataAccessException e) {
+            log.error("unable to flush {} last login dates, they will be retried", batch.size(), e);
+            return 0;
+        }
+        // the update bypasses Hibernate, so cached copies of these users would keep the old date
+        Cache cache = entityManagerFactory.getCache();
+        batch.forEach(entry -> cache.evict(User.class, entry.getKey()));
+        // a login recorded while the batch was running keeps its newer value for the next flush
+        batch.forEach(entry -> pendingLogins.remove(entry.getKey(), entry.getValue()));
+        log.debug("{} last login dates flushed", batch.size());
+        return batch.size();
+    }
+
+    @PreDestroy
+    public void flushOnShutdown() {
+        log.info("In flushOnShutdown()");
+        flush();
+    }
+}
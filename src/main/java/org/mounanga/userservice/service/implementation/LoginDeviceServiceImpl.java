@@ -0,0 +1,148 @@
+package org.mounanga.userservice.service.implementation;
+
+import lombok.extern.slf4j.Slf4j;
+import org.jetbrains.annotations.NotNull;
+import org.mounanga.userservice.configuration.ApplicationProperties;
+import org.mounanga.userservice.dto.LoginClientDTO;
+import org.mounanga.userservice.entity.LoginDevice;
+import org.mounanga.userservice.entity.User;
+import org.mounanga.userservice.enums.MailType;
+import org.mounanga.userservice.repository.LoginDeviceRepository;
+import org.mounanga.userservice.service.LoginDeviceService;
+import org.mounanga.userservice.util.MailingService;
+import org.mounanga.userservice.util.TokenHasher;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.regex.Pattern;
+
+@Slf4j
+@Service
+public class LoginDeviceServiceImpl implements LoginDeviceService {
+
+    private static final int IPV4_NETWORK_BYTES = 3;
+    private static final int IPV6_NETWORK_BYTES = 8;
+    private static final Pattern IPV4_LITERAL = Pattern.compile("\\d{1,3}(\\.\\d{1,3}){3}");
+    private static final DateTimeFormatter DATE_TIME_FORMATTER = DateTimeFormatter.ofPattern("dd/MM/yyyy 'at' HH:mm:ss");
+
+    private final LoginDeviceRepository loginDeviceRepository;
+    private final MailingService mailingService;
+    private final ApplicationProperties properties;
+
+    public LoginDeviceServiceImpl(LoginDeviceRepository loginDeviceRepository, MailingService mailingService, ApplicationProperties properties) {
+        this.loginDeviceRepository = loginDeviceRepository;
+        this.mailingService = mailingService;
+        this.properties = properties;
+    }
+
+    @Transactional
+    @Override
+    public boolean recordLogin(@NotNull User user, @NotNull LoginClientDTO client, LocalDateTime loginDateTime) {
+        log.info("In recordLogin()");
+        String fingerprint = fingerprint(client);
+        if (loginDeviceRepository.recordKnownLogin(user.getId(), fingerprint, client.ipAddress(), loginDateTime) > 0) {
+            return false;
+        }
+        int inserted = loginDeviceRepository.insertIfAbsent(UUID.randomUUID().toString(), user.getId(), fingerprint,
+                abbreviate(client.userAgent()), client.ipAddress(), loginDateTime);
+        if (inserted > 0) {
+            log.info("new device registered for user with id '{}'", user.getId());
+            return true;
+        }
+        // a concurrent login registered the device first and sent the notification
+        loginDeviceRepository.recordKnownLogin(user.getId(), fingerprint, client.ipAddress(), loginDateTime);
+        return false;
+    }
+
+    @Scheduled(cron = "${application.security.login-notification.digest-cron}")
+    @Transactional
+    @Override
+    public void sendLoginDigests() {
+        log.info("In sendLoginDigests()");
+        Map<String, List<LoginDevice>> devicesByUser = new LinkedHashMap<>();
+        loginDeviceRepository.findWithPendingLogins()
+                .forEach(device -> devicesByUser.computeIfAbsent(device.getUser().getId(), id -> new ArrayList<>()).add(device));
+        devicesByUser.values().forEach(devices -> {
+            User user = devices.get(0).getUser();
+            mailingService.sendMail(user.getEmail(), MailType.LOGIN_DIGEST, digestBody(user, devices));
+            // subtract what was reported so logins recorded meanwhile go into the next digest
+            devices.forEach(device -> loginDeviceRepository.acknowledgePendingLogins(device.getId(), device.getPendingLogins()));
+        });
+        log.info("{} login digests sent", devicesByUser.size());
+    }
+
+    @Scheduled(cron = "${application.security.login-notification.device-purge-cron}")
+    @Transactional
+    @Override
+    public void purgeStaleDevices() {
+        log.info("In purgeStaleDevices()");
+        LocalDateTime limit = LocalDateTime.now().minus(Duration.ofMillis(properties.getLoginDeviceTtl()));
+        int deleted = loginDeviceRepository.deleteNotSeenSince(limit);
+        log.info("{} stale login devices purged", deleted);
+    }
+
+    private @NotNull String digestBody(@NotNull User user, @NotNull List<LoginDevice> devices) {
+        StringBuilder body = new StringBuilder()
+                .append("Hello Madame/Monsieur ").append(getFullName(user)).append(".\n\n")
+                .append("Here are your recent connections from known devices:\n");
+        devices.forEach(device -> body.append("- ")
+                .append(device.getUserAgent() == null ? "unknown device" : device.getUserAgent())
+                .append(" from ").append(device.getIpAddress())
+                .append(": ").append(device.getPendingLogins()).append(" login(s), last on ")
+                .append(device.getLastSeen().format(DATE_TIME_FORMATTER)).append('\n'));
+        body.append("\nIf you do not recognize this activity: please change your password or contact the administrator.\n");
+        return body.toString();
+    }
+
+    private @NotNull String getFullName(@NotNull User user) {
+        if (user.getProfile() == null) {
+            return "";
+        }
+        return user.getProfile().getFullName();
+    }
+
+    static @NotNull String fingerprint(@NotNull LoginClientDTO client) {
+        String userAgent = client.userAgent() == null ? "" : client.userAgent().trim();
+        return TokenHasher.sha256(userAgent + "|" + network(client.ipAddress()));
+    }
+
+    // logins from the same network keep the same fingerprint when the provider reassigns the address
+    static @NotNull String network(String ipAddress) {
+        if (ipAddress == null || ipAddress.isBlank()) {
+            return "";
+        }
+        String literal = ipAddress.trim();
+        // only literals are parsed, so a malformed value never turns into a DNS lookup
+        if (!literal.contains(":") && !IPV4_LITERAL.matcher(literal).matches()) {
+            return literal;
+        }
+        try {
+            byte[] address = InetAddress.getByName(literal).getAddress();
+            int networkBytes = address.length == 4 ? IPV4_NETWORK_BYTES : IPV6_NETWORK_BYTES;
+            for (int i = networkBytes; i < address.length; i++) {
+                address[i] = 0;
+            }
+            return InetAddress.getByAddress(address).getHostAddress();
+        } catch (UnknownHostException e) {
+            return ipAddress;
+        }
+    }
+
+    private static String abbreviate(String userAgent) {
+        if (userAgent == null || userAgent.length() <= 512) {
+            return userAgent;
+        }
+        return userAgent.substring(0, 512);
+    }
+}
@@ -6,19 +6,25 @@ import org.mounanga.userservice.dto.EmailRequestDTO;
 import org.mounanga.userservice.dto.ResetPasswordRequestDTO;
 import org.mounanga.userservice.entity.User;
 import org.mounanga.userservice.entity.Verification;
+import org.mounanga.userservice.enums.MailType;
 import org.mounanga.userservice.exception.UserNotFoundException;
 import org.mounanga.userservice.exception.VerificationExpiredException;
 import org.mounanga.userservice.exception.VerificationNotFoundException;
 import org.mounanga.userservice.repository.UserRepository;
 import org.mounanga.userservice.repository.VerificationRepository;
+import org.mounanga.userservice.security.PasswordHashingExecutor;
 import org.mounanga.userservice.service.PasswordService;
+import org.mounanga.userservice.service.TokenRevocationService;
 import org.mounanga.userservice.util.MailingService;
 import org.mounanga.userservice.util.VerificationCodeGenerator;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.time.LocalDateTime;
+import java.util.concurrent.CompletableFuture;
 
 @Slf4j
 @Service
@@ -28,12 +34,18 @@ public class PasswordServiceImpl implements PasswordService {
     private final UserRepository userRepository;
     private final MailingService mailingService;
     private final PasswordEncoder passwordEncoder;
+    private final PasswordHashingExecutor passwordHashingExecutor;
+    private final TokenRevocationService tokenRevocationService;
+    private final TransactionTemplate transactionTemplate;
 
-    public PasswordServiceImpl(VerificationRepository verificationRepository, UserRepository userRepository, MailingService mailingService, PasswordEncoder passwordEncoder) {
+    public PasswordServiceImpl(VerificationRepository verificationRepository, UserRepository userRepository, MailingService mailingService, PasswordEncoder passwordEncoder, PasswordHashingExecutor passwordHashingExecutor, TokenRevocationService tokenRevocationService, PlatformTransactionManager transactionManager) {
         this.verificationRepository = verificationRepository;
         this.userRepository = userRepository;
         this.mailingService = mailingService;
         this.passwordEncoder = passwordEncoder;
+        this.passwordHashingExecutor = passwordHashingExecutor;
+        this.tokenRevocationService = tokenRevocationService;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
     }
 
     @Transactional
@@ -45,38 +57,54 @@ public class PasswordServiceImpl implements PasswordService {
         saveVerification(user);
     }
 
-    @Transactional
     @Override
-    public void resetPassword(@NotNull ResetPasswordRequestDTO request) {
+    public CompletableFuture<Void> resetPassword(@NotNull ResetPasswordRequestDTO request) {
         log.info("In resetPassword()");
+        // the code is checked in a first transaction, the new password is hashed on the hashing pool outside of any,
+        // and the password is written in a second transaction once the hash is done
+        Verification verification = transactionTemplate.execute(status -> findValidVerification(request));
+        if(verification == null) {
+            throw new VerificationExpiredException("verification code expired. a new verification's code has been created");
+        }
+        passwordValidation(request.password(), request.confirmPassword());
+        return passwordHashingExecutor.submit(() -> passwordEncoder.encode(request.password()), encodedPassword -> {
+            transactionTemplate.executeWithoutResult(status -> changePassword(verification.getId(), encodedPassword));
+            return null;
+        });
+    }
+
+    // returns null once an expired code has been replaced, so that the new code is committed before the error
+    private Verification findValidVerification(@NotNull ResetPasswordRequestDTO request) {
         Verification verification = verificationRepository.findByEmailAndCode(request.email(), request.code())
                 .orElseThrow(() -> new VerificationNotFoundException("User not found"));
         if(verification.isExpired()) {
             handleExpiredVerification(verification);
-        }else{
-            changePassword(verification, request.password(), request.confirmPassword());
+            return null;
         }
+        return verification;
     }
 
     private void handleExpiredVerification(@NotNull Verification verification) {
         log.info("### {}", verification);
         verificationRepository.deleteById(verification.getId());
         saveVerification(verification.getUser());
-        throw new VerificationExpiredException("verification code expired. a new verification's code has been created")    ;
     }
 
-    private void changePassword(@NotNull Verification verification, String password, String confirmPassword) {
-        passwordValidation(password, confirmPassword);
+    private void changePassword(String verificationId, String encodedPassword) {
+        // read again: the code may have been used by a concurrent reset while hashing
+        Verification verification = verificationRepository.findById(verificationId)
+                .orElseThrow(() -> new VerificationNotFoundException("User not found"));
         User user = verification.getUser();
-        user.setPassword(passwordEncoder.encode(password));
+        user.setPassword(encodedPassword);
         User updatedUser = userRepository.save(user);
+        tokenRevocationService.revokeUser(updatedUser);
         log.info("password changed successfully");
         String body = String.format("""
                 Hello !
                 Your password has just been changed at %s.
                 If you did not request this, please contact the administrator.
                 """,updatedUser.getLastModifiedDate());
-        mailingService.sendMail(user.getEmail(), "Password Changed", body);
+        mailingService.sendMail(user.getEmail(), MailType.PASSWORD_CHANGED, body);
         verificationRepository.deleteById(verification.getId());
     }
 
@@ -100,7 +128,7 @@ public class PasswordServiceImpl implements PasswordService {
                 This code expires in 10 minutes.
                 If you did not request this, please contact the administrator.
                 """, getFullName(savedVerification), savedVerification.getCode());
-        mailingService.sendMail(user.getEmail(), "Password Reset Code", body);
+        mailingService.sendMail(user.getEmail(), MailType.PASSWORD_RESET_CODE, body);
     }
 
     private void passwordValidation(@NotNull String password, String confirmPassword) {
@@ -0,0 +1,103 @@
+package org.mounanga.userservice.service.implementation;
+
+import lombok.extern.slf4j.Slf4j;
+import org.jetbrains.annotations.NotNull;
+import org.mounanga.userservice.configuration.ApplicationProperties;
+import org.mounanga.userservice.entity.RefreshToken;
+import org.mounanga.userservice.entity.User;
+import org.mounanga.userservice.exception.RefreshTokenNotValidException;
+import org.mounanga.userservice.repository.RefreshTokenRepository;
+import org.mounanga.userservice.service.RefreshTokenService;
+import org.mounanga.userservice.util.TokenHasher;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.security.SecureRandom;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.Base64;
+import java.util.UUID;
+
+@Slf4j
+@Service
+public class RefreshTokenServiceImpl implements RefreshTokenService {
+
+    private static final SecureRandom random = new SecureRandom();
+    private static final int TOKEN_BYTES = 32;
+
+    private final RefreshTokenRepository refreshTokenRepository;
+    private final ApplicationProperties properties;
+
+    public RefreshTokenServiceImpl(RefreshTokenRepository refreshTokenRepository, ApplicationProperties properties) {
+        this.refreshTokenRepository = refreshTokenRepository;
+        this.properties = properties;
+    }
+
+    @Transactional
+    @Override
+    public String createRefreshToken(User user) {
+        return createRefreshToken(user, UUID.randomUUID().toString());
+    }
+
+    @Transactional
+    @Override
+    public String createRefreshToken(User user, String family) {
+        log.info("In createRefreshToken()");
+        String value = generateValue();
+        LocalDateTime now = LocalDateTime.now();
+        RefreshToken refreshToken = RefreshToken.builder()
+                .tokenHash(TokenHasher.sha256(value))
+                .family(family)
+                .createdDate(now)
+                .expiryDate(now.plus(properties.getRefreshTokenExpiration(), ChronoUnit.MILLIS))
+                .revoked(false)
+                .user(user)
+                .build();
+        refreshTokenRepository.save(refreshToken);
+        log.info("refresh token created for user with id '{}'", user.getId());
+        return value;
+    }
+
+    @Transactional(noRollbackFor = RefreshTokenNotValidException.class)
+    @Override
+    public RefreshToken consumeRefreshToken(@NotNull String refreshToken) {
+        log.info("In consumeRefreshToken()");
+        RefreshToken token = refreshTokenRepository.findByTokenHash(TokenHasher.sha256(refreshToken))
+                .orElseThrow(() -> new RefreshTokenNotValidException("Refresh token not valid"));
+        if(token.isRevoked()) {
+            throw reused(token);
+        }
+        if(token.isExpired()) {
+            refreshTokenRepository.delete(token);
+            throw new RefreshTokenNotValidException("Refresh token expired");
+        }
+        // conditional write: of two concurrent refreshes with the same token only one revokes it
+        if(refreshTokenRepository.revokeIfActive(token.getId()) == 0) {
+            throw reused(token);
+        }
+        token.setRevoked(true);
+        return token;
+    }
+
+    @Scheduled(cron = "${application.security.refresh-token.purge-cron}")
+    @Transactional
+    @Override
+    public void purgeExpiredRefreshTokens() {
+        log.info("In purgeExpiredRefreshTokens()");
+        int deleted = refreshTokenRepository.deleteExpiredBefore(LocalDateTime.now());
+        log.info("{} expired refresh token(s) deleted", deleted);
+    }
+
+    private @NotNull RefreshTokenNotValidException reused(@NotNull RefreshToken token) {
+        int revoked = refreshTokenRepository.revokeFamily(token.getFamily());
+        log.warn("refresh token reused: {} token(s) of its family revoked", revoked);
+        return new RefreshTokenNotValidException("Refresh token not valid");
+    }
+
+    private static @NotNull String generateValue() {
+        byte[] bytes = new byte[TOKEN_BYTES];
+        random.nextBytes(bytes);
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+    }
+}
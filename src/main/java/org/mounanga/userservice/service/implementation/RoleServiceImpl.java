@@ -4,14 +4,19 @@ import lombok.extern.slf4j.Slf4j;
 import org.jetbrains.annotations.NotNull;
 import org.mounanga.userservice.dto.PageModel;
 import org.mounanga.userservice.dto.RoleDTO;
+import org.mounanga.userservice.dto.SliceModel;
 import org.mounanga.userservice.entity.Role;
 import org.mounanga.userservice.exception.NotAuthorizedException;
 import org.mounanga.userservice.exception.ResourceAlreadyExistException;
 import org.mounanga.userservice.exception.RoleNotFoundException;
 import org.mounanga.userservice.repository.RoleRepository;
 import org.mounanga.userservice.service.RoleService;
+import org.mounanga.userservice.util.AfterCommit;
+import org.mounanga.userservice.util.CursorCodec;
 import org.mounanga.userservice.util.Mappers;
+import org.mounanga.userservice.util.implementation.RoleCatalog;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
@@ -24,9 +29,11 @@ import java.util.List;
 public class RoleServiceImpl implements RoleService {
 
     private final RoleRepository roleRepository;
+    private final RoleCatalog roleCatalog;
 
-    public RoleServiceImpl(RoleRepository roleRepository) {
+    public RoleServiceImpl(RoleRepository roleRepository, RoleCatalog roleCatalog) {
         this.roleRepository = roleRepository;
+        this.roleCatalog = roleCatalog;
     }
 
     @Transactional
@@ -38,6 +45,7 @@ public class RoleServiceImpl implements RoleService {
             throw new ResourceAlreadyExistException("Role with name " + role.getName() + " already exists");
         }
         Role savedRole = roleRepository.save(role);
+        AfterCommit.run(roleCatalog::refresh);
         log.info("Role with name '{}' created at '{}' by '{}'", role.getName(), savedRole.getCreatedDate(), savedRole.getCreateBy());
         return Mappers.fromRole(savedRole);
     }
@@ -53,6 +61,7 @@ public class RoleServiceImpl implements RoleService {
         role.setName(dto.name());
         role.setDescription(dto.description());
         Role updatedRole = roleRepository.save(role);
+        AfterCommit.run(roleCatalog::refresh);
         log.info("Role with name '{}' updated at '{}' by '{}'", updatedRole.getName(), role.getLastModifiedDate(), updatedRole.getLastModifiedBy());
         return Mappers.fromRole(updatedRole);
     }
@@ -60,27 +69,35 @@ public class RoleServiceImpl implements RoleService {
     @Override
     public RoleDTO getRoleById(Long id) {
         log.info("In getRoleById()");
-        Role role = findRoleById(id);
-        log.info("Role with name '{}' found", role.getName());
-        return Mappers.fromRole(role);
+        RoleDTO role = roleCatalog.findById(id)
+                .orElseThrow( () -> new RoleNotFoundException("Role with id " + id + " not found"));
+        log.info("Role with name '{}' found", role.name());
+        return role;
     }
 
     @Override
     public PageModel<RoleDTO> getAllRoles(int page, int size) {
         log.info("In getAllRoles()");
-        Pageable pageable = PageRequest.of(page, size);
-        Page<Role> roles = roleRepository.findAll(pageable);
+        Page<RoleDTO> roles = toPage(roleCatalog.findAll(), page, size);
         log.info("{} roles found", roles.getTotalElements());
-        return Mappers.fromPageOfRoles(roles,page);
+        return Mappers.fromPageOfDTOs(roles,page);
+    }
+
+    @Override
+    public SliceModel<RoleDTO> getAllRoles(String after, int size) {
+        log.info("In getAllRoles()");
+        Long afterId = after == null || after.isBlank() ? null : CursorCodec.decodeId(after);
+        List<RoleDTO> roles = roleCatalog.findAfter(afterId, size + 1);
+        log.info("{} roles fetched", roles.size());
+        return Mappers.fromSliceOfRoles(roles, size);
     }
 
     @Override
     public PageModel<RoleDTO> searchRoles(String keyword, int page, int size) {
         log.info("In searchRoles()");
-        Pageable pageable = PageRequest.of(page, size);
-        Page<Role> roles = roleRepository.findByNameOrDescription("%" + keyword + "%", pageable);
+        Page<RoleDTO> roles = toPage(roleCatalog.search(keyword), page, size);
         log.info("{} role(s) found", roles.getTotalElements());
-        return Mappers.fromPageOfRoles(roles,page);
+        return Mappers.fromPageOfDTOs(roles,page);
     }
 
     @Transactional
@@ -92,22 +109,19 @@ public class RoleServiceImpl implements RoleService {
             throw new NotAuthorizedException("You cannot delete system roles");
         }
         roleRepository.delete(role);
+        AfterCommit.run(roleCatalog::refresh);
         log.info("Role with name '{}' deleted", role.getName());
     }
 
-    @Transactional
-    @Override
-    public void deleteAllRolesByIds(List<Long> ids) {
-        log.info("In deleteAllRolesByIds()");
-        List<Role> roles = roleRepository.findAllById(ids).stream()
-                .filter(role -> !role.isDefaultRole())
-                .toList();
-        roleRepository.deleteAll(roles);
-        log.info("{} role(s) deleted", roles.size());
-    }
-
     private Role findRoleById(Long id) {
         return roleRepository.findById(id)
                 .orElseThrow( () -> new RoleNotFoundException("Role with id " + id + " not found"));
     }
+
+    private static @NotNull Page<RoleDTO> toPage(@NotNull List<RoleDTO> roles, int page, int size) {
+        Pageable pageable = PageRequest.of(page, size);
+        int from = (int) Math.min(pageable.getOffset(), roles.size());
+        int to = Math.min(from + size, roles.size());
+        return new PageImpl<>(roles.subList(from, to), pageable, roles.size());
+    }
 }
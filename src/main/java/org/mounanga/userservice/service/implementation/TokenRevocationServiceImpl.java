@@ -0,0 +1,95 @@
+package org.mounanga.userservice.service.implementation;
+
+import lombok.extern.slf4j.Slf4j;
+import org.jetbrains.annotations.NotNull;
+import org.mounanga.userservice.configuration.ApplicationProperties;
+import org.mounanga.userservice.entity.TokenRevocation;
+import org.mounanga.userservice.entity.User;
+import org.mounanga.userservice.enums.RevocationType;
+import org.mounanga.userservice.repository.RefreshTokenRepository;
+import org.mounanga.userservice.repository.TokenRevocationRepository;
+import org.mounanga.userservice.security.TokenRevocationRegistry;
+import org.mounanga.userservice.service.TokenRevocationService;
+import org.mounanga.userservice.util.AfterCommit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.temporal.ChronoUnit;
+import java.util.Collection;
+
+@Slf4j
+@Service
+public class TokenRevocationServiceImpl implements TokenRevocationService {
+
+    private final TokenRevocationRepository tokenRevocationRepository;
+    private final RefreshTokenRepository refreshTokenRepository;
+    private final TokenRevocationRegistry tokenRevocationRegistry;
+    private final ApplicationProperties properties;
+
+    public TokenRevocationServiceImpl(TokenRevocationRepository tokenRevocationRepository, RefreshTokenRepository refreshTokenRepository, TokenRevocationRegistry tokenRevocationRegistry, ApplicationProperties properties) {
+        this.tokenRevocationRepository = tokenRevocationRepository;
+        this.refreshTokenRepository = refreshTokenRepository;
+        this.tokenRevocationRegistry = tokenRevocationRegistry;
+        this.properties = properties;
+    }
+
+    @Transactional
+    @Override
+    public void revokeToken(String tokenId, @NotNull Instant expiresAt) {
+        log.info("In revokeToken()");
+        TokenRevocation revocation = TokenRevocation.builder()
+                .type(RevocationType.TOKEN)
+                .subject(tokenId)
+                .revokedAt(LocalDateTime.now())
+                .expiryDate(LocalDateTime.ofInstant(expiresAt, ZoneId.systemDefault()))
+                .build();
+        registerAfterCommit(tokenRevocationRepository.save(revocation));
+        log.info("token with id '{}' revoked", tokenId);
+    }
+
+    @Transactional
+    @Override
+    public void revokeUser(@NotNull User user) {
+        log.info("In revokeUser()");
+        LocalDateTime now = LocalDateTime.now();
+        TokenRevocation revocation = TokenRevocation.builder()
+                .type(RevocationType.USER)
+                .subject(user.getUsername())
+                .revokedAt(now)
+                .expiryDate(now.plus(properties.getJwtExpiration(), ChronoUnit.MILLIS))
+                .build();
+        registerAfterCommit(tokenRevocationRepository.save(revocation));
+        int deleted = refreshTokenRepository.deleteByUserId(user.getId());
+        log.info("tokens of user with id '{}' revoked, {} refresh token(s) deleted", user.getId(), deleted);
+    }
+
+    @Transactional
+    @Override
+    public int revokeUsers(@NotNull Collection<String> userIds) {
+        log.info("In revokeUsers()");
+        LocalDateTime now = LocalDateTime.now();
+        int revoked = tokenRevocationRepository.insertUserRevocations(userIds, now, now.plus(properties.getJwtExpiration(), ChronoUnit.MILLIS));
+        int deleted = refreshTokenRepository.deleteByUserIdIn(userIds);
+        AfterCommit.run(tokenRevocationRegistry::refresh);
+        log.info("tokens of {} user(s) revoked, {} refresh token(s) deleted", revoked, deleted);
+        return revoked;
+    }
+
+    @Scheduled(cron = "${application.security.revocation.purge-cron}")
+    @Transactional
+    @Override
+    public void purgeExpiredRevocations() {
+        log.info("In purgeExpiredRevocations()");
+        int deleted = tokenRevocationRepository.deleteExpiredBefore(LocalDateTime.now());
+        log.info("{} expired revocation(s) deleted", deleted);
+        AfterCommit.run(tokenRevocationRegistry::rebuild);
+    }
+
+    private void registerAfterCommit(@NotNull TokenRevocation revocation) {
+        AfterCommit.run(() -> tokenRevocationRegistry.register(revocation));
+    }
+}
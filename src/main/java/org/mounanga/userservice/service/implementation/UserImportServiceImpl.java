@@ -0,0 +1,396 @@
+package org.mounanga.userservice.service.implementation;
+
+import com.fasterxml.jackson.core.exc.StreamReadException;
+import com.fasterxml.jackson.databind.DatabindException;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.dataformat.csv.CsvMapper;
+import com.fasterxml.jackson.dataformat.csv.CsvSchema;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import jakarta.validation.Validator;
+import lombok.extern.slf4j.Slf4j;
+import org.jetbrains.annotations.NotNull;
+import org.mounanga.userservice.configuration.ApplicationProperties;
+import org.mounanga.userservice.dto.SearchableUserDTO;
+import org.mounanga.userservice.dto.UserImportResultDTO;
+import org.mounanga.userservice.dto.UserImportSummaryDTO;
+import org.mounanga.userservice.dto.UserRequestDTO;
+import org.mounanga.userservice.enums.DataFormat;
+import org.mounanga.userservice.enums.ImportStatus;
+import org.mounanga.userservice.exception.FieldError;
+import org.mounanga.userservice.exception.ServiceUnavailableException;
+import org.mounanga.userservice.repository.ProfileRepository;
+import org.mounanga.userservice.repository.UserRepository;
+import org.mounanga.userservice.security.PasswordHashingExecutor;
+import org.mounanga.userservice.service.UserImportService;
+import org.mounanga.userservice.util.implementation.AvailabilityFilter;
+import org.mounanga.userservice.util.implementation.UserSearchIndex;
+import org.mounanga.userservice.util.implementation.UserSuggestionIndex;
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.domain.AuditorAware;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Function;
+
+@Slf4j
+@Service
+public class UserImportServiceImpl implements UserImportService {
+
+    private static final String INSERT_PROFILE = """
+            insert into profile (id, pin, firstname, lastname, birthday, place_of_birth, gender, nationality,
+                                 created_date, last_modified_date, create_by, last_modified_by)
+            values (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)
+            """;
+    private static final String INSERT_USER = """
+            insert into user (id, email, username, password, enabled, last_login, password_needs_to_be_changed, profile_id,
+                              created_date, last_modified_date, create_by, last_modified_by)
+            values (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)
+            """;
+    private static final int MAX_INSERT_ATTEMPTS = 2;
+
+    private final UserRepository userRepository;
+    private final ProfileRepository profileRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final PasswordEncoder passwordEncoder;
+    private final PasswordHashingExecutor passwordHashingExecutor;
+    private final Validator validator;
+    private final ObjectMapper objectMapper;
+    private final CsvMapper csvMapper;
+    private final AuditorAware<String> auditorAware;
+    private final UserSearchIndex userSearchIndex;
+    private final UserSuggestionIndex userSuggestionIndex;
+    private final AvailabilityFilter availabilityFilter;
+    private final TransactionTemplate transactionTemplate;
+    private final ApplicationProperties properties;
+
+    public UserImportServiceImpl(UserRepository userRepository, ProfileRepository profileRepository, JdbcTemplate jdbcTemplate, PasswordEncoder passwordEncoder, PasswordHashingExecutor passwordHashingExecutor, Validator validator, ObjectMapper objectMapper, AuditorAware<String> auditorAware, UserSearchIndex userSearchIndex, UserSuggestionIndex userSuggestionIndex, AvailabilityFilter availabilityFilter, PlatformTransactionManager transactionManager, ApplicationProperties properties) {
+        this.userRepository = userRepository;
+        this.profileRepository = profileRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.passwordEncoder = passwordEncoder;
+        this.passwordHashingExecutor = passwordHashingExecutor;
+        this.validator = validator;
+        this.objectMapper = objectMapper;
+        this.csvMapper = CsvMapper.builder()
+                .addModule(new JavaTimeModule())
+                .disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES)
+                .build();
+        this.auditorAware = auditorAware;
+        this.userSearchIndex = userSearchIndex;
+        this.userSuggestionIndex = userSuggestionIndex;
+        this.availabilityFilter = availabilityFilter;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.properties = properties;
+    }
+
+    @Override
+    public UserImportSummaryDTO importUsers(@NotNull InputStream input, @NotNull DataFormat format, @NotNull OutputStream output) throws IOException {
+        log.info("In importUsers()");
+        long start = System.nanoTime();
+        String auditor = auditorAware.getCurrentAuditor().orElse(null);
+        int batchSize = properties.getImportBatchSize();
+        Progress progress = new Progress();
+        List<ImportRow> batch = new ArrayList<>(batchSize);
+        long row = 0;
+        try (MappingIterator<UserRequestDTO> rows = readerFor(format).readValues(input)) {
+            boolean more = true;
+            while (more) {
+                try {
+                    more = rows.hasNextValue();
+                    if (more) {
+                        UserRequestDTO user = rows.nextValue();
+                        batch.add(new ImportRow(++row, user));
+                    }
+                } catch (DatabindException e) {
+                    batch.add(ImportRow.rejected(++row, new FieldError("row", e.getOriginalMessage())));
+                } catch (StreamReadException e) {
+                    // the rest of the input cannot be split into rows reliably, so the import stops here
+                    log.warn("import stopped on malformed input at row {}: {}", row + 1, e.getOriginalMessage());
+                    batch.add(ImportRow.failed(++row, "Malformed input: " + e.getOriginalMessage()));
+                    more = false;
+                }
+                if (batch.size() >= batchSize || (!more && !batch.isEmpty())) {
+                    importBatch(batch, auditor);
+                    write(batch, output, progress);
+                    batch.clear();
+                }
+            }
+        }
+        UserImportSummaryDTO summary = progress.summary((System.nanoTime() - start) / 1_000_000);
+        log.info("import finished: {} row(s), {} created, {} rejected, {} failed in {} ms",
+                summary.rows(), summary.created(), summary.rejected(), summary.failed(), summary.durationMillis());
+        return summary;
+    }
+
+    private ObjectReader readerFor(@NotNull DataFormat format) {
+        if (format == DataFormat.CSV) {
+            return csvMapper.readerFor(UserRequestDTO.class).with(CsvSchema.emptySchema().withHeader());
+        }
+        return objectMapper.readerFor(UserRequestDTO.class);
+    }
+
+    private void importBatch(@NotNull List<ImportRow> batch, String auditor) {
+        validate(pending(batch));
+        rejectExisting(pending(batch));
+        hashPasswords(pending(batch));
+        insert(batch, auditor);
+        pending(batch).forEach(row -> row.fail("Row was not inserted, please retry it"));
+        batch.stream()
+                .filter(row -> row.status == ImportStatus.CREATED)
+                .forEach(row -> index(row.toSearchableUser()));
+    }
+
+    private void validate(@NotNull List<ImportRow> rows) {
+        Set<String> emails = new HashSet<>();
+        Set<String> usernames = new HashSet<>();
+        Set<String> pins = new HashSet<>();
+        for (ImportRow row : rows) {
+            List<FieldError> errors = new ArrayList<>();
+            validator.validate(row.user).forEach(violation -> errors.add(new FieldError(violation.getPropertyPath().toString(), violation.getMessage())));
+            if (errors.isEmpty()) {
+                if (!emails.add(key(row.user.getEmail()))) {
+                    errors.add(new FieldError("email", "Email is duplicated in the import"));
+                }
+                if (!usernames.add(key(row.user.getUsername()))) {
+                    errors.add(new FieldError("username", "Username is duplicated in the import"));
+                }
+                if (!pins.add(key(row.user.getPin()))) {
+                    errors.add(new FieldError("pin", "Pin is duplicated in the import"));
+                }
+            }
+            row.reject(errors);
+        }
+    }
+
+    private void rejectExisting(@NotNull List<ImportRow> rows) {
+        if (rows.isEmpty()) {
+            return;
+        }
+        Set<String> emails = keys(userRepository.findExistingEmails(values(rows, UserRequestDTO::getEmail)));
+        Set<String> usernames = keys(userRepository.findExistingUsernames(values(rows, UserRequestDTO::getUsername)));
+        Set<String> pins = keys(profileRepository.findExistingPins(values(rows, UserRequestDTO::getPin)));
+        for (ImportRow row : rows) {
+            List<FieldError> errors = new ArrayList<>();
+            if (emails.contains(key(row.user.getEmail()))) {
+                errors.add(new FieldError("email", "Email already exists"));
+            }
+            if (usernames.contains(key(row.user.getUsername()))) {
+                errors.add(new FieldError("username", "Username already exists"));
+            }
+            if (pins.contains(key(row.user.getPin()))) {
+                errors.add(new FieldError("pin", "Pin already exists"));
+            }
+            row.reject(errors);
+        }
+    }
+
+    private void hashPasswords(@NotNull List<ImportRow> rows) {
+        int concurrency = properties.getImportHashingConcurrency() > 0 ? properties.getImportHashingConcurrency() : Runtime.getRuntime().availableProcessors();
+        Deque<CompletableFuture<Void>> inFlight = new ArrayDeque<>(concurrency);
+        for (ImportRow row : rows) {
+            if (inFlight.size() == concurrency) {
+                inFlight.removeFirst().join();
+            }
+            inFlight.addLast(hashPassword(row));
+        }
+        inFlight.forEach(CompletableFuture::join);
+    }
+
+    private @NotNull CompletableFuture<Void> hashPassword(@NotNull ImportRow row) {
+        Runnable task = () -> row.password = passwordEncoder.encode(row.user.getPassword());
+        try {
+            return passwordHashingExecutor.run(task);
+        } catch (ServiceUnavailableException e) {
+            // interactive requests keep the shared queue, the import hashes this row itself
+            task.run();
+            return CompletableFuture.completedFuture(null);
+        }
+    }
+
+    private void insert(@NotNull List<ImportRow> batch, String auditor) {
+        for (int attempt = 1; attempt <= MAX_INSERT_ATTEMPTS; attempt++) {
+            List<ImportRow> rows = pending(batch);
+            if (rows.isEmpty()) {
+                return;
+            }
+            try {
+                transactionTemplate.executeWithoutResult(status -> insertRows(rows, auditor));
+                rows.forEach(ImportRow::created);
+                return;
+            } catch (DuplicateKeyException e) {
+                // another request created one of these users since the check, look again before retrying
+                log.warn("import batch conflicts with a concurrent insert, checking {} row(s) again", rows.size());
+                rejectExisting(rows);
+            } catch (DataAccessException e) {
+                log.error("unable to insert an import batch of {} row(s)", rows.size(), e);
+                rows.forEach(row -> row.fail("Row was not inserted: " + e.getMostSpecificCause().getMessage()));
+                return;
+            }
+        }
+    }
+
+    private void insertRows(@NotNull List<ImportRow> rows, String auditor) {
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        rows.forEach(ImportRow::assignIds);
+        jdbcTemplate.batchUpdate(INSERT_PROFILE, rows, rows.size(), (statement, row) -> {
+            UserRequestDTO user = row.user;
+            statement.setString(1, row.profileId);
+            statement.setString(2, user.getPin());
+            statement.setString(3, user.getFirstname());
+            statement.setString(4, user.getLastname());
+            statement.setDate(5, Date.valueOf(user.getBirthday()));
+            statement.setString(6, user.getPlaceOfBirth());
+            statement.setString(7, user.getGender().name());
+            statement.setString(8, user.getNationality());
+            statement.setTimestamp(9, now);
+            statement.setTimestamp(10, now);
+            statement.setString(11, auditor);
+            statement.setString(12, auditor);
+        });
+        jdbcTemplate.batchUpdate(INSERT_USER, rows, rows.size(), (statement, row) -> {
+            UserRequestDTO user = row.user;
+            statement.setString(1, row.userId);
+            statement.setString(2, user.getEmail());
+            statement.setString(3, user.getUsername());
+            statement.setString(4, row.password);
+            statement.setBoolean(5, false);
+            statement.setTimestamp(6, now);
+            statement.setBoolean(7, true);
+            statement.setString(8, row.profileId);
+            statement.setTimestamp(9, now);
+            statement.setTimestamp(10, now);
+            statement.setString(11, auditor);
+            statement.setString(12, auditor);
+        });
+    }
+
+    private void index(@NotNull SearchableUserDTO user) {
+        userSearchIndex.put(user);
+        userSuggestionIndex.put(user);
+        availabilityFilter.put(user);
+    }
+
+    private void write(@NotNull List<ImportRow> batch, @NotNull OutputStream output, @NotNull Progress progress) throws IOException {
+        for (ImportRow row : batch) {
+            output.write(objectMapper.writeValueAsBytes(row.toResult()));
+            output.write('\n');
+            progress.count(row.status);
+        }
+        output.flush();
+        log.info("import progress: {} row(s) read, {} created, {} rejected, {} failed", progress.rows, progress.created, progress.rejected, progress.failed);
+    }
+
+    private static @NotNull List<ImportRow> pending(@NotNull List<ImportRow> rows) {
+        return rows.stream().filter(row -> row.status == null).toList();
+    }
+
+    private static @NotNull List<String> values(@NotNull List<ImportRow> rows, @NotNull Function<UserRequestDTO, String> field) {
+        return rows.stream().map(row -> field.apply(row.user)).toList();
+    }
+
+    private static @NotNull Set<String> keys(@NotNull List<String> values) {
+        Set<String> keys = new HashSet<>(values.size());
+        values.forEach(value -> keys.add(key(value)));
+        return keys;
+    }
+
+    // MySQL compares these columns case-insensitively, so the import does too
+    private static String key(String value) {
+        return value == null ? null : value.toLowerCase(Locale.ROOT);
+    }
+
+    private static final class ImportRow {
+
+        private final long row;
+        private final UserRequestDTO user;
+        private final List<FieldError> errors = new ArrayList<>();
+        private ImportStatus status;
+        private String userId;
+        private String profileId;
+        private String password;
+
+        private ImportRow(long row, UserRequestDTO user) {
+            this.row = row;
+            this.user = user;
+        }
+
+        static @NotNull ImportRow rejected(long row, FieldError error) {
+            ImportRow importRow = new ImportRow(row, null);
+            importRow.reject(List.of(error));
+            return importRow;
+        }
+
+        static @NotNull ImportRow failed(long row, String message) {
+            ImportRow importRow = new ImportRow(row, null);
+            importRow.fail(message);
+            return importRow;
+        }
+
+        void reject(@NotNull List<FieldError> rowErrors) {
+            if (!rowErrors.isEmpty()) {
+                errors.addAll(rowErrors);
+                status = ImportStatus.REJECTED;
+            }
+        }
+
+        void fail(String message) {
+            errors.add(new FieldError("row", message));
+            status = ImportStatus.FAILED;
+        }
+
+        void assignIds() {
+            userId = UUID.randomUUID().toString();
+            profileId = UUID.randomUUID().toString();
+        }
+
+        void created() {
+            status = ImportStatus.CREATED;
+        }
+
+        @NotNull SearchableUserDTO toSearchableUser() {
+            return new SearchableUserDTO(userId, user.getUsername(), user.getEmail(), user.getFirstname(), user.getLastname(), user.getPin());
+        }
+
+        @NotNull UserImportResultDTO toResult() {
+            String username = user == null ? null : user.getUsername();
+            String id = status == ImportStatus.CREATED ? userId : null;
+            return new UserImportResultDTO(row, status, id, username, errors.isEmpty() ? null : List.copyOf(errors));
+        }
+    }
+
+    private static final class Progress {
+
+        private long rows;
+        private long created;
+        private long rejected;
+        private long failed;
+
+        void count(@NotNull ImportStatus status) {
+            rows++;
+            switch (status) {
+                case CREATED -> created++;
+                case REJECTED -> rejected++;
+                case FAILED -> failed++;
+            }
+        }
+
+        @NotNull UserImportSummaryDTO summary(long durationMillis) {
+            return new UserImportSummaryDTO(rows, created, rejected, failed, durationMillis);
+        }
+    }
+}
@@ -2,27 +2,48 @@ package org.mounanga.userservice.service.implementation;
 
 import lombok.extern.slf4j.Slf4j;
 import org.jetbrains.annotations.NotNull;
+import org.mounanga.userservice.configuration.ApplicationProperties;
 import org.mounanga.userservice.dto.*;
 import org.mounanga.userservice.entity.Profile;
 import org.mounanga.userservice.entity.Role;
 import org.mounanga.userservice.entity.User;
 import org.mounanga.userservice.exception.*;
+import org.mounanga.userservice.repository.LoginDeviceRepository;
 import org.mounanga.userservice.repository.ProfileRepository;
 import org.mounanga.userservice.repository.RoleRepository;
 import org.mounanga.userservice.repository.UserRepository;
+import org.mounanga.userservice.security.PasswordHashingExecutor;
+import org.mounanga.userservice.service.TokenRevocationService;
 import org.mounanga.userservice.service.UserService;
+import org.mounanga.userservice.util.AfterCommit;
+import org.mounanga.userservice.util.CursorCodec;
 import org.mounanga.userservice.util.Mappers;
+import org.mounanga.userservice.util.UniqueConstraints;
+import org.mounanga.userservice.util.implementation.AvailabilityFilter;
+import org.mounanga.userservice.util.implementation.RoleCatalog;
+import org.mounanga.userservice.util.implementation.UniqueConstraintTranslator;
+import org.mounanga.userservice.util.implementation.UserSearchIndex;
+import org.mounanga.userservice.util.implementation.UserSuggestionIndex;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.time.LocalDateTime;
-import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
 
 @Service
 @Slf4j
@@ -32,29 +53,57 @@ public class UserServiceImpl implements UserService {
     private final ProfileRepository profileRepository;
     private final RoleRepository roleRepository;
     private final PasswordEncoder passwordEncoder;
+    private final PasswordHashingExecutor passwordHashingExecutor;
+    private final TokenRevocationService tokenRevocationService;
+    private final LoginDeviceRepository loginDeviceRepository;
+    private final UserSearchIndex userSearchIndex;
+    private final UserSuggestionIndex userSuggestionIndex;
+    private final AvailabilityFilter availabilityFilter;
+    private final RoleCatalog roleCatalog;
+    private final UniqueConstraintTranslator uniqueConstraintTranslator;
+    private final ApplicationProperties properties;
+    private final TransactionTemplate transactionTemplate;
 
-    public UserServiceImpl(UserRepository userRepository, ProfileRepository profileRepository, RoleRepository roleRepository, PasswordEncoder passwordEncoder) {
+    public UserServiceImpl(UserRepository userRepository, ProfileRepository profileRepository, RoleRepository roleRepository, PasswordEncoder passwordEncoder, PasswordHashingExecutor passwordHashingExecutor, TokenRevocationService tokenRevocationService, LoginDeviceRepository loginDeviceRepository, UserSearchIndex userSearchIndex, UserSuggestionIndex userSuggestionIndex, AvailabilityFilter availabilityFilter, RoleCatalog roleCatalog, UniqueConstraintTranslator uniqueConstraintTranslator, ApplicationProperties properties, PlatformTransactionManager transactionManager) {
         this.userRepository = userRepository;
         this.profileRepository = profileRepository;
         this.roleRepository = roleRepository;
         this.passwordEncoder = passwordEncoder;
+        this.passwordHashingExecutor = passwordHashingExecutor;
+        this.tokenRevocationService = tokenRevocationService;
+        this.loginDeviceRepository = loginDeviceRepository;
+        this.userSearchIndex = userSearchIndex;
+        this.userSuggestionIndex = userSuggestionIndex;
+        this.availabilityFilter = availabilityFilter;
+        this.roleCatalog = roleCatalog;
+        this.uniqueConstraintTranslator = uniqueConstraintTranslator;
+        this.properties = properties;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
     }
 
 
-    @Transactional
     @Override
-    public UserResponseDTO createUser(@NotNull UserRequestDTO dto) {
+    public CompletableFuture<UserResponseDTO> createUser(@NotNull UserRequestDTO dto) {
         log.info("In createUser()");
+        // a taken value is refused before hashing; the password is then hashed on the hashing pool and the user is
+        // saved in a transaction once the hash is done, still guarded by the unique constraints
         validationBeforeSaved(dto.getEmail(), dto.getUsername(), dto.getPin());
+        return passwordHashingExecutor.submit(() -> passwordEncoder.encode(dto.getPassword()),
+                encodedPassword -> transactionTemplate.execute(status -> saveUser(dto, encodedPassword)));
+    }
+
+    private UserResponseDTO saveUser(@NotNull UserRequestDTO dto, String encodedPassword) {
         User user = Mappers.fromUserRequestDTO(dto);
         Profile profile = Mappers.fromUserProfileRequestDTO(dto);
         user.setProfile(profile);
-        user.setPassword(passwordEncoder.encode(user.getPassword()));
+        user.setPassword(encodedPassword);
         user.setPasswordNeedsToBeChanged(true);
         user.setEnabled(Boolean.FALSE);
         user.setLastLogin(LocalDateTime.now());
         User savedUser = userRepository.save(user);
         log.info("User saved with id '{}' at '{}' by '{}'", savedUser.getId(), savedUser.getCreatedDate(), savedUser.getCreateBy());
+        SearchableUserDTO searchable = Mappers.toSearchableUser(savedUser);
+        AfterCommit.run(() -> index(searchable));
         return Mappers.fromUser(savedUser);
     }
 
@@ -64,10 +113,18 @@ public class UserServiceImpl implements UserService {
         log.info("In updateUser()");
         User existingUser = findUserById(id);
         validationBeforeUpdate(existingUser, dto.email(), dto.username());
+        if(!existingUser.getUsername().equals(dto.username())){
+            tokenRevocationService.revokeUser(existingUser);
+        }
         existingUser.setUsername(dto.username());
         existingUser.setEmail(dto.email());
         User updatedUser = userRepository.save(existingUser);
         log.info("user with id '{}' updated at '{}' by '{}'", updatedUser.getId(),updatedUser.getLastModifiedDate(), updatedUser.getLastModifiedBy());
+        SearchableUserDTO searchable = Mappers.toSearchableUser(updatedUser);
+        AfterCommit.run(() -> {
+            userSuggestionIndex.put(searchable);
+            availabilityFilter.put(searchable);
+        });
         return Mappers.fromUser(updatedUser);
     }
 
@@ -86,11 +143,24 @@ public class UserServiceImpl implements UserService {
             throw new ResourceAlreadyExistException("there is already a profile with the same pin");
         }
         profile.setPin(dto.getPin());
-        Profile updatedProfile = profileRepository.save(profile);
+        Profile updatedProfile;
+        try {
+            // flushed here so that a pin taken meanwhile by another instance fails like the check above
+            updatedProfile = profileRepository.saveAndFlush(profile);
+        } catch (DataIntegrityViolationException exception) {
+            if (uniqueConstraintTranslator.violates(exception, UniqueConstraints.PROFILE_PIN)) {
+                throw new ResourceAlreadyExistException("there is already a profile with the same pin");
+            }
+            throw exception;
+        }
         log.info("Profile with id '{}' updated at '{}' by '{}'", id, updatedProfile.getLastModifiedDate(), updatedProfile.getLastModifiedBy());
+        userRepository.findByProfileId(updatedProfile.getId())
+                .map(Mappers::toSearchableUser)
+                .ifPresent(searchable -> AfterCommit.run(() -> index(searchable)));
         return Mappers.fromUserProfile(updatedProfile);
     }
 
+    @Transactional(readOnly = true)
     @Override
     public UserResponseDTO getUserById(String id) {
         log.info("In getUserById()");
@@ -99,22 +169,89 @@ public class UserServiceImpl implements UserService {
         return Mappers.fromUser(user);
     }
 
+    @Transactional(readOnly = true)
     @Override
     public PageModel<UserResponseDTO> getAllUsers(int page, int size) {
         log.info("In getAllUsers()");
         Pageable pageable = PageRequest.of(page, size);
-        Page<User> users = userRepository.findAll(pageable);
-        log.info("'{}' Users found", users.getTotalElements());
-        return Mappers.fromPageOfUsers(users, page);
+        Page<UserRowDTO> rows = userRepository.findAllRows(pageable);
+        log.info("'{}' Users found", rows.getTotalElements());
+        Page<UserResponseDTO> users = new PageImpl<>(toUserResponses(rows.getContent()), pageable, rows.getTotalElements());
+        return Mappers.fromPageOfDTOs(users, page);
     }
 
+    @Transactional(readOnly = true)
     @Override
     public PageModel<UserResponseDTO> searchUsers(String keyword, int page, int size) {
         log.info("In searchUsers()");
+        if(keyword == null || keyword.isBlank()) {
+            return getAllUsers(page, size);
+        }
         Pageable pageable = PageRequest.of(page, size);
-        Page<User> users = userRepository.search("%"+keyword+"%", pageable);
+        UserSearchIndex.Hits hits = userSearchIndex.search(keyword, pageable.getOffset(), size);
+        Page<UserResponseDTO> users = new PageImpl<>(toUserResponses(findRowsByIdInOrder(hits.userIds())), pageable, hits.total());
         log.info("'{}' Users found.", users.getTotalElements());
-        return Mappers.fromPageOfUsers(users, page);
+        return Mappers.fromPageOfDTOs(users, page);
+    }
+
+    @Transactional(readOnly = true)
+    @Override
+    public SliceModel<UserResponseDTO> getAllUsers(String after, int size) {
+        log.info("In getAllUsers()");
+        Pageable limit = PageRequest.ofSize(size + 1);
+        List<UserRowDTO> rows;
+        if(after == null || after.isBlank()) {
+            rows = userRepository.findFirstSlice(limit);
+        } else {
+            CursorCodec.DateIdCursor cursor = CursorCodec.decodeDateId(after);
+            rows = userRepository.findSliceAfter(cursor.createdDate(), cursor.id(), limit);
+        }
+        log.info("'{}' Users fetched", rows.size());
+        return Mappers.fromSliceOfUsers(toUserResponses(rows), size);
+    }
+
+    @Transactional(readOnly = true)
+    @Override
+    public SliceModel<UserResponseDTO> searchUsers(String keyword, String after, int size) {
+        log.info("In searchUsers()");
+        if(keyword == null || keyword.isBlank()) {
+            return getAllUsers(after, size);
+        }
+        UserSearchIndex.Hits hits = userSearchIndex.search(keyword);
+        if(hits.userIds().isEmpty()) {
+            return Mappers.fromSliceOfUsers(List.of(), size);
+        }
+        Pageable limit = PageRequest.ofSize(size + 1);
+        List<UserRowDTO> rows;
+        if(after == null || after.isBlank()) {
+            rows = userRepository.findFirstSliceAmong(hits.userIds(), limit);
+        } else {
+            CursorCodec.DateIdCursor cursor = CursorCodec.decodeDateId(after);
+            rows = userRepository.findSliceAfterAmong(hits.userIds(), cursor.createdDate(), cursor.id(), limit);
+        }
+        log.info("'{}' Users fetched.", rows.size());
+        SliceModel<UserResponseDTO> slice = Mappers.fromSliceOfUsers(toUserResponses(rows), size);
+        // the slice is ordered by creation date among the best ranked matches only
+        if(hits.total() > hits.userIds().size()) {
+            log.info("keyword matches {} users, slice limited to the {} best ranked", hits.total(), hits.userIds().size());
+            slice.setTruncated(true);
+        }
+        return slice;
+    }
+
+    @Override
+    public List<String> suggestUsers(String prefix, int limit) {
+        log.info("In suggestUsers()");
+        return userSuggestionIndex.suggest(prefix, Math.min(limit, properties.getSearchSuggestMaxLimit()));
+    }
+
+    @Override
+    public AvailabilityDTO checkAvailability(String username, String email, String pin) {
+        log.info("In checkAvailability()");
+        return new AvailabilityDTO(
+                isAvailable(username, availabilityFilter::mightBeTakenUsername, userRepository::findExistingUsernames),
+                isAvailable(email, availabilityFilter::mightBeTakenEmail, userRepository::findExistingEmails),
+                isAvailable(pin, availabilityFilter::mightBeTakenPin, profileRepository::findExistingPins));
     }
 
     @Transactional
@@ -125,31 +262,23 @@ public class UserServiceImpl implements UserService {
         if(user.isSuperAdmin()){
             throw new NotAuthorizedException("You cannot delete a super administrator.");
         }
+        tokenRevocationService.revokeUser(user);
+        loginDeviceRepository.deleteByUserId(id);
         userRepository.deleteById(id);
+        AfterCommit.run(() -> unindex(id));
         log.info("User with id {} deleted.", id);
     }
 
-    @Transactional
-    @Override
-    public void deleteAllUsersByIds(List<String> ids) {
-        log.info("In deleteAllUsersByIds()");
-        List<User> users = userRepository.findAllById(ids).stream()
-                .filter(user -> !user.isSuperAdmin())
-                .toList();
-        userRepository.deleteAll(users);
-        log.info(" {} users deleted.",users.size());
-    }
-
     @Transactional
     @Override
     public UserResponseDTO addRoleToUser(@NotNull UserRoleRequestDTO dto) {
         log.info("In addRoleToUser()");
         User user = findUserById(dto.userId());
-        Role role = findRoleByName(dto.roleName());
-        if(role.isSuperAdminRole()){
+        RoleDTO role = findRoleByName(dto.roleName());
+        if(Role.isSuperAdminRole(role.name())){
             throw new NotAuthorizedException("You cannot add a new super administrator.");
         }
-        user.addRole(role);
+        user.addRole(roleRepository.getReferenceById(role.id()));
         User updatedUser = userRepository.save(user);
         log.info("role '{}' has been added to user with id '{}', at '{}', by '{}'.", dto.roleName(), updatedUser.getId(), updatedUser.getLastModifiedDate(), updatedUser.getLastModifiedBy());
         return Mappers.fromUser(updatedUser);
@@ -163,13 +292,18 @@ public class UserServiceImpl implements UserService {
         if(user.isSuperAdmin()){
             throw new NotAuthorizedException("You cannot remove a role to a super administrator.");
         }
-        Role role = findRoleByName(dto.roleName());
-        user.removeRole(role);
+        RoleDTO role = findRoleByName(dto.roleName());
+        user.getRoles().stream()
+                .filter(owned -> role.id().equals(owned.getId()))
+                .findFirst()
+                .ifPresent(user::removeRole);
+        tokenRevocationService.revokeUser(user);
         User updatedUser = userRepository.save(user);
         log.info("role '{}' has been removed from user with id '{}', at '{}', by '{}'.", dto.roleName(), updatedUser.getId(), updatedUser.getLastModifiedDate(), updatedUser.getLastModifiedBy());
         return Mappers.fromUser(updatedUser);
     }
 
+    @Transactional(readOnly = true)
     @Override
     public UserResponseDTO getUserByUsername(String username) {
         log.info("In getUserByUsername()");
@@ -184,37 +318,61 @@ public class UserServiceImpl implements UserService {
                 .orElseThrow( () -> new UserNotFoundException("user with id '"+id+"' not found."));
     }
 
-    private Role findRoleByName(String roleName){
-        return roleRepository.findByName(roleName)
+    private @NotNull List<UserRowDTO> findRowsByIdInOrder(List<String> ids){
+        if(ids.isEmpty()) {
+            return List.of();
+        }
+        Map<String, UserRowDTO> rowsById = userRepository.findRowsByIdIn(ids).stream()
+                .collect(Collectors.toMap(UserRowDTO::id, Function.identity()));
+        return ids.stream()
+                .map(rowsById::get)
+                .filter(Objects::nonNull)
+                .toList();
+    }
+
+    private @NotNull List<UserResponseDTO> toUserResponses(@NotNull List<UserRowDTO> rows){
+        if(rows.isEmpty()) {
+            return List.of();
+        }
+        List<UserRoleNameDTO> roleNames = userRepository.findRoleNamesByUserIds(rows.stream().map(UserRowDTO::id).toList());
+        return Mappers.fromUserRows(rows, roleNames);
+    }
+
+    private RoleDTO findRoleByName(String roleName){
+        return roleCatalog.findByName(roleName)
                 .orElseThrow( () -> new RoleNotFoundException("Role not found."));
     }
 
+    // the availability filter may lag behind the writes of other instances: the write path always asks the database
     private void validationBeforeSaved(String email, String username, String pin){
-        List<FieldError> fieldErrors = new ArrayList<>();
-        if(userRepository.existsByEmail(email)){
-            fieldErrors.add(new FieldError("email","Email already exists"));
-        }
-        if(userRepository.existsByUsername(username)){
-            fieldErrors.add(new FieldError("username","Username already exists"));
-        }
-        if(profileRepository.existsByPin(pin)){
-            fieldErrors.add(new FieldError("pin","Pin already exists"));
-        }
+        List<FieldError> fieldErrors = UniqueConstraints.fieldErrors(userRepository.findConflictingFields(email, username, pin));
         if (!fieldErrors.isEmpty()) {
             throw new FieldValidationException("Validation error", fieldErrors);
         }
     }
 
     private void validationBeforeUpdate(@NotNull User existingUser, String email, String username) {
-        List<FieldError> fieldErrors = new ArrayList<>();
-        if(!existingUser.getEmail().equals(email) && userRepository.existsByEmail(email)){
-                fieldErrors.add(new FieldError("email","Email already exists"));
-        }
-        if(!existingUser.getUsername().equals(username) && userRepository.existsByUsername(username)){
-            fieldErrors.add(new FieldError("username","Username already exists"));
-        }
+        List<FieldError> fieldErrors = UniqueConstraints.fieldErrors(userRepository.findConflictingFieldsOfOtherUsers(existingUser.getId(), email, username));
         if (!fieldErrors.isEmpty()) {
             throw new FieldValidationException("Validation error", fieldErrors);
         }
     }
+
+    private Boolean isAvailable(String value, @NotNull Predicate<String> mightBeTaken, Function<List<String>, List<String>> findExisting) {
+        if (value == null || value.isBlank()) {
+            return null;
+        }
+        return !mightBeTaken.test(value) || findExisting.apply(List.of(value)).isEmpty();
+    }
+
+    private void index(@NotNull SearchableUserDTO user) {
+        userSearchIndex.put(user);
+        userSuggestionIndex.put(user);
+        availabilityFilter.put(user);
+    }
+
+    private void unindex(String userId) {
+        userSearchIndex.remove(userId);
+        userSuggestionIndex.remove(userId);
+    }
 }
@@ -0,0 +1,63 @@
+package org.mounanga.userservice.util;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+import java.util.regex.Pattern;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+public class CursorCodec {
+
+    private static final String SEPARATOR = "|";
+    private static final Pattern SEPARATOR_PATTERN = Pattern.compile(Pattern.quote(SEPARATOR));
+
+    private CursorCodec() {
+        super();
+    }
+
+    public static @NotNull String encode(@NotNull LocalDateTime createdDate, @NotNull String id) {
+        return encode(createdDate + SEPARATOR + id);
+    }
+
+    public static @NotNull String encode(@NotNull Long id) {
+        return encode(id.toString());
+    }
+
+    public static @NotNull DateIdCursor decodeDateId(@NotNull String cursor) {
+        String[] parts = SEPARATOR_PATTERN.split(decode(cursor), 2);
+        if (parts.length != 2 || parts[1].isEmpty()) {
+            throw new IllegalArgumentException("Invalid cursor");
+        }
+        try {
+            return new DateIdCursor(LocalDateTime.parse(parts[0]), parts[1]);
+        } catch (DateTimeParseException e) {
+            throw new IllegalArgumentException("Invalid cursor");
+        }
+    }
+
+    public static @NotNull Long decodeId(@NotNull String cursor) {
+        try {
+            return Long.valueOf(decode(cursor));
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid cursor");
+        }
+    }
+
+    private static @NotNull String encode(@NotNull String value) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(value.getBytes(UTF_8));
+    }
+
+    private static @NotNull String decode(@NotNull String cursor) {
+        try {
+            return new String(Base64.getUrlDecoder().decode(cursor), UTF_8);
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid cursor");
+        }
+    }
+
+    public record DateIdCursor(LocalDateTime createdDate, String id) {
+    }
+}
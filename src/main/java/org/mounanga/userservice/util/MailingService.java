@@ -1,5 +1,7 @@
 package org.mounanga.userservice.util;
 
+import org.mounanga.userservice.enums.MailType;
+
 public interface MailingService {
-    void sendMail(String to, String subject, String body);
+    void sendMail(String to, MailType type, String body);
 }
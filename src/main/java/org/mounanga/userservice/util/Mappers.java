@@ -7,7 +7,10 @@ import org.mounanga.userservice.entity.Role;
 import org.mounanga.userservice.entity.User;
 import org.springframework.data.domain.Page;
 
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 public class Mappers {
 
@@ -43,13 +46,6 @@ public class Mappers {
         return userDTO;
     }
 
-    public static List<UserResponseDTO> fromUserList(final List<User> userList) {
-        if(userList == null || userList.isEmpty()) {
-            return List.of();
-        }
-        return userList.stream().map(Mappers::fromUser).toList();
-    }
-
     public static @NotNull Profile fromUserProfileRequestDTO(final @NotNull UserRequestDTO userRequestDTO) {
         final Profile profile = new Profile();
         profile.setLastname(userRequestDTO.getLastname());
@@ -97,26 +93,6 @@ public class Mappers {
         return role;
     }
 
-    public static PageModel<UserResponseDTO> fromPageOfUsers(final Page<User> entityPage, final int page) {
-        if(entityPage == null) {
-            return null;
-        }
-        final PageModel<UserResponseDTO> pageModel = new PageModel<>();
-        pageModel.setTotalElements(entityPage.getTotalElements());
-        pageModel.setHasNext(entityPage.hasNext());
-        pageModel.setHasPrevious(entityPage.hasPrevious());
-        pageModel.setHasContent(entityPage.hasContent());
-        pageModel.setNumbers(entityPage.getNumber());
-        pageModel.setNumberOfElements(entityPage.getNumberOfElements());
-        pageModel.setPage(page);
-        pageModel.setTotalPages(entityPage.getTotalPages());
-        pageModel.setSize(entityPage.getSize());
-        pageModel.setLast(entityPage.isLast());
-        pageModel.setFirst(entityPage.isFirst());
-        pageModel.setContent(fromUserList(entityPage.getContent()));
-        return pageModel;
-    }
-
     public static PageModel<RoleDTO> fromPageOfRoles(final Page<Role> entityPage, final int page) {
         if(entityPage == null) {
             return null;
@@ -137,6 +113,90 @@ public class Mappers {
         return pageModel;
     }
 
+    public static @NotNull SearchableUserDTO toSearchableUser(@NotNull User user) {
+        final Profile profile = user.getProfile();
+        if(profile == null) {
+            return new SearchableUserDTO(user.getId(), user.getUsername(), user.getEmail(), null, null, null);
+        }
+        return new SearchableUserDTO(user.getId(), user.getUsername(), user.getEmail(), profile.getFirstname(), profile.getLastname(), profile.getPin());
+    }
+
+    public static @NotNull List<UserResponseDTO> fromUserRows(final @NotNull List<UserRowDTO> rows, final @NotNull List<UserRoleNameDTO> roleNames) {
+        final Map<String, List<String>> rolesByUser = new HashMap<>();
+        roleNames.forEach(roleName -> rolesByUser.computeIfAbsent(roleName.userId(), id -> new ArrayList<>()).add(roleName.roleName()));
+        return rows.stream()
+                .map(row -> fromUserRow(row, rolesByUser.getOrDefault(row.id(), List.of())))
+                .toList();
+    }
+
+    public static @NotNull UserResponseDTO fromUserRow(final @NotNull UserRowDTO row, final List<String> roles) {
+        final UserResponseDTO userDTO = new UserResponseDTO();
+        userDTO.setId(row.id());
+        userDTO.setUsername(row.username());
+        userDTO.setEmail(row.email());
+        userDTO.setEnabled(row.enabled());
+        userDTO.setCreateBy(row.createBy());
+        userDTO.setCreatedDate(row.createdDate());
+        userDTO.setLastModifiedBy(row.lastModifiedBy());
+        userDTO.setLastModifiedDate(row.lastModifiedDate());
+        userDTO.setLastLogin(row.lastLogin());
+        userDTO.setRoles(roles);
+        if(row.profileId() != null) {
+            userDTO.setProfile(new ProfileResponseDTO(row.profileId(), row.firstname(), row.lastname(), row.birthday(),
+                    row.placeOfBirth(), row.gender(), row.nationality(), row.pin()));
+        }
+        return userDTO;
+    }
+
+    public static <T> PageModel<T> fromPageOfDTOs(final Page<T> dtoPage, final int page) {
+        if(dtoPage == null) {
+            return null;
+        }
+        final PageModel<T> pageModel = new PageModel<>();
+        pageModel.setTotalElements(dtoPage.getTotalElements());
+        pageModel.setTotalPages(dtoPage.getTotalPages());
+        pageModel.setSize(dtoPage.getSize());
+        pageModel.setLast(dtoPage.isLast());
+        pageModel.setFirst(dtoPage.isFirst());
+        pageModel.setHasNext(dtoPage.hasNext());
+        pageModel.setHasPrevious(dtoPage.hasPrevious());
+        pageModel.setHasContent(dtoPage.hasContent());
+        pageModel.setNumbers(dtoPage.getNumber());
+        pageModel.setNumberOfElements(dtoPage.getNumberOfElements());
+        pageModel.setPage(page);
+        pageModel.setContent(dtoPage.getContent());
+        return pageModel;
+    }
+
+    public static SliceModel<UserResponseDTO> fromSliceOfUsers(final List<UserResponseDTO> users, final int size) {
+        final List<UserResponseDTO> content = users.size() > size ? users.subList(0, size) : users;
+        final SliceModel<UserResponseDTO> sliceModel = new SliceModel<>();
+        sliceModel.setHasContent(!content.isEmpty());
+        sliceModel.setHasNext(users.size() > size);
+        sliceModel.setSize(size);
+        sliceModel.setNumberOfElements(content.size());
+        if(sliceModel.isHasNext()) {
+            final UserResponseDTO last = content.get(content.size() - 1);
+            sliceModel.setNextCursor(CursorCodec.encode(last.getCreatedDate(), last.getId()));
+        }
+        sliceModel.setContent(content);
+        return sliceModel;
+    }
+
+    public static SliceModel<RoleDTO> fromSliceOfRoles(final List<RoleDTO> roles, final int size) {
+        final List<RoleDTO> content = roles.size() > size ? roles.subList(0, size) : roles;
+        final SliceModel<RoleDTO> sliceModel = new SliceModel<>();
+        sliceModel.setHasContent(!content.isEmpty());
+        sliceModel.setHasNext(roles.size() > size);
+        sliceModel.setSize(size);
+        sliceModel.setNumberOfElements(content.size());
+        if(sliceModel.isHasNext()) {
+            sliceModel.setNextCursor(CursorCodec.encode(content.get(content.size() - 1).id()));
+        }
+        sliceModel.setContent(content);
+        return sliceModel;
+    }
+
     private static List<String> rolesToStringList(final List<Role> roles) {
         if(roles == null || roles.isEmpty()) {
             return List.of();
@@ -0,0 +1,25 @@
+package org.mounanga.userservice.util;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.text.Normalizer;
+import java.util.Locale;
+import java.util.regex.Pattern;
+
+public class TextNormalizer {
+
+    private static final Pattern DIACRITICS = Pattern.compile("\\p{M}+");
+    private static final Pattern WHITESPACES = Pattern.compile("\\s+");
+
+    private TextNormalizer() {
+        super();
+    }
+
+    public static @NotNull String normalize(String value) {
+        if (value == null || value.isBlank()) {
+            return "";
+        }
+        String normalized = DIACRITICS.matcher(Normalizer.normalize(value, Normalizer.Form.NFD)).replaceAll("");
+        return WHITESPACES.matcher(normalized.trim()).replaceAll(" ").toLowerCase(Locale.ROOT);
+    }
+}
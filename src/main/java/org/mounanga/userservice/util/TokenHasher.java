@@ -0,0 +1,27 @@
+package org.mounanga.userservice.util;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+public class TokenHasher {
+
+    private static final String SHA_256 = "SHA-256";
+
+    private TokenHasher() {
+        super();
+    }
+
+    public static @NotNull String sha256(@NotNull String token) {
+        try {
+            byte[] digest = MessageDigest.getInstance(SHA_256).digest(token.getBytes(UTF_8));
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+}
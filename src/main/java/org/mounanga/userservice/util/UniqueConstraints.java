@@ -0,0 +1,47 @@
+package org.mounanga.userservice.util;
+
+import org.jetbrains.annotations.NotNull;
+import org.mounanga.userservice.exception.FieldError;
+
+import java.util.*;
+
+public class UniqueConstraints {
+
+    public static final String USER_EMAIL = "uk_user_email";
+    public static final String USER_USERNAME = "uk_user_username";
+    public static final String PROFILE_PIN = "uk_profile_pin";
+
+    private static final Map<String, FieldError> ERRORS_BY_CONSTRAINT = new LinkedHashMap<>();
+    // the column each constraint guards: an older schema may still hold an auto-named constraint on it
+    private static final Map<String, Column> COLUMNS_BY_CONSTRAINT = new LinkedHashMap<>();
+
+    static {
+        ERRORS_BY_CONSTRAINT.put(USER_EMAIL, new FieldError("email", "Email already exists"));
+        ERRORS_BY_CONSTRAINT.put(USER_USERNAME, new FieldError("username", "Username already exists"));
+        ERRORS_BY_CONSTRAINT.put(PROFILE_PIN, new FieldError("pin", "Pin already exists"));
+        COLUMNS_BY_CONSTRAINT.put(USER_EMAIL, new Column("user", "email"));
+        COLUMNS_BY_CONSTRAINT.put(USER_USERNAME, new Column("user", "username"));
+        COLUMNS_BY_CONSTRAINT.put(PROFILE_PIN, new Column("profile", "pin"));
+    }
+
+    private UniqueConstraints() {
+        super();
+    }
+
+    public static @NotNull List<FieldError> fieldErrors(@NotNull Collection<String> conflictingFields) {
+        return ERRORS_BY_CONSTRAINT.values().stream()
+                .filter(error -> conflictingFields.contains(error.field()))
+                .toList();
+    }
+
+    public static @NotNull FieldError fieldError(@NotNull String constraint) {
+        return ERRORS_BY_CONSTRAINT.get(constraint);
+    }
+
+    public static @NotNull Map<String, Column> columns() {
+        return Collections.unmodifiableMap(COLUMNS_BY_CONSTRAINT);
+    }
+
+    public record Column(String table, String name) {
+    }
+}
@@ -0,0 +1,136 @@
+package org.mounanga.userservice.util.implementation;
+
+import lombok.extern.slf4j.Slf4j;
+import org.jetbrains.annotations.NotNull;
+import org.mounanga.userservice.configuration.ApplicationProperties;
+import org.mounanga.userservice.dto.SearchableUserDTO;
+import org.mounanga.userservice.repository.UserRepository;
+import org.mounanga.userservice.util.BloomFilter;
+import org.mounanga.userservice.util.TextNormalizer;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+@Slf4j
+@Component
+public class AvailabilityFilter {
+
+    private final UserRepository userRepository;
+    private final ApplicationProperties properties;
+
+    // null until the first rebuild: every value is reported as possibly taken in the meantime
+    private volatile Snapshot snapshot;
+    // the snapshot being rebuilt, so that values committed while the users are read are not lost
+    private volatile Snapshot pending;
+    // modification date up to which other instances' writes were read, null until the first rebuild
+    private LocalDateTime refreshedUntil;
+
+    public AvailabilityFilter(UserRepository userRepository, ApplicationProperties properties) {
+        this.userRepository = userRepository;
+        this.properties = properties;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void initialize() {
+        rebuild();
+    }
+
+    @Scheduled(cron = "${application.availability.rebuild-cron}")
+    public synchronized void rebuild() {
+        LocalDateTime startedAt = LocalDateTime.now();
+        long capacity = Math.max(properties.getAvailabilityExpectedEntries(), userRepository.count() * 2);
+        Snapshot rebuilt = Snapshot.create(capacity, properties.getAvailabilityFalsePositiveRate());
+        pending = rebuilt;
+        try {
+            List<SearchableUserDTO> users = userRepository.findAllUniqueValues();
+            users.forEach(rebuilt::put);
+            snapshot = rebuilt;
+            refreshedUntil = startedAt;
+            log.info("availability filter rebuilt with {} user(s) for a capacity of {} ({} bytes and {} hash functions per field)",
+                    users.size(), capacity, rebuilt.usernames.getBitSize() / Byte.SIZE, rebuilt.usernames.getHashFunctions());
+        } finally {
+            pending = null;
+        }
+    }
+
+    // writes committed by other instances only reach this filter through the database: the users modified since the
+    // last read are polled, going back by a look-back window because the modification date is set by the writer's
+    // clock before its transaction commits. Reading a user twice is harmless, a Bloom filter put is idempotent
+    @Scheduled(fixedDelayString = "${application.availability.refresh-interval}")
+    public synchronized void refresh() {
+        if (refreshedUntil == null) {
+            return;
+        }
+        LocalDateTime startedAt = LocalDateTime.now();
+        LocalDateTime since = refreshedUntil.minus(properties.getAvailabilityRefreshLookBack(), ChronoUnit.MILLIS);
+        List<SearchableUserDTO> users = userRepository.findUniqueValuesModifiedSince(since);
+        users.forEach(this::put);
+        refreshedUntil = startedAt;
+        log.debug("availability filter refreshed with {} user(s) modified since {}", users.size(), since);
+    }
+
+    public void put(@NotNull SearchableUserDTO user) {
+        // pending is read first: once it is cleared the rebuilt snapshot is already published
+        Snapshot next = pending;
+        if (next != null) {
+            next.put(user);
+        }
+        Snapshot current = snapshot;
+        if (current != null) {
+            if (current.put(user) == current.capacity() + 1) {
+                log.warn("availability filter received more than {} insertion(s): false positives will rise until the next rebuild", current.capacity());
+            }
+        }
+    }
+
+    public boolean mightBeTakenUsername(String username) {
+        Snapshot current = snapshot;
+        return current == null || current.usernames.mightContain(TextNormalizer.normalize(username));
+    }
+
+    public boolean mightBeTakenEmail(String email) {
+        Snapshot current = snapshot;
+        return current == null || current.emails.mightContain(TextNormalizer.normalize(email));
+    }
+
+    public boolean mightBeTakenPin(String pin) {
+        Snapshot current = snapshot;
+        return current == null || current.pins.mightContain(TextNormalizer.normalize(pin));
+    }
+
+    // keys are lower-cased and stripped of accents like the case and accent insensitive collation of the unique
+    // indexes, so that a value differing from a taken one only by case or accents is not reported free
+    private record Snapshot(BloomFilter usernames, BloomFilter emails, BloomFilter pins, AtomicLong count, long capacity) {
+
+        static @NotNull Snapshot create(long capacity, double falsePositiveRate) {
+            return new Snapshot(BloomFilter.create(capacity, falsePositiveRate), BloomFilter.create(capacity, falsePositiveRate),
+                    BloomFilter.create(capacity, falsePositiveRate), new AtomicLong(), capacity);
+        }
+
+        // returns the number of users added so far, or 0 when every value was already present
+        long put(@NotNull SearchableUserDTO user) {
+            boolean added = add(usernames, user.username());
+            added |= add(emails, user.email());
+            added |= add(pins, user.pin());
+            return added ? count.incrementAndGet() : 0;
+        }
+
+        private static boolean add(@NotNull BloomFilter filter, String value) {
+            if (value == null) {
+                return false;
+            }
+            String key = TextNormalizer.normalize(value);
+            if (filter.mightContain(key)) {
+                return false;
+            }
+            filter.put(key);
+            return true;
+        }
+    }
+}
@@ -0,0 +1,198 @@
+package org.mounanga.userservice.util.implementation;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.mail.MessagingException;
+import jakarta.mail.internet.MimeMessage;
+import lombok.extern.slf4j.Slf4j;
+import org.jetbrains.annotations.NotNull;
+import org.mounanga.userservice.configuration.ApplicationProperties;
+import org.mounanga.userservice.configuration.MailExecutorConfiguration;
+import org.mounanga.userservice.entity.MailOutbox;
+import org.mounanga.userservice.enums.MailStatus;
+import org.mounanga.userservice.repository.MailOutboxRepository;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.mail.MailException;
+import org.springframework.mail.MailSendException;
+import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.mail.javamail.MimeMessageHelper;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executor;
+import java.util.concurrent.locks.ReentrantLock;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.springframework.mail.javamail.MimeMessageHelper.MULTIPART_MODE_MIXED;
+
+@Slf4j
+@Component
+public class MailOutboxDispatcher {
+
+    private static final String SEND_METRIC = "mail.send";
+    private static final String OUTCOME = "outcome";
+    private static final int MAX_ERROR_LENGTH = 1000;
+
+    private final MailOutboxRepository mailOutboxRepository;
+    private final JavaMailSender mailSender;
+    private final MailTemplates mailTemplates;
+    private final ApplicationProperties properties;
+    private final TransactionTemplate transactionTemplate;
+    private final Executor mailExecutor;
+    private final MeterRegistry meterRegistry;
+    private final Counter retriedCounter;
+    private final Counter failedCounter;
+    private final ReentrantLock dispatchLock = new ReentrantLock();
+
+    public MailOutboxDispatcher(MailOutboxRepository mailOutboxRepository, JavaMailSender mailSender, MailTemplates mailTemplates, ApplicationProperties properties, PlatformTransactionManager transactionManager, @Qualifier(MailExecutorConfiguration.MAIL_EXECUTOR) Executor mailExecutor, MeterRegistry meterRegistry) {
+        this.mailOutboxRepository = mailOutboxRepository;
+        this.mailSender = mailSender;
+        this.mailTemplates = mailTemplates;
+        this.properties = properties;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.mailExecutor = mailExecutor;
+        this.meterRegistry = meterRegistry;
+        this.retriedCounter = meterRegistry.counter("mail.outbox.retried");
+        this.failedCounter = meterRegistry.counter("mail.outbox.failed");
+    }
+
+    public void trigger() {
+        mailExecutor.execute(this::dispatch);
+    }
+
+    @Scheduled(fixedDelayString = "${application.mail.outbox.poll-interval}")
+    public void dispatch() {
+        if (!dispatchLock.tryLock()) {
+            return;
+        }
+        try {
+            List<MailOutbox> batch;
+            do {
+                batch = claimBatch();
+                if (!batch.isEmpty()) {
+                    sendBatch(batch);
+                }
+            } while (batch.size() == properties.getMailOutboxBatchSize());
+        } catch (RuntimeException e) {
+            log.error("mail outbox dispatch failed", e);
+        } finally {
+            dispatchLock.unlock();
+        }
+    }
+
+    @Scheduled(cron = "${application.mail.outbox.purge-cron}")
+    public void purgeSentMails() {
+        log.info("In purgeSentMails()");
+        LocalDateTime limit = LocalDateTime.now().minus(Duration.ofMillis(properties.getMailOutboxRetention()));
+        Integer deleted = transactionTemplate.execute(status -> mailOutboxRepository.deleteSentBefore(limit));
+        log.info("{} sent mails purged", deleted);
+    }
+
+    List<MailOutbox> claimBatch() {
+        List<MailOutbox> batch = transactionTemplate.execute(status -> {
+            LocalDateTime now = LocalDateTime.now();
+            List<MailOutbox> mails = mailOutboxRepository.findDueForUpdate(now, properties.getMailOutboxBatchSize());
+            // the lease lets another node take the mail over if this one dies while sending
+            LocalDateTime leaseEnd = now.plus(Duration.ofMillis(properties.getMailOutboxLease()));
+            mails.forEach(mail -> {
+                mail.setStatus(MailStatus.SENDING);
+                mail.setAttempts(mail.getAttempts() + 1);
+                mail.setNextAttemptAt(leaseEnd);
+            });
+            return mails;
+        });
+        return batch == null ? List.of() : batch;
+    }
+
+    void sendBatch(@NotNull List<MailOutbox> batch) {
+        Map<MimeMessage, MailOutbox> messages = new IdentityHashMap<>();
+        Map<MailOutbox, Exception> failures = new IdentityHashMap<>();
+        for (MailOutbox mail : batch) {
+            try {
+                messages.put(toMimeMessage(mail), mail);
+            } catch (MessagingException | RuntimeException e) {
+                failures.put(mail, e);
+            }
+        }
+        if (!messages.isEmpty()) {
+            Timer.Sample sample = Timer.start(meterRegistry);
+            try {
+                // a single call sends the whole batch over one SMTP connection
+                mailSender.send(messages.keySet().toArray(new MimeMessage[0]));
+                sample.stop(meterRegistry.timer(SEND_METRIC, OUTCOME, "success"));
+            } catch (MailSendException e) {
+                sample.stop(meterRegistry.timer(SEND_METRIC, OUTCOME, "failure"));
+                e.getFailedMessages().forEach((message, exception) -> {
+                    MailOutbox mail = messages.get(message);
+                    if (mail != null) {
+                        failures.put(mail, exception);
+                    }
+                });
+            } catch (MailException e) {
+                sample.stop(meterRegistry.timer(SEND_METRIC, OUTCOME, "failure"));
+                messages.values().forEach(mail -> failures.put(mail, e));
+            }
+        }
+        complete(batch, failures);
+    }
+
+    private void complete(@NotNull List<MailOutbox> batch, @NotNull Map<MailOutbox, Exception> failures) {
+        LocalDateTime now = LocalDateTime.now();
+        List<Long> sentIds = new ArrayList<>();
+        batch.stream().filter(mail -> !failures.containsKey(mail)).forEach(mail -> sentIds.add(mail.getId()));
+        transactionTemplate.executeWithoutResult(status -> {
+            if (!sentIds.isEmpty()) {
+                mailOutboxRepository.markSent(sentIds, now);
+            }
+            failures.forEach((mail, exception) -> reschedule(mail, exception, now));
+        });
+        log.info("{} mails sent, {} failed", sentIds.size(), failures.size());
+    }
+
+    private void reschedule(@NotNull MailOutbox mail, @NotNull Exception exception, LocalDateTime now) {
+        String error = abbreviate(exception.getMessage());
+        if (mail.getAttempts() >= properties.getMailOutboxMaxAttempts()) {
+            failedCounter.increment();
+            log.error("mail {} to '{}' abandoned after {} attempts: {}", mail.getId(), mail.getRecipient(), mail.getAttempts(), error);
+            mailOutboxRepository.reschedule(mail.getId(), MailStatus.FAILED, now, error);
+            return;
+        }
+        retriedCounter.increment();
+        LocalDateTime nextAttemptAt = now.plus(backoff(mail.getAttempts()));
+        log.warn("mail {} to '{}' failed, retrying at {}: {}", mail.getId(), mail.getRecipient(), nextAttemptAt, error);
+        mailOutboxRepository.reschedule(mail.getId(), MailStatus.PENDING, nextAttemptAt, error);
+    }
+
+    Duration backoff(int attempts) {
+        long initial = properties.getMailOutboxInitialBackoff();
+        long max = properties.getMailOutboxMaxBackoff();
+        int shift = Math.min(Math.max(attempts - 1, 0), 30);
+        return Duration.ofMillis(Math.min(max, initial << shift));
+    }
+
+    private @NotNull MimeMessage toMimeMessage(@NotNull MailOutbox mail) throws MessagingException {
+        MimeMessage mimeMessage = mailSender.createMimeMessage();
+        MimeMessageHelper helper = new MimeMessageHelper(mimeMessage, MULTIPART_MODE_MIXED, UTF_8.name());
+        helper.setTo(mail.getRecipient());
+        helper.setSubject(mail.getSubject());
+        helper.setFrom(properties.getEmailSystem());
+        helper.setText(mailTemplates.render(mail.getType(), mail.getBody()), true);
+        return mimeMessage;
+    }
+
+    private static String abbreviate(String message) {
+        if (message == null || message.length() <= MAX_ERROR_LENGTH) {
+            return message;
+        }
+        return message.substring(0, MAX_ERROR_LENGTH);
+    }
+}
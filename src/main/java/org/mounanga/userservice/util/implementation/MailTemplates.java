@@ -0,0 +1,54 @@
+package org.mounanga.userservice.util.implementation;
+
+import lombok.extern.slf4j.Slf4j;
+import org.jetbrains.annotations.NotNull;
+import org.mounanga.userservice.enums.MailType;
+import org.springframework.stereotype.Component;
+import org.thymeleaf.context.Context;
+import org.thymeleaf.spring6.SpringTemplateEngine;
+import org.unbescape.html.HtmlEscape;
+
+import java.util.EnumMap;
+import java.util.Map;
+
+@Slf4j
+@Component
+public class MailTemplates {
+
+    private static final String NOTIFICATION_TEMPLATE = "notification.html";
+    // only letters and digits, so escaping leaves it untouched and it can be found in the rendered page
+    private static final String DATA_PLACEHOLDER = "MailTemplatesDataPlaceholder7f3a9c";
+
+    private final Map<MailType, CompiledTemplate> templates = new EnumMap<>(MailType.class);
+
+    public MailTemplates(@NotNull SpringTemplateEngine templateEngine) {
+        for (MailType type : MailType.values()) {
+            Context context = new Context();
+            context.setVariable("title", type.getTitle());
+            context.setVariable("data", DATA_PLACEHOLDER);
+            templates.put(type, compile(type, templateEngine.process(NOTIFICATION_TEMPLATE, context)));
+        }
+        log.info("{} mail templates compiled", templates.size());
+    }
+
+    public @NotNull String render(@NotNull MailType type, String data) {
+        CompiledTemplate template = templates.get(type);
+        String escapedData = data == null ? "" : HtmlEscape.escapeHtml4Xml(data);
+        return new StringBuilder(template.prefix().length() + escapedData.length() + template.suffix().length())
+                .append(template.prefix())
+                .append(escapedData)
+                .append(template.suffix())
+                .toString();
+    }
+
+    private static @NotNull CompiledTemplate compile(@NotNull MailType type, @NotNull String page) {
+        int index = page.indexOf(DATA_PLACEHOLDER);
+        if (index < 0 || page.indexOf(DATA_PLACEHOLDER, index + 1) >= 0) {
+            throw new IllegalStateException("Template " + NOTIFICATION_TEMPLATE + " must print ${data} exactly once for " + type);
+        }
+        return new CompiledTemplate(page.substring(0, index), page.substring(index + DATA_PLACEHOLDER.length()));
+    }
+
+    private record CompiledTemplate(String prefix, String suffix) {
+    }
+}
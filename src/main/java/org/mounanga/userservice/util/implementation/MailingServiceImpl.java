@@ -1,60 +1,47 @@
 package org.mounanga.userservice.util.implementation;
 
-import jakarta.mail.internet.MimeMessage;
 import lombok.extern.slf4j.Slf4j;
-import org.mounanga.userservice.configuration.ApplicationProperties;
+import org.jetbrains.annotations.NotNull;
+import org.mounanga.userservice.entity.MailOutbox;
+import org.mounanga.userservice.enums.MailStatus;
+import org.mounanga.userservice.enums.MailType;
+import org.mounanga.userservice.repository.MailOutboxRepository;
+import org.mounanga.userservice.util.AfterCommit;
 import org.mounanga.userservice.util.MailingService;
-import org.springframework.mail.javamail.JavaMailSender;
-import org.springframework.mail.javamail.MimeMessageHelper;
-import org.springframework.scheduling.annotation.Async;
 import org.springframework.stereotype.Service;
-import org.thymeleaf.context.Context;
-import org.thymeleaf.spring6.SpringTemplateEngine;
+import org.springframework.transaction.annotation.Transactional;
 
-import java.util.HashMap;
-import java.util.Map;
-
-import static java.nio.charset.StandardCharsets.UTF_8;
-import static org.springframework.mail.javamail.MimeMessageHelper.MULTIPART_MODE_MIXED;
+import java.time.LocalDateTime;
 
 @Slf4j
 @Service
 public class MailingServiceImpl implements MailingService {
 
-    private static final String NOTIFICATION_TEMPLATE = "notification.html";
-
-    private final JavaMailSender mailSender;
-    private final SpringTemplateEngine templateEngine;
-    private final ApplicationProperties applicationProperties;
+    private final MailOutboxRepository mailOutboxRepository;
+    private final MailOutboxDispatcher mailOutboxDispatcher;
 
-    public MailingServiceImpl(JavaMailSender mailSender, SpringTemplateEngine templateEngine, ApplicationProperties applicationProperties) {
-        this.mailSender = mailSender;
-        this.templateEngine = templateEngine;
-        this.applicationProperties = applicationProperties;
+    public MailingServiceImpl(MailOutboxRepository mailOutboxRepository, MailOutboxDispatcher mailOutboxDispatcher) {
+        this.mailOutboxRepository = mailOutboxRepository;
+        this.mailOutboxDispatcher = mailOutboxDispatcher;
     }
 
-    @Async
+    @Transactional
     @Override
-    public void sendMail(String to, String subject, String body) {
+    public void sendMail(String to, @NotNull MailType type, String body) {
         log.info("In sendMail()");
-        try{
-            MimeMessage mimeMessage = mailSender.createMimeMessage();
-            MimeMessageHelper helper = new MimeMessageHelper(mimeMessage, MULTIPART_MODE_MIXED, UTF_8.name());
-            Map<String, Object> properties = new HashMap<>();
-            properties.put("data", body);
-            Context context = new Context();
-            context.setVariables(properties);
-            helper.setTo(to);
-            helper.setSubject(subject);
-            helper.setFrom(applicationProperties.getEmailSystem());
-            String template = templateEngine.process(NOTIFICATION_TEMPLATE, context);
-            helper.setText(template, true);
-            mailSender.send(mimeMessage);
-            log.info("Mail sent to {} successfully", to);
-        }catch (Exception e){
-            log.warn("Failed to send mail to '{}'", to);
-            log.error(e.getMessage());
-            log.error(e.getLocalizedMessage());
-        }
+        LocalDateTime now = LocalDateTime.now();
+        MailOutbox mail = MailOutbox.builder()
+                .recipient(to)
+                .type(type)
+                .subject(type.getSubject())
+                .body(body)
+                .status(MailStatus.PENDING)
+                .attempts(0)
+                .nextAttemptAt(now)
+                .createdDate(now)
+                .build();
+        mailOutboxRepository.save(mail);
+        AfterCommit.run(mailOutboxDispatcher::trigger);
+        log.info("Mail to {} queued", to);
     }
 }
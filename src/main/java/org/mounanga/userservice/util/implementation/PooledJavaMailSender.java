@@ -0,0 +1,209 @@
+package org.mounanga.userservice.util.implementation;
+
+import jakarta.mail.Address;
+import jakarta.mail.MessagingException;
+import jakarta.mail.Transport;
+import jakarta.mail.internet.MimeMessage;
+import lombok.extern.slf4j.Slf4j;
+import org.jetbrains.annotations.NotNull;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.lang.Nullable;
+import org.springframework.mail.MailSendException;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import java.time.Duration;
+import java.util.Date;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.LinkedBlockingDeque;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+@Slf4j
+public class PooledJavaMailSender extends JavaMailSenderImpl implements DisposableBean {
+
+    private static final String HEADER_MESSAGE_ID = "Message-ID";
+
+    private final int maxSize;
+    private final Duration maxIdle;
+    private final Duration validationInterval;
+    private final Duration borrowTimeout;
+    private final Semaphore permits;
+    private final LinkedBlockingDeque<PooledTransport> idleTransports = new LinkedBlockingDeque<>();
+    private final AtomicLong createdTransports = new AtomicLong();
+
+    public PooledJavaMailSender(int maxSize, @NotNull Duration maxIdle, @NotNull Duration validationInterval, @NotNull Duration borrowTimeout) {
+        this.maxSize = maxSize;
+        this.maxIdle = maxIdle;
+        this.validationInterval = validationInterval;
+        this.borrowTimeout = borrowTimeout;
+        this.permits = new Semaphore(maxSize, true);
+    }
+
+    @Override
+    protected void doSend(@NotNull MimeMessage[] mimeMessages, @Nullable Object[] originalMessages) {
+        Map<Object, Exception> failedMessages = new LinkedHashMap<>();
+        Transport transport;
+        try {
+            transport = borrow();
+        } catch (Exception e) {
+            for (int i = 0; i < mimeMessages.length; i++) {
+                failedMessages.put(original(mimeMessages, originalMessages, i), e);
+            }
+            throw new MailSendException("Mail server connection failed", e, failedMessages);
+        }
+        try {
+            for (int i = 0; i < mimeMessages.length; i++) {
+                if (!send(transport, mimeMessages[i], original(mimeMessages, originalMessages, i), failedMessages)) {
+                    // the session broke in the middle of the batch: go on with the rest on a fresh connection
+                    close(transport);
+                    transport = reconnect(mimeMessages, originalMessages, i, failedMessages);
+                    if (transport == null) {
+                        break;
+                    }
+                }
+            }
+        } finally {
+            release(transport);
+        }
+        if (!failedMessages.isEmpty()) {
+            throw new MailSendException(failedMessages);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${application.mail.pool.eviction-interval}")
+    public void evictIdleTransports() {
+        long now = System.nanoTime();
+        Iterator<PooledTransport> iterator = idleTransports.iterator();
+        int evicted = 0;
+        while (iterator.hasNext()) {
+            PooledTransport pooled = iterator.next();
+            if (now - pooled.lastUsed() > maxIdle.toNanos() && idleTransports.removeFirstOccurrence(pooled)) {
+                close(pooled.transport());
+                evicted++;
+            }
+        }
+        if (evicted > 0) {
+            log.debug("{} idle SMTP connections closed", evicted);
+        }
+    }
+
+    public int getIdleCount() {
+        return idleTransports.size();
+    }
+
+    public int getActiveCount() {
+        return maxSize - permits.availablePermits();
+    }
+
+    public long getCreatedCount() {
+        return createdTransports.get();
+    }
+
+    @Override
+    public void destroy() {
+        PooledTransport pooled;
+        while ((pooled = idleTransports.pollFirst()) != null) {
+            close(pooled.transport());
+        }
+    }
+
+    private boolean send(@NotNull Transport transport, @NotNull MimeMessage mimeMessage, Object original, Map<Object, Exception> failedMessages) {
+        try {
+            if (mimeMessage.getSentDate() == null) {
+                mimeMessage.setSentDate(new Date());
+            }
+            String messageId = mimeMessage.getMessageID();
+            mimeMessage.saveChanges();
+            if (messageId != null) {
+                // preserve explicitly specified message id
+                mimeMessage.setHeader(HEADER_MESSAGE_ID, messageId);
+            }
+            Address[] addresses = mimeMessage.getAllRecipients();
+            transport.sendMessage(mimeMessage, addresses != null ? addresses : new Address[0]);
+            return true;
+        } catch (Exception e) {
+            failedMessages.put(original, e);
+            return transport.isConnected();
+        }
+    }
+
+    private Transport reconnect(MimeMessage[] mimeMessages, Object[] originalMessages, int index, Map<Object, Exception> failedMessages) {
+        try {
+            return connect();
+        } catch (MessagingException e) {
+            for (int i = index + 1; i < mimeMessages.length; i++) {
+                failedMessages.put(original(mimeMessages, originalMessages, i), e);
+            }
+            return null;
+        }
+    }
+
+    private @NotNull Transport borrow() throws MessagingException, InterruptedException {
+        if (!permits.tryAcquire(borrowTimeout.toMillis(), TimeUnit.MILLISECONDS)) {
+            throw new MessagingException("No SMTP connection available after " + borrowTimeout.toMillis() + " ms");
+        }
+        try {
+            PooledTransport pooled;
+            while ((pooled = idleTransports.pollFirst()) != null) {
+                if (isHealthy(pooled)) {
+                    return pooled.transport();
+                }
+                close(pooled.transport());
+            }
+            return connect();
+        } catch (MessagingException | RuntimeException e) {
+            permits.release();
+            throw e;
+        }
+    }
+
+    private void release(@Nullable Transport transport) {
+        try {
+            if (transport != null && transport.isConnected()) {
+                // most recently used first, so the oldest connections are the ones left to idle out
+                idleTransports.offerFirst(new PooledTransport(transport, System.nanoTime()));
+            } else {
+                close(transport);
+            }
+        } finally {
+            permits.release();
+        }
+    }
+
+    private boolean isHealthy(@NotNull PooledTransport pooled) {
+        long idle = System.nanoTime() - pooled.lastUsed();
+        if (idle > maxIdle.toNanos()) {
+            return false;
+        }
+        // isConnected() sends a NOOP, skip it for connections that were used a moment ago
+        return idle < validationInterval.toNanos() || pooled.transport().isConnected();
+    }
+
+    private @NotNull Transport connect() throws MessagingException {
+        Transport transport = connectTransport();
+        createdTransports.incrementAndGet();
+        return transport;
+    }
+
+    private static Object original(MimeMessage[] mimeMessages, @Nullable Object[] originalMessages, int index) {
+        return originalMessages != null ? originalMessages[index] : mimeMessages[index];
+    }
+
+    private static void close(@Nullable Transport transport) {
+        if (transport == null) {
+            return;
+        }
+        try {
+            transport.close();
+        } catch (MessagingException e) {
+            log.debug("failed to close SMTP connection", e);
+        }
+    }
+
+    private record PooledTransport(Transport transport, long lastUsed) {
+    }
+}
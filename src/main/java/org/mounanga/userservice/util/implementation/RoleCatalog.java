@@ -0,0 +1,101 @@
+package org.mounanga.userservice.util.implementation;
+
+import lombok.extern.slf4j.Slf4j;
+import org.jetbrains.annotations.NotNull;
+import org.mounanga.userservice.dto.RoleDTO;
+import org.mounanga.userservice.repository.RoleRepository;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.*;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+@Slf4j
+@Component
+public class RoleCatalog {
+
+    private final RoleRepository roleRepository;
+
+    private volatile Snapshot snapshot;
+
+    public RoleCatalog(RoleRepository roleRepository) {
+        this.roleRepository = roleRepository;
+    }
+
+    @Scheduled(cron = "${application.roles.catalog-refresh-cron}")
+    public synchronized void refresh() {
+        List<RoleDTO> roles = roleRepository.findCatalog();
+        snapshot = Snapshot.of(roles);
+        log.info("role catalog refreshed with {} role(s)", roles.size());
+    }
+
+    public Optional<RoleDTO> findById(Long id) {
+        return Optional.ofNullable(snapshot().byId.get(id));
+    }
+
+    public Optional<RoleDTO> findByName(String name) {
+        return Optional.ofNullable(snapshot().byName.get(name));
+    }
+
+    public @NotNull List<RoleDTO> findAll() {
+        return snapshot().roles;
+    }
+
+    public @NotNull List<RoleDTO> findAfter(Long id, int limit) {
+        List<RoleDTO> roles = snapshot().roles;
+        int from = 0;
+        if (id != null) {
+            int low = 0;
+            int high = roles.size();
+            while (low < high) {
+                int middle = (low + high) >>> 1;
+                if (roles.get(middle).id() <= id) {
+                    low = middle + 1;
+                } else {
+                    high = middle;
+                }
+            }
+            from = low;
+        }
+        return roles.subList(from, Math.min(roles.size(), from + limit));
+    }
+
+    public @NotNull List<RoleDTO> search(@NotNull String keyword) {
+        String normalized = keyword.toLowerCase(Locale.ROOT);
+        return snapshot().roles.stream()
+                .filter(role -> contains(role.name(), normalized) || contains(role.description(), normalized))
+                .toList();
+    }
+
+    public boolean isEmpty() {
+        return snapshot().roles.isEmpty();
+    }
+
+    private Snapshot snapshot() {
+        Snapshot current = snapshot;
+        if (current == null) {
+            synchronized (this) {
+                if (snapshot == null) {
+                    refresh();
+                }
+                current = snapshot;
+            }
+        }
+        return current;
+    }
+
+    private static boolean contains(String value, String keyword) {
+        return value != null && value.toLowerCase(Locale.ROOT).contains(keyword);
+    }
+
+    private record Snapshot(List<RoleDTO> roles, Map<Long, RoleDTO> byId, Map<String, RoleDTO> byName) {
+
+        static @NotNull Snapshot of(@NotNull List<RoleDTO> roles) {
+            List<RoleDTO> sorted = roles.stream().sorted(Comparator.comparing(RoleDTO::id)).toList();
+            return new Snapshot(sorted,
+                    sorted.stream().collect(Collectors.toUnmodifiableMap(RoleDTO::id, Function.identity())),
+                    sorted.stream().collect(Collectors.toUnmodifiableMap(RoleDTO::name, Function.identity())));
+        }
+    }
+}
@@ -0,0 +1,106 @@
+package org.mounanga.userservice.util.implementation;
+
+import lombok.extern.slf4j.Slf4j;
+import org.jetbrains.annotations.NotNull;
+import org.mounanga.userservice.exception.FieldError;
+import org.mounanga.userservice.exception.FieldValidationException;
+import org.mounanga.userservice.util.UniqueConstraints;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.*;
+
+@Slf4j
+@Component
+public class UniqueConstraintTranslator {
+
+    // MySQL reports the duplicate value before the violated index: only the part after it is matched, so that a value
+    // is never mistaken for an index name
+    private static final String MYSQL_KEY = " for key ";
+
+    private final DataSource dataSource;
+
+    // index name, in lower case, to the named constraint guarding the same column
+    private volatile Map<String, String> constraintsByIndex;
+
+    public UniqueConstraintTranslator(DataSource dataSource) {
+        this.dataSource = dataSource;
+    }
+
+    public @NotNull Optional<FieldValidationException> translate(@NotNull DataIntegrityViolationException exception) {
+        List<FieldError> errors = UniqueConstraints.columns().keySet().stream()
+                .filter(constraint -> violates(exception, constraint))
+                .map(UniqueConstraints::fieldError)
+                .toList();
+        return errors.isEmpty() ? Optional.empty() : Optional.of(new FieldValidationException("Validation error", errors));
+    }
+
+    public boolean violates(@NotNull DataIntegrityViolationException exception, @NotNull String constraint) {
+        String message = exception.getMostSpecificCause().getMessage();
+        if (message == null) {
+            return false;
+        }
+        String lowerCaseMessage = message.toLowerCase(Locale.ROOT);
+        String violatedIndex = lowerCaseMessage.contains(MYSQL_KEY)
+                ? lowerCaseMessage.substring(lowerCaseMessage.lastIndexOf(MYSQL_KEY))
+                : lowerCaseMessage;
+        return constraintsByIndex().entrySet().stream()
+                .anyMatch(entry -> entry.getValue().equals(constraint) && violatedIndex.contains(entry.getKey()));
+    }
+
+    private Map<String, String> constraintsByIndex() {
+        Map<String, String> current = constraintsByIndex;
+        if (current == null) {
+            synchronized (this) {
+                current = constraintsByIndex;
+                if (current == null) {
+                    current = loadConstraintsByIndex();
+                    constraintsByIndex = current;
+                }
+            }
+        }
+        return current;
+    }
+
+    // ddl-auto=update adds the named constraints but keeps the auto-named ones of an older schema, and the database
+    // may report either: every single-column unique index on a guarded column is read from the metadata once
+    private @NotNull Map<String, String> loadConstraintsByIndex() {
+        Map<String, String> indexes = new HashMap<>();
+        UniqueConstraints.columns().keySet().forEach(constraint -> indexes.put(constraint, constraint));
+        try (Connection connection = dataSource.getConnection()) {
+            DatabaseMetaData metaData = connection.getMetaData();
+            for (Map.Entry<String, UniqueConstraints.Column> entry : UniqueConstraints.columns().entrySet()) {
+                UniqueConstraints.Column column = entry.getValue();
+                uniqueIndexes(connection, metaData, column.table()).forEach((index, columns) -> {
+                    if (columns.size() == 1 && columns.get(0).equalsIgnoreCase(column.name())) {
+                        indexes.put(index.toLowerCase(Locale.ROOT), entry.getKey());
+                    }
+                });
+            }
+        } catch (SQLException e) {
+            log.warn("unique indexes could not be read, only the named constraints are translated: {}", e.getMessage());
+        }
+        log.info("unique constraint translator knows {} index(es)", indexes.size());
+        return Collections.unmodifiableMap(indexes);
+    }
+
+    private @NotNull Map<String, List<String>> uniqueIndexes(@NotNull Connection connection, @NotNull DatabaseMetaData metaData, @NotNull String table) throws SQLException {
+        String tableName = metaData.storesUpperCaseIdentifiers() ? table.toUpperCase(Locale.ROOT) : table;
+        Map<String, List<String>> columnsByIndex = new HashMap<>();
+        try (ResultSet resultSet = metaData.getIndexInfo(connection.getCatalog(), connection.getSchema(), tableName, true, true)) {
+            while (resultSet.next()) {
+                String index = resultSet.getString("INDEX_NAME");
+                String column = resultSet.getString("COLUMN_NAME");
+                if (index != null && column != null) {
+                    columnsByIndex.computeIfAbsent(index, ignored -> new ArrayList<>()).add(column);
+                }
+            }
+        }
+        return columnsByIndex;
+    }
+}
@@ -0,0 +1,161 @@
+package org.mounanga.userservice.util.implementation;
+
+import lombok.extern.slf4j.Slf4j;
+import org.jetbrains.annotations.NotNull;
+import org.mounanga.userservice.configuration.ApplicationProperties;
+import org.mounanga.userservice.dto.SearchableUserDTO;
+import org.mounanga.userservice.repository.UserRepository;
+import org.mounanga.userservice.util.TextNormalizer;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.regex.Pattern;
+
+@Slf4j
+@Component
+public class UserSearchIndex {
+
+    private static final Pattern SEPARATORS = Pattern.compile("[^\\p{L}\\p{N}]+");
+    private static final double EXACT_MATCH_SCORE = 2.0;
+    private static final Comparator<Map.Entry<String, Double>> RANK =
+            Map.Entry.<String, Double>comparingByValue().reversed().thenComparing(Map.Entry.comparingByKey());
+
+    private final UserRepository userRepository;
+    private final ApplicationProperties properties;
+
+    private volatile Snapshot snapshot = new Snapshot();
+
+    public UserSearchIndex(UserRepository userRepository, ApplicationProperties properties) {
+        this.userRepository = userRepository;
+        this.properties = properties;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void initialize() {
+        rebuild();
+    }
+
+    @Scheduled(cron = "${application.search.rebuild-cron}")
+    public synchronized void rebuild() {
+        List<SearchableUserDTO> users = userRepository.findAllSearchable();
+        Snapshot rebuilt = new Snapshot();
+        users.forEach(rebuilt::put);
+        snapshot = rebuilt;
+        log.info("user search index rebuilt with {} user(s) and {} term(s)", users.size(), rebuilt.postings.size());
+    }
+
+    public synchronized void put(@NotNull SearchableUserDTO user) {
+        snapshot.put(user);
+    }
+
+    public synchronized void remove(@NotNull String userId) {
+        snapshot.remove(userId);
+    }
+
+    // ranked matches capped at the configured maximum, for callers that filter on the whole id list
+    public @NotNull Hits search(@NotNull String query) {
+        return search(query, 0, properties.getSearchMaxResults());
+    }
+
+    // one page of the ranked matches, with the total number of matches of the query
+    public @NotNull Hits search(@NotNull String query, long offset, int limit) {
+        List<String> tokens = tokenize(query);
+        if (tokens.isEmpty()) {
+            return Hits.EMPTY;
+        }
+        Snapshot current = snapshot;
+        Map<String, Double> scores = null;
+        for (String token : tokens) {
+            Map<String, Double> tokenScores = current.match(token);
+            if (scores == null) {
+                scores = tokenScores;
+            } else {
+                scores.keySet().retainAll(tokenScores.keySet());
+                scores.replaceAll((userId, score) -> score + tokenScores.get(userId));
+            }
+            if (scores.isEmpty()) {
+                return Hits.EMPTY;
+            }
+        }
+        return new Hits(top(scores, offset, limit), scores.size());
+    }
+    public int size() {
+        return snapshot.documents.size();
+    }
+
+    // keeps only the offset + limit best matches in a heap instead of sorting every match
+    private static @NotNull List<String> top(@NotNull Map<String, Double> scores, long offset, int limit) {
+        if (offset >= scores.size() || limit <= 0) {
+            return List.of();
+        }
+        int kept = (int) Math.min(scores.size(), offset + limit);
+        PriorityQueue<Map.Entry<String, Double>> best = new PriorityQueue<>(kept + 1, RANK.reversed());
+        for (Map.Entry<String, Double> entry : scores.entrySet()) {
+            best.add(entry);
+            if (best.size() > kept) {
+                best.poll();
+            }
+        }
+        List<Map.Entry<String, Double>> ranked = new ArrayList<>(best);
+        ranked.sort(RANK);
+        return ranked.subList((int) offset, ranked.size()).stream()
+                .map(Map.Entry::getKey)
+                .toList();
+    }
+
+    static @NotNull List<String> tokenize(String value) {
+        if (value == null || value.isBlank()) {
+            return List.of();
+        }
+        return Arrays.stream(SEPARATORS.split(TextNormalizer.normalize(value)))
+                .filter(token -> !token.isEmpty())
+                .distinct()
+                .toList();
+    }
+
+    public record Hits(List<String> userIds, int total) {
+
+        static final Hits EMPTY = new Hits(List.of(), 0);
+    }
+
+    private static final class Snapshot {
+
+        private final ConcurrentSkipListMap<String, Set<String>> postings = new ConcurrentSkipListMap<>();
+        private final Map<String, Set<String>> documents = new ConcurrentHashMap<>();
+
+        void put(@NotNull SearchableUserDTO user) {
+            remove(user.userId());
+            Set<String> userTerms = new HashSet<>();
+            userTerms.addAll(tokenize(user.firstname()));
+            userTerms.addAll(tokenize(user.lastname()));
+            userTerms.addAll(tokenize(user.pin()));
+            userTerms.forEach(term -> postings.computeIfAbsent(term, key -> ConcurrentHashMap.newKeySet()).add(user.userId()));
+            documents.put(user.userId(), userTerms);
+        }
+
+        void remove(@NotNull String userId) {
+            Set<String> userTerms = documents.remove(userId);
+            if (userTerms == null) {
+                return;
+            }
+            userTerms.forEach(term -> postings.computeIfPresent(term, (key, userIds) -> {
+                userIds.remove(userId);
+                return userIds.isEmpty() ? null : userIds;
+            }));
+        }
+
+        @NotNull Map<String, Double> match(@NotNull String prefix) {
+            Map<String, Double> scores = new HashMap<>();
+            postings.subMap(prefix, true, prefix + Character.MAX_VALUE, true).forEach((term, userIds) -> {
+                double score = term.length() == prefix.length() ? EXACT_MATCH_SCORE : (double) prefix.length() / term.length();
+                userIds.forEach(userId -> scores.merge(userId, score, Math::max));
+            });
+            return scores;
+        }
+    }
+}
@@ -0,0 +1,213 @@
+package org.mounanga.userservice.util.implementation;
+
+import lombok.extern.slf4j.Slf4j;
+import org.jetbrains.annotations.NotNull;
+import org.mounanga.userservice.dto.SearchableUserDTO;
+import org.mounanga.userservice.repository.UserRepository;
+import org.mounanga.userservice.util.TextNormalizer;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+@Slf4j
+@Component
+public class UserSuggestionIndex {
+
+    private static final char SEPARATOR = '\u0000';
+
+    private final UserRepository userRepository;
+
+    private volatile State state = new State(Snapshot.of(List.of()));
+
+    public UserSuggestionIndex(UserRepository userRepository) {
+        this.userRepository = userRepository;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void initialize() {
+        rebuild();
+    }
+
+    @Scheduled(cron = "${application.search.rebuild-cron}")
+    public synchronized void rebuild() {
+        List<SearchableUserDTO> users = userRepository.findAllSearchable();
+        Snapshot snapshot = Snapshot.of(users);
+        state = new State(snapshot);
+        log.info("user suggestion index rebuilt with {} user(s) and {} key(s) in {} bytes", users.size(), snapshot.size(), snapshot.keys.length);
+    }
+
+    public synchronized void put(@NotNull SearchableUserDTO user) {
+        State current = state;
+        remove(current, user.userId());
+        List<String> keys = new ArrayList<>();
+        for (String key : keysOf(user)) {
+            String entry = key + SEPARATOR + user.userId();
+            current.additions.put(entry, user.userId());
+            keys.add(entry);
+        }
+        current.additionsByUser.put(user.userId(), keys);
+    }
+
+    public synchronized void remove(@NotNull String userId) {
+        remove(state, userId);
+    }
+
+    public @NotNull List<String> suggest(String prefix, int limit) {
+        String normalized = TextNormalizer.normalize(prefix);
+        if (normalized.isEmpty() || limit <= 0) {
+            return List.of();
+        }
+        State current = state;
+        List<Map.Entry<String, String>> candidates = new ArrayList<>();
+        collectPacked(current, normalized.getBytes(UTF_8), limit, candidates);
+        collectAdditions(current, normalized, limit, candidates);
+        candidates.sort(Map.Entry.comparingByKey());
+        Set<String> userIds = new LinkedHashSet<>();
+        for (Map.Entry<String, String> candidate : candidates) {
+            userIds.add(candidate.getValue());
+            if (userIds.size() == limit) {
+                break;
+            }
+        }
+        return List.copyOf(userIds);
+    }
+
+    public int size() {
+        State current = state;
+        return current.snapshot.size() + current.additions.size();
+    }
+
+    private void collectPacked(@NotNull State current, byte[] prefix, int limit, List<Map.Entry<String, String>> candidates) {
+        Snapshot snapshot = current.snapshot;
+        Set<String> seen = new HashSet<>();
+        for (int i = snapshot.lowerBound(prefix); i < snapshot.size() && snapshot.startsWith(i, prefix) && seen.size() < limit; i++) {
+            String userId = snapshot.userId(i);
+            if (!current.hidden.contains(userId) && seen.add(userId)) {
+                candidates.add(Map.entry(snapshot.key(i), userId));
+            }
+        }
+    }
+
+    private void collectAdditions(@NotNull State current, String prefix, int limit, List<Map.Entry<String, String>> candidates) {
+        Set<String> seen = new HashSet<>();
+        for (Map.Entry<String, String> entry : current.additions.subMap(prefix, true, prefix + Character.MAX_VALUE, true).entrySet()) {
+            if (seen.add(entry.getValue())) {
+                candidates.add(Map.entry(entry.getKey().substring(0, entry.getKey().lastIndexOf(SEPARATOR)), entry.getValue()));
+            }
+            if (seen.size() == limit) {
+                return;
+            }
+        }
+    }
+
+    private static void remove(@NotNull State current, String userId) {
+        current.hidden.add(userId);
+        List<String> keys = current.additionsByUser.remove(userId);
+        if (keys != null) {
+            keys.forEach(current.additions::remove);
+        }
+    }
+
+    private static @NotNull Set<String> keysOf(@NotNull SearchableUserDTO user) {
+        Set<String> keys = new LinkedHashSet<>();
+        keys.add(TextNormalizer.normalize(user.username()));
+        keys.add(TextNormalizer.normalize(user.email()));
+        if (user.firstname() != null && user.lastname() != null) {
+            keys.add(TextNormalizer.normalize(user.firstname() + " " + user.lastname()));
+            keys.add(TextNormalizer.normalize(user.lastname() + " " + user.firstname()));
+        }
+        keys.remove("");
+        return keys;
+    }
+
+    private record State(Snapshot snapshot,
+                         ConcurrentSkipListMap<String, String> additions,
+                         Map<String, List<String>> additionsByUser,
+                         Set<String> hidden) {
+
+        State(Snapshot snapshot) {
+            this(snapshot, new ConcurrentSkipListMap<>(), new ConcurrentHashMap<>(), ConcurrentHashMap.newKeySet());
+        }
+    }
+
+    private static final class Snapshot {
+
+        private final byte[] keys;
+        private final int[] offsets;
+        private final int[] owners;
+        private final String[] userIds;
+
+        private Snapshot(byte[] keys, int[] offsets, int[] owners, String[] userIds) {
+            this.keys = keys;
+            this.offsets = offsets;
+            this.owners = owners;
+            this.userIds = userIds;
+        }
+
+        static @NotNull Snapshot of(@NotNull List<SearchableUserDTO> users) {
+            String[] userIds = new String[users.size()];
+            List<PackedKey> entries = new ArrayList<>(users.size() * 4);
+            for (int owner = 0; owner < users.size(); owner++) {
+                userIds[owner] = users.get(owner).userId();
+                for (String key : keysOf(users.get(owner))) {
+                    entries.add(new PackedKey(key.getBytes(UTF_8), owner));
+                }
+            }
+            entries.sort((left, right) -> Arrays.compareUnsigned(left.bytes(), right.bytes()));
+            int[] offsets = new int[entries.size() + 1];
+            int[] owners = new int[entries.size()];
+            for (int i = 0; i < entries.size(); i++) {
+                offsets[i + 1] = offsets[i] + entries.get(i).bytes().length;
+                owners[i] = entries.get(i).owner();
+            }
+            byte[] keys = new byte[offsets[entries.size()]];
+            for (int i = 0; i < entries.size(); i++) {
+                byte[] bytes = entries.get(i).bytes();
+                System.arraycopy(bytes, 0, keys, offsets[i], bytes.length);
+            }
+            return new Snapshot(keys, offsets, owners, userIds);
+        }
+
+        int size() {
+            return owners.length;
+        }
+
+        int lowerBound(byte[] prefix) {
+            int low = 0;
+            int high = size();
+            while (low < high) {
+                int middle = (low + high) >>> 1;
+                if (Arrays.compareUnsigned(keys, offsets[middle], offsets[middle + 1], prefix, 0, prefix.length) < 0) {
+                    low = middle + 1;
+                } else {
+                    high = middle;
+                }
+            }
+            return low;
+        }
+
+        boolean startsWith(int index, byte[] prefix) {
+            int start = offsets[index];
+            return offsets[index + 1] - start >= prefix.length
+                    && Arrays.equals(keys, start, start + prefix.length, prefix, 0, prefix.length);
+        }
+
+        String key(int index) {
+            return new String(keys, offsets[index], offsets[index + 1] - offsets[index], UTF_8);
+        }
+
+        String userId(int index) {
+            return userIds[owners[index]];
+        }
+    }
+
+    private record PackedKey(byte[] bytes, int owner) {
+    }
+}
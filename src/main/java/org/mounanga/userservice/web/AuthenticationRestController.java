@@ -1,13 +1,17 @@
 package org.mounanga.userservice.web;
 
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
+import org.jetbrains.annotations.NotNull;
+import org.mounanga.userservice.dto.LoginClientDTO;
 import org.mounanga.userservice.dto.LoginRequestDTO;
 import org.mounanga.userservice.dto.LoginResponseDTO;
+import org.mounanga.userservice.dto.RefreshTokenRequestDTO;
 import org.mounanga.userservice.service.AuthenticationService;
-import org.springframework.web.bind.annotation.PostMapping;
-import org.springframework.web.bind.annotation.RequestBody;
-import org.springframework.web.bind.annotation.RequestMapping;
-import org.springframework.web.bind.annotation.RestController;
+import org.springframework.http.HttpHeaders;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.concurrent.CompletableFuture;
 
 @RestController
 @RequestMapping("/authentication")
@@ -20,7 +24,18 @@ public class AuthenticationRestController {
     }
 
     @PostMapping("/login")
-    public LoginResponseDTO authenticate(@RequestBody @Valid LoginRequestDTO request){
-        return authenticationService.authenticate(request);
+    public CompletableFuture<LoginResponseDTO> authenticate(@RequestBody @Valid LoginRequestDTO request, @NotNull HttpServletRequest httpRequest){
+        LoginClientDTO client = new LoginClientDTO(httpRequest.getRemoteAddr(), httpRequest.getHeader(HttpHeaders.USER_AGENT));
+        return authenticationService.authenticate(request, client);
+    }
+
+    @PostMapping("/refresh")
+    public LoginResponseDTO refresh(@RequestBody @Valid RefreshTokenRequestDTO request){
+        return authenticationService.refresh(request);
+    }
+
+    @PostMapping("/logout")
+    public void logout(@RequestHeader(HttpHeaders.AUTHORIZATION) String authorization){
+        authenticationService.logout(authorization);
     }
 }
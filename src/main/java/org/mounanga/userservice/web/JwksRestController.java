@@ -0,0 +1,30 @@
+package org.mounanga.userservice.web;
+
+import org.mounanga.userservice.configuration.ApplicationProperties;
+import org.mounanga.userservice.security.JWTKeyRing;
+import org.springframework.http.CacheControl;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.time.Duration;
+import java.util.Map;
+
+@RestController
+public class JwksRestController {
+
+    private final JWTKeyRing keyRing;
+    private final ApplicationProperties properties;
+
+    public JwksRestController(JWTKeyRing keyRing, ApplicationProperties properties) {
+        this.keyRing = keyRing;
+        this.properties = properties;
+    }
+
+    @GetMapping("/.well-known/jwks.json")
+    public ResponseEntity<Map<String, Object>> getJwks() {
+        return ResponseEntity.ok()
+                .cacheControl(CacheControl.maxAge(Duration.ofSeconds(properties.getJwksMaxAge())).cachePublic())
+                .body(keyRing.toJwks());
+    }
+}
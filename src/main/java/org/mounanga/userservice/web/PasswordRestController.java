@@ -9,6 +9,8 @@ import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 
+import java.util.concurrent.CompletableFuture;
+
 @RestController
 @RequestMapping("/pwd")
 public class PasswordRestController {
@@ -25,7 +27,7 @@ public class PasswordRestController {
     }
 
     @PostMapping("/reset")
-    public void resetPassword(@RequestBody @Valid ResetPasswordRequestDTO request){
-        passwordService.resetPassword(request);
+    public CompletableFuture<Void> resetPassword(@RequestBody @Valid ResetPasswordRequestDTO request){
+        return passwordService.resetPassword(request);
     }
 }
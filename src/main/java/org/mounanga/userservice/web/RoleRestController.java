@@ -1,11 +1,25 @@
 package org.mounanga.userservice.web;
 
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
+import org.jetbrains.annotations.NotNull;
+import org.mounanga.userservice.configuration.ApplicationProperties;
+import org.mounanga.userservice.configuration.TaskExecutorConfiguration;
+import org.mounanga.userservice.dto.BulkDeleteReportDTO;
 import org.mounanga.userservice.dto.PageModel;
 import org.mounanga.userservice.dto.RoleDTO;
+import org.mounanga.userservice.dto.SliceModel;
+import org.mounanga.userservice.enums.DataFormat;
+import org.mounanga.userservice.service.BulkDeleteService;
+import org.mounanga.userservice.service.ExportService;
 import org.mounanga.userservice.service.RoleService;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.async.WebAsyncTask;
 
 import java.util.List;
 
@@ -14,9 +28,17 @@ import java.util.List;
 public class RoleRestController {
 
     private final RoleService roleService;
+    private final BulkDeleteService bulkDeleteService;
+    private final ExportService exportService;
+    private final ApplicationProperties properties;
+    private final AsyncTaskExecutor transferExecutor;
 
-    public RoleRestController(RoleService roleService) {
+    public RoleRestController(RoleService roleService, BulkDeleteService bulkDeleteService, ExportService exportService, ApplicationProperties properties, @Qualifier(TaskExecutorConfiguration.TRANSFER_EXECUTOR) AsyncTaskExecutor transferExecutor) {
         this.roleService = roleService;
+        this.bulkDeleteService = bulkDeleteService;
+        this.exportService = exportService;
+        this.properties = properties;
+        this.transferExecutor = transferExecutor;
     }
 
     @PreAuthorize("hasAnyAuthority('ADMIN','SUPER_ADMIN')")
@@ -44,6 +66,13 @@ public class RoleRestController {
         return roleService.getAllRoles(page, size);
     }
 
+    @PreAuthorize("hasAnyAuthority('ADMIN','SUPER_ADMIN','USER')")
+    @GetMapping(value = "/list", params = "after")
+    public SliceModel<RoleDTO> getAllRoles(@RequestParam(name = "after") String after,
+                                           @RequestParam(defaultValue = "9", name = "size")  int size) {
+        return roleService.getAllRoles(after, size);
+    }
+
     @PreAuthorize("hasAnyAuthority('ADMIN','SUPER_ADMIN','USER')")
     @GetMapping("/search")
     public PageModel<RoleDTO> searchRoles(@RequestParam(defaultValue = "", name = "keyword") String keyword,
@@ -60,7 +89,27 @@ public class RoleRestController {
 
     @PreAuthorize("hasAnyAuthority('ADMIN','SUPER_ADMIN')")
     @DeleteMapping("/delete-all")
-    public void deleteAllRolesByIds(@RequestBody List<Long> ids) {
-        roleService.deleteAllRolesByIds(ids);
+    public BulkDeleteReportDTO deleteAllRolesByIds(@RequestBody List<Long> ids) {
+        return bulkDeleteService.deleteRoles(ids);
+    }
+
+    @PreAuthorize("hasAnyAuthority('ADMIN','SUPER_ADMIN')")
+    @GetMapping("/export")
+    public WebAsyncTask<Void> exportRoles(@RequestParam(defaultValue = "ndjson", name = "format") String format,
+                                          @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding,
+                                          @NotNull HttpServletResponse response) {
+        DataFormat dataFormat = DataFormat.fromName(format);
+        boolean gzip = acceptEncoding != null && acceptEncoding.contains("gzip");
+        response.setContentType(dataFormat.getMediaType());
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment().filename("roles." + dataFormat.getExtension()).build().toString());
+        if (gzip) {
+            response.setHeader(HttpHeaders.CONTENT_ENCODING, "gzip");
+        }
+        // same timeout and executor as the user export
+        return new WebAsyncTask<>(properties.getExportRequestTimeout(), transferExecutor, () -> {
+            exportService.exportRoles(dataFormat, gzip, response.getOutputStream());
+            response.flushBuffer();
+            return null;
+        });
     }
 }
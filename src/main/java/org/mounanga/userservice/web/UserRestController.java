@@ -1,13 +1,31 @@
 package org.mounanga.userservice.web;
 
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
+import org.jetbrains.annotations.NotNull;
+import org.mounanga.userservice.configuration.ApplicationProperties;
+import org.mounanga.userservice.configuration.TaskExecutorConfiguration;
 import org.mounanga.userservice.dto.*;
+import org.mounanga.userservice.enums.DataFormat;
 import org.mounanga.userservice.security.SecurityInformation;
+import org.mounanga.userservice.service.BulkDeleteService;
+import org.mounanga.userservice.service.ExportService;
+import org.mounanga.userservice.service.UserImportService;
 import org.mounanga.userservice.service.UserService;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.async.WebAsyncTask;
 
+import java.io.IOException;
+import java.io.InputStream;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
 @RestController
 @RequestMapping("/users")
@@ -15,18 +33,62 @@ public class UserRestController {
 
     private final UserService userService;
     private final SecurityInformation securityInformation;
+    private final BulkDeleteService bulkDeleteService;
+    private final UserImportService userImportService;
+    private final ExportService exportService;
+    private final ApplicationProperties properties;
+    private final AsyncTaskExecutor transferExecutor;
 
-    public UserRestController(UserService userService, SecurityInformation securityInformation) {
+    public UserRestController(UserService userService, SecurityInformation securityInformation, BulkDeleteService bulkDeleteService, UserImportService userImportService, ExportService exportService, ApplicationProperties properties, @Qualifier(TaskExecutorConfiguration.TRANSFER_EXECUTOR) AsyncTaskExecutor transferExecutor) {
         this.userService = userService;
         this.securityInformation = securityInformation;
+        this.bulkDeleteService = bulkDeleteService;
+        this.userImportService = userImportService;
+        this.exportService = exportService;
+        this.properties = properties;
+        this.transferExecutor = transferExecutor;
     }
 
     @PreAuthorize("hasAnyAuthority('ADMIN','SUPER_ADMIN')")
     @PostMapping("/create")
-    public UserResponseDTO createUser(@RequestBody @Valid UserRequestDTO dto) {
+    public CompletableFuture<UserResponseDTO> createUser(@RequestBody @Valid UserRequestDTO dto) {
         return userService.createUser(dto);
     }
 
+    @PreAuthorize("hasAnyAuthority('ADMIN','SUPER_ADMIN')")
+    @PostMapping(value = "/import", consumes = {MediaType.APPLICATION_NDJSON_VALUE, DataFormat.CSV_MEDIA_TYPE}, produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public WebAsyncTask<Void> importUsers(@NotNull HttpServletRequest request, @NotNull HttpServletResponse response) throws IOException {
+        DataFormat format = DataFormat.fromContentType(request.getContentType());
+        InputStream input = request.getInputStream();
+        response.setContentType(MediaType.APPLICATION_NDJSON_VALUE);
+        // an import runs as long as its file: the long timeout applies to this request only
+        return new WebAsyncTask<>(properties.getImportRequestTimeout(), transferExecutor, () -> {
+            userImportService.importUsers(input, format, response.getOutputStream());
+            response.flushBuffer();
+            return null;
+        });
+    }
+
+    @PreAuthorize("hasAnyAuthority('ADMIN','SUPER_ADMIN')")
+    @GetMapping("/export")
+    public WebAsyncTask<Void> exportUsers(@RequestParam(defaultValue = "ndjson", name = "format") String format,
+                                          @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding,
+                                          @NotNull HttpServletResponse response) {
+        DataFormat dataFormat = DataFormat.fromName(format);
+        boolean gzip = acceptEncoding != null && acceptEncoding.contains("gzip");
+        response.setContentType(dataFormat.getMediaType());
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment().filename("users." + dataFormat.getExtension()).build().toString());
+        if (gzip) {
+            response.setHeader(HttpHeaders.CONTENT_ENCODING, "gzip");
+        }
+        // an export runs as long as the whole user table takes to read: the long timeout applies to this request only
+        return new WebAsyncTask<>(properties.getExportRequestTimeout(), transferExecutor, () -> {
+            exportService.exportUsers(dataFormat, gzip, response.getOutputStream());
+            response.flushBuffer();
+            return null;
+        });
+    }
+
     @PreAuthorize("hasAnyAuthority('ADMIN','SUPER_ADMIN')")
     @PutMapping("/update/{id}")
     public UserResponseDTO updateUser(@PathVariable String id, @Valid @RequestBody UpdateEmailUsernameDTO dto) {
@@ -52,6 +114,13 @@ public class UserRestController {
         return userService.getAllUsers(page, size);
     }
 
+    @PreAuthorize("hasAnyAuthority('ADMIN','SUPER_ADMIN', 'USER')")
+    @GetMapping(value = "/list", params = "after")
+    public SliceModel<UserResponseDTO> getAllUsers(@RequestParam(name = "after") String after,
+                                                   @RequestParam(defaultValue = "9", name = "size")  int size) {
+        return userService.getAllUsers(after, size);
+    }
+
     @PreAuthorize("hasAnyAuthority('ADMIN','SUPER_ADMIN', 'USER')")
     @GetMapping("/search")
     public PageModel<UserResponseDTO> searchUsers(@RequestParam(defaultValue = "", name = "keyword") String keyword,
@@ -60,6 +129,29 @@ public class UserRestController {
         return userService.searchUsers(keyword, page, size);
     }
 
+    @PreAuthorize("hasAnyAuthority('ADMIN','SUPER_ADMIN', 'USER')")
+    @GetMapping(value = "/search", params = "after")
+    public SliceModel<UserResponseDTO> searchUsers(@RequestParam(defaultValue = "", name = "keyword") String keyword,
+                                                   @RequestParam(name = "after") String after,
+                                                   @RequestParam(defaultValue = "9", name = "size")  int size) {
+        return userService.searchUsers(keyword, after, size);
+    }
+
+    @PreAuthorize("hasAnyAuthority('ADMIN','SUPER_ADMIN')")
+    @GetMapping("/suggest")
+    public List<String> suggestUsers(@RequestParam(defaultValue = "", name = "prefix") String prefix,
+                                     @RequestParam(defaultValue = "10", name = "limit") int limit) {
+        return userService.suggestUsers(prefix, limit);
+    }
+
+    @PreAuthorize("hasAnyAuthority('ADMIN','SUPER_ADMIN')")
+    @GetMapping("/availability")
+    public AvailabilityDTO checkAvailability(@RequestParam(required = false, name = "username") String username,
+                                             @RequestParam(required = false, name = "email") String email,
+                                             @RequestParam(required = false, name = "pin") String pin) {
+        return userService.checkAvailability(username, email, pin);
+    }
+
     @PreAuthorize("hasAnyAuthority('ADMIN','SUPER_ADMIN')")
     @DeleteMapping("/delete/{id}")
     public void deleteUserById(@PathVariable String id) {
@@ -68,8 +160,8 @@ public class UserRestController {
 
     @PreAuthorize("hasAnyAuthority('ADMIN','SUPER_ADMIN')")
     @DeleteMapping("/delete-all")
-    public void deleteAllUsersByIds(@RequestBody List<String> ids) {
-        userService.deleteAllUsersByIds(ids);
+    public BulkDeleteReportDTO deleteAllUsersByIds(@RequestBody List<String> ids) {
+        return bulkDeleteService.deleteUsers(ids);
     }
 
     @PreAuthorize("hasAnyAuthority('ADMIN','SUPER_ADMIN')")
@@ -0,0 +1,147 @@
+package org.mounanga.userservice.configuration;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.when;
+
+@SpringBootTest
+class MailExecutorConfigurationTest {
+
+    @Mock
+    private ApplicationProperties properties;
+
+    private MeterRegistry meterRegistry;
+
+    private ThreadPoolTaskExecutor mailExecutor;
+
+    private final CountDownLatch release = new CountDownLatch(1);
+
+    @BeforeEach
+    void setUp() {
+        when(properties.getMailWorkers()).thenReturn(1);
+        when(properties.getMailQueueCapacity()).thenReturn(1);
+        when(properties.getMailShutdownTimeout()).thenReturn(5);
+        meterRegistry = new SimpleMeterRegistry();
+    }
+
+    @AfterEach
+    void tearDown() {
+        release.countDown();
+        if (mailExecutor != null) {
+            mailExecutor.shutdown();
+        }
+    }
+
+    @Test
+    void executorIsSizedFromProperties() {
+        mailExecutor = mailExecutor("drop");
+
+        assertEquals(1, mailExecutor.getCorePoolSize());
+        assertEquals(1, mailExecutor.getMaxPoolSize());
+        assertEquals(1, mailExecutor.getQueueCapacity());
+        assertEquals("mail-", mailExecutor.getThreadNamePrefix());
+        assertNotNull(meterRegistry.find("mail.executor.queue.size").gauge());
+        assertNotNull(meterRegistry.find("mail.executor.active").gauge());
+    }
+
+    @Test
+    void dropPolicyDiscardsNewMailAndCountsIt() throws InterruptedException {
+        mailExecutor = mailExecutor("drop");
+        Queue<String> sent = new ConcurrentLinkedQueue<>();
+        CountDownLatch done = saturate(sent);
+
+        mailExecutor.execute(() -> sent.add("dropped"));
+
+        assertEquals(1.0, meterRegistry.get("mail.executor.rejected").tag("policy", "drop").counter().count());
+        assertEquals(1.0, meterRegistry.get("mail.executor.queue.size").gauge().value());
+        release.countDown();
+        assertTrue(done.await(5, TimeUnit.SECONDS));
+        assertIterableEquals(List.of("running", "queued"), sent);
+    }
+
+    @Test
+    void dropOldestPolicyReplacesQueuedMail() throws InterruptedException {
+        mailExecutor = mailExecutor("drop-oldest");
+        Queue<String> sent = new ConcurrentLinkedQueue<>();
+        saturate(sent);
+        CountDownLatch newest = new CountDownLatch(1);
+
+        mailExecutor.execute(() -> {
+            sent.add("newest");
+            newest.countDown();
+        });
+
+        assertEquals(1.0, meterRegistry.get("mail.executor.rejected").tag("policy", "drop-oldest").counter().count());
+        release.countDown();
+        assertTrue(newest.await(5, TimeUnit.SECONDS));
+        assertIterableEquals(List.of("running", "newest"), sent);
+    }
+
+    @Test
+    void callerRunsPolicyRunsMailOnCallerThread() throws InterruptedException {
+        mailExecutor = mailExecutor("caller-runs");
+        saturate(new ConcurrentLinkedQueue<>());
+        Thread caller = Thread.currentThread();
+        AtomicReference<Thread> runner = new AtomicReference<>();
+
+        mailExecutor.execute(() -> runner.set(Thread.currentThread()));
+
+        assertSame(caller, runner.get());
+        assertEquals(1.0, meterRegistry.get("mail.executor.rejected").tag("policy", "caller-runs").counter().count());
+    }
+
+    @Test
+    void unsupportedPolicyIsRejected() {
+        MailExecutorConfiguration configuration = new MailExecutorConfiguration();
+        when(properties.getMailRejectionPolicy()).thenReturn("abort");
+
+        assertThrows(IllegalStateException.class, () -> configuration.mailExecutor(properties, meterRegistry));
+    }
+
+    private ThreadPoolTaskExecutor mailExecutor(String policy) {
+        when(properties.getMailRejectionPolicy()).thenReturn(policy);
+        ThreadPoolTaskExecutor executor = new MailExecutorConfiguration().mailExecutor(properties, meterRegistry);
+        executor.initialize();
+        return executor;
+    }
+
+    // occupies the single worker and the single queue slot, the returned latch opens once the queued task ran
+    private CountDownLatch saturate(Queue<String> sent) throws InterruptedException {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch queued = new CountDownLatch(1);
+        mailExecutor.execute(() -> {
+            sent.add("running");
+            started.countDown();
+            await(release);
+        });
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+        mailExecutor.execute(() -> {
+            sent.add("queued");
+            queued.countDown();
+        });
+        return queued;
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,64 @@
+package org.mounanga.userservice.configuration;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mounanga.userservice.exception.GlobalExceptionHandler;
+import org.mounanga.userservice.util.implementation.UniqueConstraintTranslator;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+@SpringBootTest
+class TaskExecutorConfigurationTest {
+
+    @Mock
+    private ApplicationProperties properties;
+
+    private ThreadPoolTaskExecutor transferExecutor;
+
+    private final CountDownLatch release = new CountDownLatch(1);
+
+    @BeforeEach
+    void setUp() {
+        when(properties.getTransferWorkers()).thenReturn(1);
+        transferExecutor = new TaskExecutorConfiguration().transferExecutor(properties);
+        transferExecutor.initialize();
+    }
+
+    @AfterEach
+    void tearDown() {
+        release.countDown();
+        transferExecutor.shutdown();
+    }
+
+    @Test
+    void transferOverTheLimitIsRejectedWithServiceUnavailable() throws InterruptedException {
+        CountDownLatch started = new CountDownLatch(1);
+        transferExecutor.submit(() -> {
+            started.countDown();
+            release.await(5, TimeUnit.SECONDS);
+            return null;
+        });
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+
+        TaskRejectedException exception = assertThrows(TaskRejectedException.class, () -> transferExecutor.submit(() -> null));
+
+        assertEquals(1, transferExecutor.getMaxPoolSize());
+        assertEquals("transfer-", transferExecutor.getThreadNamePrefix());
+        ResponseEntity<?> response = new GlobalExceptionHandler(mock(UniqueConstraintTranslator.class)).handleException(exception);
+        assertEquals(HttpStatus.SERVICE_UNAVAILABLE, response.getStatusCode());
+        assertEquals("1", response.getHeaders().getFirst(HttpHeaders.RETRY_AFTER));
+    }
+}
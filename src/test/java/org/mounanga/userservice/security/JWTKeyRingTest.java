@@ -0,0 +1,91 @@
+package org.mounanga.userservice.security;
+
+import com.auth0.jwt.JWT;
+import com.auth0.jwt.algorithms.Algorithm;
+import com.auth0.jwt.exceptions.JWTVerificationException;
+import com.auth0.jwt.interfaces.DecodedJWT;
+import org.junit.jupiter.api.Test;
+import org.mounanga.userservice.configuration.ApplicationProperties;
+import org.mounanga.userservice.web.JwksRestController;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.http.ResponseEntity;
+
+import java.math.BigInteger;
+import java.util.Base64;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+@SpringBootTest
+class JWTKeyRingTest {
+
+    private static final ClassPathResource KEYSTORE = new ClassPathResource("keys/jwt-test-keystore.p12");
+    private static final String PASSWORD = "changeit";
+
+    @Test
+    void tokensSignedBeforeARotationStillVerifyWithTheRetiredKey() {
+        JWTKeyRing beforeRotation = JWTKeyRing.load(KEYSTORE, PASSWORD, "jwt-previous", List.of());
+        JWTKeyRing afterRotation = JWTKeyRing.load(KEYSTORE, PASSWORD, "jwt-current", List.of("jwt-previous"));
+        String oldToken = sign(beforeRotation);
+        String newToken = sign(afterRotation);
+
+        DecodedJWT decodedOld = JWT.require(Algorithm.ECDSA256(afterRotation)).build().verify(oldToken);
+        DecodedJWT decodedNew = JWT.require(Algorithm.ECDSA256(afterRotation)).build().verify(newToken);
+
+        assertEquals("jwt-previous", decodedOld.getKeyId());
+        assertEquals("jwt-current", decodedNew.getKeyId());
+        assertEquals("john", decodedOld.getSubject());
+    }
+
+    @Test
+    void tokensSignedByAKeyNoLongerRetiredAreRejected() {
+        String oldToken = sign(JWTKeyRing.load(KEYSTORE, PASSWORD, "jwt-previous", List.of()));
+        JWTKeyRing afterRetirement = JWTKeyRing.load(KEYSTORE, PASSWORD, "jwt-current", List.of());
+
+        assertThrows(JWTVerificationException.class, () -> JWT.require(Algorithm.ECDSA256(afterRetirement)).build().verify(oldToken));
+    }
+
+    @Test
+    void unknownAliasesFailAtStartup() {
+        assertThrows(IllegalStateException.class, () -> JWTKeyRing.load(KEYSTORE, PASSWORD, "jwt-current", List.of("missing")));
+        assertThrows(IllegalStateException.class, () -> JWTKeyRing.load(KEYSTORE, "wrong", "jwt-current", List.of()));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void jwksServesEveryVerificationKeyWithCacheHeaders() {
+        JWTKeyRing keyRing = JWTKeyRing.load(KEYSTORE, PASSWORD, "jwt-current", List.of("jwt-previous"));
+        ApplicationProperties properties = mock(ApplicationProperties.class);
+        when(properties.getJwksMaxAge()).thenReturn(3600L);
+
+        ResponseEntity<Map<String, Object>> response = new JwksRestController(keyRing, properties).getJwks();
+
+        assertEquals("max-age=3600, public", response.getHeaders().getCacheControl());
+        List<Map<String, String>> keys = (List<Map<String, String>>) response.getBody().get("keys");
+        assertEquals(List.of("jwt-current", "jwt-previous"), keys.stream().map(key -> key.get("kid")).toList());
+        for (Map<String, String> key : keys) {
+            assertEquals("EC", key.get("kty"));
+            assertEquals("P-256", key.get("crv"));
+            assertEquals("ES256", key.get("alg"));
+            assertEquals("sig", key.get("use"));
+            assertFalse(key.containsKey("d"));
+            BigInteger x = new BigInteger(1, Base64.getUrlDecoder().decode(key.get("x")));
+            BigInteger y = new BigInteger(1, Base64.getUrlDecoder().decode(key.get("y")));
+            assertEquals(keyRing.getPublicKeyById(key.get("kid")).getW().getAffineX(), x);
+            assertEquals(keyRing.getPublicKeyById(key.get("kid")).getW().getAffineY(), y);
+        }
+    }
+
+    @Test
+    void emptyKeyRingServesNoKeys() {
+        assertEquals(Map.of("keys", List.of()), JWTKeyRing.empty().toJwks());
+    }
+
+    private static String sign(JWTKeyRing keyRing) {
+        return JWT.create().withSubject("john").sign(Algorithm.ECDSA256(keyRing));
+    }
+}
@@ -0,0 +1,131 @@
+package org.mounanga.userservice.security;
+
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mounanga.userservice.entity.User;
+import org.mounanga.userservice.repository.UserRepository;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.authentication.dao.DaoAuthenticationProvider;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@SpringBootTest
+class PasswordEncoderCalibratorTest {
+
+    private static final String PASSWORD = "Password-1";
+
+    @Mock
+    private UserRepository userRepository;
+
+    @Test
+    void shortTargetSelectsMinimumBCryptStrength() {
+        PasswordEncoder passwordEncoder = PasswordEncoderCalibrator.calibrate(PasswordEncoderCalibrator.BCRYPT, Duration.ofMillis(1));
+
+        String hash = passwordEncoder.encode(PASSWORD);
+
+        assertTrue(hash.startsWith("{bcrypt}$2a$10$"));
+        assertTrue(passwordEncoder.matches(PASSWORD, hash));
+        assertFalse(passwordEncoder.matches("wrong", hash));
+        assertFalse(passwordEncoder.upgradeEncoding(hash));
+    }
+
+    @Test
+    void longTargetSelectsHigherBCryptStrength() {
+        PasswordEncoder passwordEncoder = PasswordEncoderCalibrator.calibrate(PasswordEncoderCalibrator.BCRYPT, Duration.ofHours(1));
+
+        // encoding at the selected strength would take seconds: a minimum strength hash must be upgraded instead
+        String minimumStrengthHash = "{bcrypt}" + new BCryptPasswordEncoder(10).encode(PASSWORD);
+
+        assertTrue(passwordEncoder.matches(PASSWORD, minimumStrengthHash));
+        assertTrue(passwordEncoder.upgradeEncoding(minimumStrengthHash));
+    }
+
+    @Test
+    void legacyUnprefixedHashesMatchAndAreUpgraded() {
+        PasswordEncoder passwordEncoder = PasswordEncoderCalibrator.calibrate(PasswordEncoderCalibrator.BCRYPT, Duration.ofMillis(1));
+        String legacyHash = new BCryptPasswordEncoder(4).encode(PASSWORD);
+
+        assertTrue(passwordEncoder.matches(PASSWORD, legacyHash));
+        assertTrue(passwordEncoder.upgradeEncoding(legacyHash));
+    }
+
+    @Test
+    void argon2EncodesWithArgon2AndStillMatchesBCrypt() {
+        PasswordEncoder passwordEncoder = PasswordEncoderCalibrator.calibrate(PasswordEncoderCalibrator.ARGON2, Duration.ofMillis(1));
+        String bcryptHash = "{bcrypt}" + new BCryptPasswordEncoder(10).encode(PASSWORD);
+
+        String hash = passwordEncoder.encode(PASSWORD);
+
+        assertTrue(hash.startsWith("{argon2}$argon2id$"));
+        assertTrue(hash.contains("m=19456,t=2,p=1"));
+        assertTrue(passwordEncoder.matches(PASSWORD, hash));
+        assertFalse(passwordEncoder.upgradeEncoding(hash));
+        assertTrue(passwordEncoder.matches(PASSWORD, bcryptHash));
+        assertTrue(passwordEncoder.upgradeEncoding(bcryptHash));
+    }
+
+    @Test
+    void unsupportedEncoderIsRejected() {
+        Duration target = Duration.ofMillis(1);
+        assertThrows(IllegalStateException.class, () -> PasswordEncoderCalibrator.calibrate("md5", target));
+    }
+
+    @Test
+    void outdatedHashIsReEncodedAndSavedOnLogin() {
+        PasswordEncoder passwordEncoder = PasswordEncoderCalibrator.calibrate(PasswordEncoderCalibrator.BCRYPT, Duration.ofMillis(1));
+        User user = user(new BCryptPasswordEncoder(4).encode(PASSWORD));
+        when(userRepository.findSecurityStateByUsername("john")).thenReturn(Optional.of(user));
+        when(userRepository.updatePassword(eq(user.getId()), anyString())).thenReturn(1);
+
+        Authentication authentication = provider(passwordEncoder)
+                .authenticate(UsernamePasswordAuthenticationToken.unauthenticated("john", PASSWORD));
+
+        ArgumentCaptor<String> hash = ArgumentCaptor.forClass(String.class);
+        verify(userRepository).updatePassword(eq(user.getId()), hash.capture());
+        assertTrue(hash.getValue().startsWith("{bcrypt}$2a$10$"));
+        assertTrue(passwordEncoder.matches(PASSWORD, hash.getValue()));
+        AuthenticatedUser principal = assertInstanceOf(AuthenticatedUser.class, authentication.getPrincipal());
+        assertSame(user, principal.getUser());
+    }
+
+    @Test
+    void upToDateHashIsNotSavedOnLogin() {
+        PasswordEncoder passwordEncoder = PasswordEncoderCalibrator.calibrate(PasswordEncoderCalibrator.BCRYPT, Duration.ofMillis(1));
+        User user = user(passwordEncoder.encode(PASSWORD));
+        when(userRepository.findSecurityStateByUsername("john")).thenReturn(Optional.of(user));
+
+        provider(passwordEncoder).authenticate(UsernamePasswordAuthenticationToken.unauthenticated("john", PASSWORD));
+
+        verify(userRepository, never()).updatePassword(anyString(), anyString());
+    }
+
+    private DaoAuthenticationProvider provider(PasswordEncoder passwordEncoder) {
+        UserDetailsServiceImpl userDetailsService = new UserDetailsServiceImpl(userRepository);
+        DaoAuthenticationProvider provider = new DaoAuthenticationProvider();
+        provider.setUserDetailsService(userDetailsService);
+        provider.setUserDetailsPasswordService(userDetailsService);
+        provider.setPasswordEncoder(passwordEncoder);
+        return provider;
+    }
+
+    private static User user(String password) {
+        return User.builder()
+                .id("user-id")
+                .username("john")
+                .password(password)
+                .roles(List.of())
+                .build();
+    }
+}
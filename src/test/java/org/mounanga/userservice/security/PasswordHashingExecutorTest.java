@@ -0,0 +1,120 @@
+package org.mounanga.userservice.security;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mounanga.userservice.configuration.ApplicationProperties;
+import org.mounanga.userservice.exception.GlobalExceptionHandler;
+import org.mounanga.userservice.exception.ServiceUnavailableException;
+import org.mounanga.userservice.util.implementation.UniqueConstraintTranslator;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.authentication.TestingAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+@SpringBootTest
+class PasswordHashingExecutorTest {
+
+    @Mock
+    private ApplicationProperties properties;
+
+    private MeterRegistry meterRegistry;
+
+    private ExecutorService continuationExecutor;
+
+    private PasswordHashingExecutor passwordHashingExecutor;
+
+    private final CountDownLatch release = new CountDownLatch(1);
+
+    @BeforeEach
+    void setUp() {
+        when(properties.getHashingPoolSize()).thenReturn(1);
+        when(properties.getHashingQueueCapacity()).thenReturn(1);
+        meterRegistry = new SimpleMeterRegistry();
+        continuationExecutor = Executors.newSingleThreadExecutor(runnable -> new Thread(runnable, "continuation"));
+        passwordHashingExecutor = new PasswordHashingExecutor(properties, meterRegistry, continuationExecutor);
+    }
+
+    @AfterEach
+    void tearDown() {
+        release.countDown();
+        passwordHashingExecutor.shutdown();
+        continuationExecutor.shutdown();
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void saturatedPoolRejectsWithServiceUnavailable() throws InterruptedException {
+        CountDownLatch started = new CountDownLatch(1);
+        CompletableFuture<Void> running = passwordHashingExecutor.run(() -> {
+            started.countDown();
+            await(release);
+        });
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+        CompletableFuture<Void> queued = passwordHashingExecutor.run(() -> { });
+
+        ServiceUnavailableException exception = assertThrows(ServiceUnavailableException.class, () -> passwordHashingExecutor.run(() -> { }));
+
+        ResponseEntity<?> response = new GlobalExceptionHandler(mock(UniqueConstraintTranslator.class)).handleException(exception);
+        assertEquals(HttpStatus.SERVICE_UNAVAILABLE, response.getStatusCode());
+        assertEquals("1", response.getHeaders().getFirst(HttpHeaders.RETRY_AFTER));
+        assertEquals(1.0, meterRegistry.get("password.hashing.rejected").counter().count());
+        assertEquals(1.0, meterRegistry.get("password.hashing.queue.size").gauge().value());
+        assertEquals(0.0, meterRegistry.get("password.hashing.queue.remaining").gauge().value());
+        assertEquals(1.0, meterRegistry.get("password.hashing.active").gauge().value());
+
+        release.countDown();
+        CompletableFuture.allOf(running, queued).join();
+        assertEquals(2, meterRegistry.get("password.hashing.wait").timer().count());
+        assertEquals(1.0, meterRegistry.get("password.hashing.queue.remaining").gauge().value());
+    }
+
+    @Test
+    void continuationRunsOffThePoolWithTheCallersSecurityContext() {
+        SecurityContextHolder.getContext().setAuthentication(new TestingAuthenticationToken("admin", null));
+
+        String result = passwordHashingExecutor.submit(() -> Thread.currentThread().getName(),
+                hashingThread -> hashingThread + " " + Thread.currentThread().getName() + " " + SecurityContextHolder.getContext().getAuthentication().getName())
+                .orTimeout(5, TimeUnit.SECONDS).join();
+
+        assertEquals("password-hashing-1 continuation admin", result);
+    }
+
+    @Test
+    void failedHashSkipsTheContinuation() {
+        AtomicBoolean continued = new AtomicBoolean();
+
+        CompletableFuture<Boolean> future = passwordHashingExecutor.submit(() -> {
+            throw new IllegalStateException("hash failed");
+        }, hash -> continued.getAndSet(true));
+
+        CompletionException exception = assertThrows(CompletionException.class, () -> future.orTimeout(5, TimeUnit.SECONDS).join());
+        assertInstanceOf(IllegalStateException.class, exception.getCause());
+        assertFalse(continued.get());
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,121 @@
+package org.mounanga.userservice.security;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mounanga.userservice.configuration.ApplicationProperties;
+import org.mounanga.userservice.entity.TokenRevocation;
+import org.mounanga.userservice.enums.RevocationType;
+import org.mounanga.userservice.repository.TokenRevocationRepository;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@SpringBootTest
+class TokenRevocationRegistryTest {
+
+    private static final LocalDateTime REVOKED_AT = LocalDateTime.of(2026, 1, 1, 10, 0, 0, 700_000_000);
+
+    @Mock
+    private TokenRevocationRepository tokenRevocationRepository;
+
+    @Mock
+    private ApplicationProperties properties;
+
+    private TokenRevocationRegistry registry;
+
+    @BeforeEach
+    void setUp() {
+        when(properties.getRevocationExpectedEntries()).thenReturn(1000L);
+        when(properties.getRevocationFalsePositiveRate()).thenReturn(0.01);
+        when(properties.getRevocationRecentEntries()).thenReturn(100L);
+        when(tokenRevocationRepository.findMaxId()).thenReturn(10L);
+        when(tokenRevocationRepository.findByExpiryDateAfter(any())).thenReturn(List.of());
+        registry = new TokenRevocationRegistry(tokenRevocationRepository, properties);
+        registry.initialize();
+    }
+
+    @Test
+    void tokensIssuedBeforeTheRevocationAreRevoked() {
+        registry.register(userRevocation(11L, "john", REVOKED_AT));
+
+        assertTrue(registry.isRevoked(token("john", instant(REVOKED_AT.minusSeconds(1)))));
+        assertFalse(registry.isRevoked(token("john", instant(REVOKED_AT.plusSeconds(1).withNano(0)))));
+        assertFalse(registry.isRevoked(token("jane", instant(REVOKED_AT.minusSeconds(1)))));
+    }
+
+    @Test
+    void tokensIssuedInTheSecondOfTheRevocationAreRevoked() {
+        registry.register(userRevocation(11L, "john", REVOKED_AT));
+
+        // iat is truncated to the second: this token may have been issued up to 700ms before the revocation
+        assertTrue(registry.isRevoked(token("john", instant(REVOKED_AT.withNano(0)))));
+    }
+
+    @Test
+    void keysMissingFromTheRecentEntriesAreLookedUpOnce() {
+        when(tokenRevocationRepository.findByExpiryDateAfter(any())).thenReturn(List.of(userRevocation(5L, "john", REVOKED_AT)));
+        when(tokenRevocationRepository.findLatestRevokedAt(eq(RevocationType.USER), eq("john"), any())).thenReturn(Optional.of(REVOKED_AT));
+        registry.rebuild();
+
+        assertTrue(registry.isRevoked(token("john", instant(REVOKED_AT.minusSeconds(1)))));
+        assertFalse(registry.isRevoked(token("john", instant(REVOKED_AT.plusSeconds(1).withNano(0)))));
+        verify(tokenRevocationRepository, times(1)).findLatestRevokedAt(eq(RevocationType.USER), eq("john"), any());
+        // absent from the filter: no lookup at all
+        assertFalse(registry.isRevoked(token("jane", instant(REVOKED_AT.minusSeconds(1)))));
+        verify(tokenRevocationRepository, never()).findLatestRevokedAt(eq(RevocationType.USER), eq("jane"), any());
+    }
+
+    @Test
+    void expiredRevocationFoundByTheFilterIsNotRevoked() {
+        when(tokenRevocationRepository.findByExpiryDateAfter(any())).thenReturn(List.of(userRevocation(5L, "john", REVOKED_AT)));
+        when(tokenRevocationRepository.findLatestRevokedAt(eq(RevocationType.USER), eq("john"), any())).thenReturn(Optional.empty());
+        registry.rebuild();
+
+        assertFalse(registry.isRevoked(token("john", instant(REVOKED_AT.minusSeconds(1)))));
+        assertFalse(registry.isRevoked(token("john", instant(REVOKED_AT.minusSeconds(1)))));
+        verify(tokenRevocationRepository, times(1)).findLatestRevokedAt(eq(RevocationType.USER), eq("john"), any());
+    }
+
+    @Test
+    void refreshPollsNewIdsAndRetriesSkippedOnes() {
+        when(tokenRevocationRepository.findByIdGreaterThan(10L)).thenReturn(List.of(userRevocation(12L, "john", REVOKED_AT)));
+        registry.refresh();
+
+        // id 11 was written with an older timestamp and commits after id 12
+        when(tokenRevocationRepository.findByIdGreaterThanOrIdIn(12L, Set.of(11L))).thenReturn(List.of(userRevocation(11L, "jane", REVOKED_AT.minusHours(1))));
+        registry.refresh();
+
+        assertTrue(registry.isRevoked(token("john", instant(REVOKED_AT.minusSeconds(1)))));
+        assertTrue(registry.isRevoked(token("jane", instant(REVOKED_AT.minusHours(2)))));
+
+        registry.refresh();
+        verify(tokenRevocationRepository).findByIdGreaterThan(10L);
+        verify(tokenRevocationRepository).findByIdGreaterThan(12L);
+    }
+
+    private static TokenRevocation userRevocation(Long id, String username, LocalDateTime revokedAt) {
+        return TokenRevocation.builder().id(id).type(RevocationType.USER).subject(username).revokedAt(revokedAt)
+                .expiryDate(revokedAt.plusHours(1)).build();
+    }
+
+    private static VerifiedToken token(String username, Instant issuedAt) {
+        return new VerifiedToken(UsernamePasswordAuthenticationToken.authenticated(username, null, List.of()), null, username,
+                issuedAt, issuedAt.plusSeconds(900));
+    }
+
+    private static Instant instant(LocalDateTime dateTime) {
+        return dateTime.atZone(ZoneId.systemDefault()).toInstant();
+    }
+}
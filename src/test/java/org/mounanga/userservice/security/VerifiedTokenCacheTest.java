@@ -0,0 +1,123 @@
+package org.mounanga.userservice.security;
+
+import com.auth0.jwt.JWTVerifier;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.http.HttpServletResponse;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mounanga.userservice.configuration.ApplicationProperties;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.time.Instant;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+@SpringBootTest
+class VerifiedTokenCacheTest {
+
+    @Mock
+    private ApplicationProperties properties;
+
+    @Mock
+    private JWTVerifier verifier;
+
+    @Mock
+    private TokenRevocationRegistry tokenRevocationRegistry;
+
+    @Mock
+    private FilterChain filterChain;
+
+    @BeforeEach
+    void setUp() {
+        when(properties.getJwtCacheMaxSize()).thenReturn(100L);
+        when(properties.getJwtCacheMaxTtl()).thenReturn(60_000L);
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void cachedVerificationExpiresWithTheToken() throws InterruptedException {
+        VerifiedTokenCache cache = new VerifiedTokenCache(properties);
+        VerifiedToken token = verifiedToken(Instant.now().plusMillis(300));
+
+        cache.put("jwt", token);
+        assertSame(token, cache.get("jwt"));
+
+        Thread.sleep(500);
+        assertNull(cache.get("jwt"));
+    }
+
+    @Test
+    void expiredTokensAreNotCached() {
+        VerifiedTokenCache cache = new VerifiedTokenCache(properties);
+
+        cache.put("jwt", verifiedToken(Instant.now().minusSeconds(1)));
+
+        assertNull(cache.get("jwt"));
+    }
+
+    @Test
+    void cachedVerificationNeverOutlivesTheMaximumTtl() throws InterruptedException {
+        when(properties.getJwtCacheMaxTtl()).thenReturn(300L);
+        VerifiedTokenCache cache = new VerifiedTokenCache(properties);
+
+        cache.put("jwt", verifiedToken(Instant.now().plusSeconds(3600)));
+        assertNotNull(cache.get("jwt"));
+
+        Thread.sleep(500);
+        assertNull(cache.get("jwt"));
+    }
+
+    @Test
+    void revocationStillAppliesToCacheHits() throws Exception {
+        VerifiedTokenCache cache = new VerifiedTokenCache(properties);
+        VerifiedToken token = verifiedToken(Instant.now().plusSeconds(3600));
+        cache.put("jwt", token);
+        when(tokenRevocationRegistry.isRevoked(token)).thenReturn(true);
+        JWTAuthorizationFilter filter = new JWTAuthorizationFilter(verifier, cache, tokenRevocationRegistry);
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.addHeader("Authorization", "Bearer jwt");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        filter.doFilter(request, response, filterChain);
+
+        assertEquals(HttpServletResponse.SC_UNAUTHORIZED, response.getStatus());
+        verify(verifier, never()).verify(anyString());
+        verify(filterChain, never()).doFilter(any(), any());
+        assertNull(SecurityContextHolder.getContext().getAuthentication());
+    }
+
+    @Test
+    void cacheHitsSkipSignatureVerification() throws Exception {
+        VerifiedTokenCache cache = new VerifiedTokenCache(properties);
+        VerifiedToken token = verifiedToken(Instant.now().plusSeconds(3600));
+        cache.put("jwt", token);
+        JWTAuthorizationFilter filter = new JWTAuthorizationFilter(verifier, cache, tokenRevocationRegistry);
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.addHeader("Authorization", "Bearer jwt");
+
+        filter.doFilter(request, new MockHttpServletResponse(), filterChain);
+
+        verify(verifier, never()).verify(anyString());
+        verify(tokenRevocationRegistry).isRevoked(token);
+        verify(filterChain).doFilter(any(), any());
+    }
+
+    private static VerifiedToken verifiedToken(Instant expiresAt) {
+        return new VerifiedToken(UsernamePasswordAuthenticationToken.authenticated("john", null, List.of()),
+                "token-id", "john", Instant.now(), expiresAt);
+    }
+}
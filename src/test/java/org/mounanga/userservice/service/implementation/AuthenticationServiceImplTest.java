@@ -1,27 +1,46 @@
 package org.mounanga.userservice.service.implementation;
 
+import com.auth0.jwt.JWT;
+import com.auth0.jwt.JWTVerifier;
+import com.auth0.jwt.algorithms.Algorithm;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mounanga.userservice.configuration.ApplicationProperties;
+import org.mounanga.userservice.dto.LoginClientDTO;
 import org.mounanga.userservice.dto.LoginRequestDTO;
 import org.mounanga.userservice.dto.LoginResponseDTO;
+import org.mounanga.userservice.dto.RefreshTokenRequestDTO;
+import org.mounanga.userservice.entity.RefreshToken;
 import org.mounanga.userservice.entity.Role;
 import org.mounanga.userservice.entity.User;
+import org.mounanga.userservice.enums.MailType;
 import org.mounanga.userservice.exception.UserNotAuthenticatedException;
 import org.mounanga.userservice.exception.UserNotEnabledException;
-import org.mounanga.userservice.exception.UserNotFoundException;
 import org.mounanga.userservice.repository.UserRepository;
+import org.mounanga.userservice.security.JWTTokenProvider;
+import org.mounanga.userservice.security.PasswordHashingExecutor;
+import org.mounanga.userservice.service.LastLoginService;
+import org.mounanga.userservice.service.LoginDeviceService;
+import org.mounanga.userservice.service.RefreshTokenService;
+import org.mounanga.userservice.service.TokenRevocationService;
 import org.mounanga.userservice.util.MailingService;
 import org.springframework.boot.test.context.SpringBootTest;
-import org.springframework.security.authentication.AuthenticationManager;
-import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
-import org.springframework.security.core.Authentication;
+import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.transaction.PlatformTransactionManager;
 
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Function;
+import java.util.function.Supplier;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
@@ -30,8 +49,10 @@ import static org.mockito.Mockito.*;
 @SpringBootTest
 class AuthenticationServiceImplTest {
 
+    private static final LoginClientDTO CLIENT = new LoginClientDTO("127.0.0.1", "JUnit");
+
     @Mock
-    private AuthenticationManager authenticationManager;
+    private PasswordHashingExecutor passwordHashingExecutor;
 
     @Mock
     private UserRepository userRepository;
@@ -42,82 +63,206 @@ class AuthenticationServiceImplTest {
     @Mock
     private MailingService mailingService;
 
+    @Mock
+    private RefreshTokenService refreshTokenService;
+
+    @Mock
+    private TokenRevocationService tokenRevocationService;
+
+    @Mock
+    private LastLoginService lastLoginService;
+
+    @Mock
+    private LoginDeviceService loginDeviceService;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private JWTTokenProvider tokenProvider;
+
+    private final PasswordEncoder passwordEncoder = new BCryptPasswordEncoder(5);
+
     @InjectMocks
     private AuthenticationServiceImpl authenticationService;
 
     @BeforeEach
     void setUp() {
-        authenticationService = new AuthenticationServiceImpl(authenticationManager, userRepository, properties, mailingService);
+        Algorithm algorithm = Algorithm.HMAC256("secret");
+        JWTVerifier verifier = JWT.require(algorithm).build();
+        tokenProvider = new JWTTokenProvider(algorithm, properties);
+        when(passwordHashingExecutor.submit(any(), any())).thenAnswer(invocation -> CompletableFuture
+                .completedFuture(invocation.getArgument(0, Supplier.class).get())
+                .thenApply(invocation.getArgument(1, Function.class)));
+        authenticationService = new AuthenticationServiceImpl(passwordEncoder, passwordHashingExecutor, userRepository, mailingService, tokenProvider, refreshTokenService, verifier, tokenRevocationService, lastLoginService, loginDeviceService, transactionManager);
     }
 
     @Test
     void authenticateSuccess() {
         LoginRequestDTO request = new LoginRequestDTO("testUser", "password");
-        Authentication authentication = mock(Authentication.class);
-        when(authenticationManager.authenticate(any(UsernamePasswordAuthenticationToken.class)))
-                .thenReturn(authentication);
-        when(authentication.isAuthenticated()).thenReturn(true);
-
         List<Role> roles = new ArrayList<>();
         roles.add(Role.builder().name("USER").build());
         User user = new User();
         user.setUsername("testUser");
+        user.setPassword(passwordEncoder.encode("password"));
         user.setRoles(roles);
         user.setEnabled(true);
-        when(userRepository.findByUsername("testUser")).thenReturn(Optional.of(user));
-        when(properties.getJwtSecret()).thenReturn("secret");
+        when(userRepository.findSecurityStateByUsername("testUser")).thenReturn(Optional.of(user));
         when(properties.getJwtExpiration()).thenReturn(3600000L);
+        when(refreshTokenService.createRefreshToken(user)).thenReturn("refresh-token");
+        when(loginDeviceService.recordLogin(eq(user), eq(CLIENT), any())).thenReturn(true);
 
         // Act
-        LoginResponseDTO response = authenticationService.authenticate(request);
+        LoginResponseDTO response = authenticationService.authenticate(request, CLIENT).join();
 
         // Assert
         assertNotNull(response);
-        verify(mailingService).sendMail(eq(user.getEmail()), anyString(), anyString());
-        verify(userRepository).save(user);
+        assertEquals("refresh-token", response.refreshToken());
+        verify(mailingService).sendMail(eq(user.getEmail()), eq(MailType.LOGIN_NOTIFICATION), anyString());
+        verify(lastLoginService).recordLogin(eq(user.getId()), any());
+        verify(userRepository, never()).save(any(User.class));
+        verify(userRepository, never()).updatePassword(any(), any());
     }
 
     @Test
-    void authenticateThrowsUserNotFoundException() {
+    void authenticateFromKnownDeviceSendsNoNotification() {
         LoginRequestDTO request = new LoginRequestDTO("testUser", "password");
-        Authentication authentication = mock(Authentication.class);
-        when(authenticationManager.authenticate(any(UsernamePasswordAuthenticationToken.class)))
-                .thenReturn(authentication);
-        when(authentication.isAuthenticated()).thenReturn(true);
+        User user = User.builder().id("id").username("testUser").password(passwordEncoder.encode("password")).roles(new ArrayList<>()).enabled(true).build();
+        when(userRepository.findSecurityStateByUsername("testUser")).thenReturn(Optional.of(user));
+        when(properties.getJwtExpiration()).thenReturn(3600000L);
+        when(loginDeviceService.recordLogin(eq(user), eq(CLIENT), any())).thenReturn(false);
 
-        when(userRepository.findByUsername("testUser")).thenReturn(Optional.empty());
+        LoginResponseDTO response = authenticationService.authenticate(request, CLIENT).join();
 
-        // Act & Assert
-        assertThrows(UserNotFoundException.class, () -> authenticationService.authenticate(request));
+        assertNotNull(response);
+        verify(loginDeviceService).recordLogin(eq(user), eq(CLIENT), any());
+        verifyNoInteractions(mailingService);
+    }
+
+    @Test
+    void authenticateVerifiesPasswordBeforeOpeningTheWriteTransaction() {
+        LoginRequestDTO request = new LoginRequestDTO("testUser", "password");
+        User user = User.builder().id("id").username("testUser").password(passwordEncoder.encode("password")).roles(new ArrayList<>()).enabled(true).build();
+        when(userRepository.findSecurityStateByUsername("testUser")).thenReturn(Optional.of(user));
+        when(properties.getJwtExpiration()).thenReturn(3600000L);
+        when(refreshTokenService.createRefreshToken(user)).thenReturn("refresh-token");
+
+        authenticationService.authenticate(request, CLIENT).join();
+
+        InOrder inOrder = inOrder(userRepository, passwordHashingExecutor, transactionManager, loginDeviceService, refreshTokenService);
+        inOrder.verify(userRepository).findSecurityStateByUsername("testUser");
+        inOrder.verify(passwordHashingExecutor).submit(any(), any());
+        inOrder.verify(transactionManager).getTransaction(any());
+        inOrder.verify(loginDeviceService).recordLogin(eq(user), eq(CLIENT), any());
+        inOrder.verify(refreshTokenService).createRefreshToken(user);
+        inOrder.verify(transactionManager).commit(any());
+    }
+
+    @Test
+    void authenticateUpgradesAnOutdatedHash() {
+        LoginRequestDTO request = new LoginRequestDTO("testUser", "password");
+        User user = User.builder().id("id").username("testUser").password(new BCryptPasswordEncoder(4).encode("password")).roles(new ArrayList<>()).enabled(true).build();
+        when(userRepository.findSecurityStateByUsername("testUser")).thenReturn(Optional.of(user));
+        when(properties.getJwtExpiration()).thenReturn(3600000L);
+
+        authenticationService.authenticate(request, CLIENT).join();
+
+        ArgumentCaptor<String> upgradedPassword = ArgumentCaptor.forClass(String.class);
+        verify(userRepository).updatePassword(eq("id"), upgradedPassword.capture());
+        assertTrue(upgradedPassword.getValue().startsWith("$2a$05$"));
+        assertTrue(passwordEncoder.matches("password", upgradedPassword.getValue()));
+    }
+
+    @Test
+    void wrongPasswordOpensNoTransaction() {
+        LoginRequestDTO request = new LoginRequestDTO("testUser", "wrong");
+        User user = User.builder().id("id").username("testUser").password(passwordEncoder.encode("password")).roles(new ArrayList<>()).enabled(true).build();
+        when(userRepository.findSecurityStateByUsername("testUser")).thenReturn(Optional.of(user));
+
+        CompletionException exception = assertThrows(CompletionException.class, () -> authenticationService.authenticate(request, CLIENT).join());
+
+        assertInstanceOf(BadCredentialsException.class, exception.getCause());
+        verifyNoInteractions(transactionManager, loginDeviceService, refreshTokenService);
+    }
+
+    @Test
+    void unknownUsernameIsHashedLikeAKnownOne() {
+        LoginRequestDTO request = new LoginRequestDTO("testUser", "password");
+        when(userRepository.findSecurityStateByUsername("testUser")).thenReturn(Optional.empty());
+
+        CompletionException exception = assertThrows(CompletionException.class, () -> authenticationService.authenticate(request, CLIENT).join());
+
+        assertInstanceOf(BadCredentialsException.class, exception.getCause());
+        verify(passwordHashingExecutor).submit(any(), any());
+        verifyNoInteractions(transactionManager, loginDeviceService, refreshTokenService);
     }
 
     @Test
     void authenticateThrowsUserNotEnabledException() {
         // Arrange
         LoginRequestDTO request = new LoginRequestDTO("testUser", "password");
-        Authentication authentication = mock(Authentication.class);
-        when(authenticationManager.authenticate(any(UsernamePasswordAuthenticationToken.class)))
-                .thenReturn(authentication);
-        when(authentication.isAuthenticated()).thenReturn(true);
-
         User user = new User();
         user.setUsername("testUser");
+        user.setPassword(passwordEncoder.encode("password"));
         user.setEnabled(false);
-        when(userRepository.findByUsername("testUser")).thenReturn(Optional.of(user));
+        when(userRepository.findSecurityStateByUsername("testUser")).thenReturn(Optional.of(user));
 
         // Act & Assert
-        assertThrows(UserNotEnabledException.class, () -> authenticationService.authenticate(request));
+        CompletionException exception = assertThrows(CompletionException.class, () -> authenticationService.authenticate(request, CLIENT).join());
+        assertInstanceOf(UserNotEnabledException.class, exception.getCause());
+        verifyNoInteractions(transactionManager);
     }
 
     @Test
-    void authenticateThrowsUserNotAuthenticatedException() {
-        LoginRequestDTO request = new LoginRequestDTO("testUser", "password");
-        Authentication authentication = mock(Authentication.class);
-        when(authenticationManager.authenticate(any(UsernamePasswordAuthenticationToken.class)))
-                .thenReturn(authentication);
-        when(authentication.isAuthenticated()).thenReturn(false);
+    void refreshSuccess() {
+        List<Role> roles = new ArrayList<>();
+        roles.add(Role.builder().name("USER").build());
+        User user = new User();
+        user.setId("id");
+        user.setUsername("testUser");
+        user.setRoles(roles);
+        user.setEnabled(true);
+        RefreshToken consumedToken = RefreshToken.builder().family("family").user(user).build();
+        when(refreshTokenService.consumeRefreshToken("old-token")).thenReturn(consumedToken);
+        when(userRepository.findSecurityStateById("id")).thenReturn(Optional.of(user));
+        when(refreshTokenService.createRefreshToken(user, "family")).thenReturn("new-token");
+        when(properties.getJwtExpiration()).thenReturn(3600000L);
 
-        // Act & Assert
-        assertThrows(UserNotAuthenticatedException.class, () -> authenticationService.authenticate(request));
+        LoginResponseDTO response = authenticationService.refresh(new RefreshTokenRequestDTO("old-token"));
+
+        assertNotNull(response.jwt());
+        assertEquals("new-token", response.refreshToken());
+        verifyNoInteractions(passwordHashingExecutor);
+    }
+
+    @Test
+    void refreshThrowsUserNotEnabledException() {
+        User cachedUser = User.builder().id("id").username("testUser").enabled(true).build();
+        User user = User.builder().id("id").username("testUser").enabled(false).build();
+        RefreshToken consumedToken = RefreshToken.builder().family("family").user(cachedUser).build();
+        when(refreshTokenService.consumeRefreshToken("old-token")).thenReturn(consumedToken);
+        when(userRepository.findSecurityStateById("id")).thenReturn(Optional.of(user));
+
+        RefreshTokenRequestDTO request = new RefreshTokenRequestDTO("old-token");
+        assertThrows(UserNotEnabledException.class, () -> authenticationService.refresh(request));
+        verify(refreshTokenService, never()).createRefreshToken(any(User.class), anyString());
+    }
+
+    @Test
+    void logoutRevokesTokenId() {
+        User user = new User();
+        user.setUsername("testUser");
+        user.setRoles(new ArrayList<>());
+        when(properties.getJwtExpiration()).thenReturn(3600000L);
+        String jwt = tokenProvider.generateToken(user);
+
+        authenticationService.logout("Bearer " + jwt);
+
+        verify(tokenRevocationService).revokeToken(eq(JWT.decode(jwt).getId()), any());
+    }
+
+    @Test
+    void logoutThrowsUserNotAuthenticatedException() {
+        assertThrows(UserNotAuthenticatedException.class, () -> authenticationService.logout("Bearer invalid"));
+        verify(tokenRevocationService, never()).revokeToken(anyString(), any());
     }
-}
\ No newline at end of file
+}
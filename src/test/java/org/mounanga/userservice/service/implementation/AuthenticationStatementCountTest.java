@@ -0,0 +1,179 @@
+package org.mounanga.userservice.service.implementation;
+
+import com.auth0.jwt.JWT;
+import com.auth0.jwt.algorithms.Algorithm;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mounanga.userservice.configuration.ApplicationProperties;
+import org.mounanga.userservice.dto.LoginClientDTO;
+import org.mounanga.userservice.dto.LoginRequestDTO;
+import org.mounanga.userservice.dto.LoginResponseDTO;
+import org.mounanga.userservice.entity.Profile;
+import org.mounanga.userservice.entity.Role;
+import org.mounanga.userservice.entity.User;
+import org.mounanga.userservice.enums.Gender;
+import org.mounanga.userservice.exception.UserNotEnabledException;
+import org.mounanga.userservice.repository.RefreshTokenRepository;
+import org.mounanga.userservice.repository.RoleRepository;
+import org.mounanga.userservice.repository.UserRepository;
+import org.mounanga.userservice.security.JWTTokenProvider;
+import org.mounanga.userservice.security.PasswordHashingExecutor;
+import org.mounanga.userservice.service.LastLoginService;
+import org.mounanga.userservice.service.LoginDeviceService;
+import org.mounanga.userservice.service.TokenRevocationService;
+import org.mounanga.userservice.util.MailingService;
+import org.mounanga.userservice.util.implementation.RoleCatalog;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import javax.sql.DataSource;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+@DataJpaTest
+@ActiveProfiles("test")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import({ApplicationProperties.class, AuthenticationStatementCountTest.TestBeans.class})
+class AuthenticationStatementCountTest {
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private RoleRepository roleRepository;
+
+    @Autowired
+    private RefreshTokenRepository refreshTokenRepository;
+
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+
+    @Autowired
+    private ApplicationProperties properties;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private DataSource dataSource;
+
+    private AuthenticationServiceImpl authenticationService;
+
+    @BeforeEach
+    void setUp() {
+        // hashes and continues on the test thread, so that the login joins the test transaction
+        PasswordHashingExecutor passwordHashingExecutor = mock(PasswordHashingExecutor.class);
+        when(passwordHashingExecutor.submit(any(), any())).thenAnswer(invocation -> CompletableFuture
+                .completedFuture(invocation.getArgument(0, Supplier.class).get())
+                .thenApply(invocation.getArgument(1, Function.class)));
+        Algorithm algorithm = Algorithm.HMAC256("secret");
+        authenticationService = new AuthenticationServiceImpl(passwordEncoder, passwordHashingExecutor, userRepository,
+                mock(MailingService.class), new JWTTokenProvider(algorithm, properties),
+                new RefreshTokenServiceImpl(refreshTokenRepository, properties), JWT.require(algorithm).build(),
+                mock(TokenRevocationService.class), mock(LastLoginService.class),
+                mock(LoginDeviceService.class), transactionManager);
+
+        Role role = roleRepository.save(Role.builder().name("TESTER").description("test role").build());
+        Profile profile = Profile.builder().gender(Gender.F).firstname("jane").lastname("doe").nationality("world")
+                .birthday(LocalDate.now()).pin("statement-count-pin").placeOfBirth("world").build();
+        List<Role> roles = new ArrayList<>();
+        roles.add(role);
+        User user = User.builder().username("statement-count").email("statement-count@example.com")
+                .password(passwordEncoder.encode("Password1")).enabled(true).lastLogin(LocalDateTime.now())
+                .profile(profile).roles(roles).build();
+        userRepository.save(user);
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    @Test
+    void loginReadsTheUserAndItsRolesInOneStatement() {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        LoginResponseDTO response = login();
+
+        assertNotNull(response.jwt());
+        assertNotNull(response.refreshToken());
+        assertEquals(2, statistics.getPrepareStatementCount());
+        assertEquals(0, statistics.getEntityUpdateCount());
+        assertEquals(1, statistics.getEntityInsertCount());
+    }
+
+    @Test
+    void loginBypassesTheSecondLevelCache() {
+        login();
+        entityManager.clear();
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        LoginResponseDTO response = login();
+
+        assertNotNull(response.jwt());
+        assertEquals(2, statistics.getPrepareStatementCount());
+        assertEquals(0, statistics.getNaturalIdCacheHitCount());
+        assertEquals(0, statistics.getSecondLevelCacheHitCount());
+    }
+
+    @Test
+    void loginSeesAUserDisabledByAnotherInstance() {
+        login();
+        entityManager.clear();
+        // a write made by another instance leaves this instance's second-level cache untouched
+        new JdbcTemplate(dataSource).update("update user set enabled = false where username = ?", "statement-count");
+
+        CompletionException exception = assertThrows(CompletionException.class, this::login);
+        assertInstanceOf(UserNotEnabledException.class, exception.getCause());
+    }
+
+    private LoginResponseDTO login() {
+        LoginResponseDTO response = authenticationService.authenticate(new LoginRequestDTO("statement-count", "Password1"),
+                new LoginClientDTO("127.0.0.1", "JUnit")).join();
+        entityManager.flush();
+        return response;
+    }
+
+    @TestConfiguration
+    static class TestBeans {
+
+        @Bean
+        PasswordEncoder passwordEncoder() {
+            return new BCryptPasswordEncoder(4);
+        }
+
+        @Bean
+        RoleCatalog roleCatalog(RoleRepository roleRepository) {
+            return new RoleCatalog(roleRepository);
+        }
+    }
+}
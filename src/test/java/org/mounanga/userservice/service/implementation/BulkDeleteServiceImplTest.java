@@ -0,0 +1,127 @@
+package org.mounanga.userservice.service.implementation;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mounanga.userservice.configuration.ApplicationProperties;
+import org.mounanga.userservice.dto.BulkDeleteReportDTO;
+import org.mounanga.userservice.entity.Role;
+import org.mounanga.userservice.repository.*;
+import org.mounanga.userservice.service.TokenRevocationService;
+import org.mounanga.userservice.util.implementation.RoleCatalog;
+import org.mounanga.userservice.util.implementation.UserSearchIndex;
+import org.mounanga.userservice.util.implementation.UserSuggestionIndex;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@SpringBootTest
+class BulkDeleteServiceImplTest {
+
+    @Mock
+    private UserRepository userRepository;
+
+    @Mock
+    private ProfileRepository profileRepository;
+
+    @Mock
+    private RoleRepository roleRepository;
+
+    @Mock
+    private LoginDeviceRepository loginDeviceRepository;
+
+    @Mock
+    private VerificationRepository verificationRepository;
+
+    @Mock
+    private TokenRevocationService tokenRevocationService;
+
+    @Mock
+    private UserSearchIndex userSearchIndex;
+
+    @Mock
+    private UserSuggestionIndex userSuggestionIndex;
+
+    @Mock
+    private RoleCatalog roleCatalog;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @Mock
+    private ApplicationProperties properties;
+
+    @InjectMocks
+    private BulkDeleteServiceImpl bulkDeleteService;
+
+    @BeforeEach
+    void setUp() {
+        when(transactionManager.getTransaction(any())).thenReturn(new SimpleTransactionStatus());
+        when(properties.getBulkDeleteChunkSize()).thenReturn(2);
+        bulkDeleteService = new BulkDeleteServiceImpl(userRepository, profileRepository, roleRepository, loginDeviceRepository,
+                verificationRepository, tokenRevocationService, userSearchIndex, userSuggestionIndex, roleCatalog,
+                transactionManager, properties);
+    }
+
+    @Test
+    void deleteUsersRunsOneTransactionPerChunk() {
+        when(userRepository.findDeletableIds(List.of("id1", "id2"), Role.SUPER_ADMIN_ROLES)).thenReturn(List.of("id1", "id2"));
+        when(userRepository.findDeletableIds(List.of("id3"), Role.SUPER_ADMIN_ROLES)).thenReturn(List.of("id3"));
+        when(userRepository.findProfileIdsByIdIn(anyCollection())).thenReturn(List.of("profile"));
+
+        BulkDeleteReportDTO report = bulkDeleteService.deleteUsers(List.of("id1", "id2", "id3"));
+
+        assertEquals(new BulkDeleteReportDTO(3, 3, 0, 2, report.durationMillis()), report);
+        verify(transactionManager, times(2)).commit(any());
+        verify(tokenRevocationService).revokeUsers(List.of("id1", "id2"));
+        verify(userRepository).deleteRoleLinksByUserIdIn(List.of("id1", "id2"));
+        verify(verificationRepository).deleteByUserIdIn(List.of("id3"));
+        verify(loginDeviceRepository).deleteByUserIdIn(List.of("id3"));
+        verify(userRepository).deleteByIdIn(List.of("id3"));
+        verify(profileRepository, times(2)).deleteByIdIn(List.of("profile"));
+        verify(userSearchIndex).remove("id2");
+        verify(userSuggestionIndex).remove("id3");
+    }
+
+    @Test
+    void deleteUsersSkipsSuperAdminsAndUnknownIds() {
+        when(userRepository.findDeletableIds(List.of("admin", "missing"), Role.SUPER_ADMIN_ROLES)).thenReturn(List.of());
+
+        BulkDeleteReportDTO report = bulkDeleteService.deleteUsers(List.of("admin", "missing"));
+
+        assertEquals(0, report.deleted());
+        assertEquals(2, report.skipped());
+        verify(tokenRevocationService, never()).revokeUsers(anyCollection());
+        verify(userRepository, never()).deleteByIdIn(anyCollection());
+        verifyNoInteractions(userSearchIndex);
+    }
+
+    @Test
+    void deleteRolesKeepsDefaultRolesAndRefreshesTheCatalog() {
+        when(roleRepository.findDeletableIds(List.of(1L, 2L), Role.DEFAULT_ROLES)).thenReturn(List.of(2L));
+
+        BulkDeleteReportDTO report = bulkDeleteService.deleteRoles(List.of(1L, 2L));
+
+        assertEquals(1, report.deleted());
+        assertEquals(1, report.skipped());
+        assertEquals(1, report.chunks());
+        verify(roleRepository).deleteUserLinksByRoleIdIn(List.of(2L));
+        verify(roleRepository).deleteByIdIn(List.of(2L));
+        verify(roleCatalog).refresh();
+    }
+
+    @Test
+    void emptyRequestDeletesNothing() {
+        BulkDeleteReportDTO report = bulkDeleteService.deleteRoles(List.of());
+
+        assertEquals(0, report.chunks());
+        verifyNoInteractions(roleRepository, roleCatalog);
+    }
+}
@@ -0,0 +1,141 @@
+package org.mounanga.userservice.service.implementation;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import jakarta.persistence.EntityManager;
+import org.hibernate.Session;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mounanga.userservice.configuration.ApplicationProperties;
+import org.mounanga.userservice.entity.Profile;
+import org.mounanga.userservice.entity.Role;
+import org.mounanga.userservice.entity.User;
+import org.mounanga.userservice.enums.DataFormat;
+import org.mounanga.userservice.enums.Gender;
+import org.mounanga.userservice.repository.RoleRepository;
+import org.mounanga.userservice.repository.UserRepository;
+import org.mounanga.userservice.util.implementation.RoleCatalog;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+
+import javax.sql.DataSource;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+@DataJpaTest
+@ActiveProfiles("test")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import({ApplicationProperties.class, AuthenticationStatementCountTest.TestBeans.class})
+class ExportServiceImplTest {
+
+    private static final int USERS = 5;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private RoleRepository roleRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private DataSource dataSource;
+
+    private final ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules()
+            .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+
+    private ExportServiceImpl exportService;
+
+    @BeforeEach
+    void setUp() {
+        ApplicationProperties properties = mock(ApplicationProperties.class);
+        when(properties.getExportFetchSize()).thenReturn(2);
+        exportService = new ExportServiceImpl(dataSource, new RoleCatalog(roleRepository), objectMapper, properties);
+
+        Role reader = roleRepository.save(Role.builder().name("READER").description("reader role").build());
+        Role writer = roleRepository.save(Role.builder().name("WRITER").description("writer role").build());
+        for (int i = 0; i < USERS; i++) {
+            Profile profile = Profile.builder().gender(Gender.F).firstname("first" + i).lastname("last" + i).nationality("world")
+                    .birthday(LocalDate.of(1990, 1, 1)).pin("export-pin-" + i).placeOfBirth("world").build();
+            List<Role> roles = new ArrayList<>();
+            roles.add(reader);
+            if (i % 2 == 0) {
+                roles.add(writer);
+            }
+            userRepository.save(User.builder().username("export-" + i).email("export-" + i + "@example.com").password("password")
+                    .enabled(true).lastLogin(LocalDateTime.now()).profile(profile).roles(roles).build());
+        }
+        userRepository.save(User.builder().username("no-profile").email("no-profile@example.com").password("password")
+                .enabled(false).lastLogin(LocalDateTime.now()).roles(new ArrayList<>()).build());
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    @Test
+    void usersAreExportedOncePerUserWithTheirRoles() throws IOException {
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+
+        long count = exportService.exportUsers(DataFormat.NDJSON, false, output);
+
+        List<JsonNode> lines = lines(output.toString(UTF_8));
+        assertEquals(USERS + 1, count);
+        assertEquals(USERS + 1, lines.size());
+        JsonNode first = lines.stream().filter(line -> line.get("username").asText().equals("export-0")).findFirst().orElseThrow();
+        assertEquals(2, first.get("roles").size());
+        assertEquals("1990-01-01", first.get("birthday").asText());
+        assertFalse(first.has("password"));
+        JsonNode withoutProfile = lines.stream().filter(line -> line.get("username").asText().equals("no-profile")).findFirst().orElseThrow();
+        assertTrue(withoutProfile.get("firstname").isNull());
+        assertEquals(0, withoutProfile.get("roles").size());
+        assertEquals(0, entityManager.unwrap(Session.class).getStatistics().getEntityCount());
+    }
+
+    @Test
+    void usersAreExportedAsCsvWithAHeader() throws IOException {
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+
+        exportService.exportUsers(DataFormat.CSV, false, output);
+
+        String[] rows = output.toString(UTF_8).split("\n");
+        assertEquals(USERS + 2, rows.length);
+        assertTrue(rows[0].startsWith("id,username,email,enabled"));
+        assertTrue(rows[0].endsWith(",roles"));
+    }
+
+    @Test
+    void rolesAreExportedGzipped() throws IOException {
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+
+        long count = exportService.exportRoles(DataFormat.NDJSON, true, output);
+
+        try (GZIPInputStream input = new GZIPInputStream(new ByteArrayInputStream(output.toByteArray()))) {
+            List<JsonNode> lines = lines(new String(input.readAllBytes(), UTF_8));
+            assertEquals(count, lines.size());
+            assertTrue(lines.stream().anyMatch(line -> line.get("name").asText().equals("WRITER")));
+        }
+    }
+
+    private List<JsonNode> lines(String content) throws IOException {
+        List<JsonNode> lines = new ArrayList<>();
+        for (String line : content.split("\n")) {
+            lines.add(objectMapper.readTree(line));
+        }
+        return lines;
+    }
+}
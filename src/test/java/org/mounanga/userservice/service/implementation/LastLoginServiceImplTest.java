@@ -0,0 +1,107 @@
+package org.mounanga.userservice.service.implementation;
+
+import jakarta.persistence.Cache;
+import jakarta.persistence.EntityManagerFactory;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mounanga.userservice.entity.User;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.ParameterizedPreparedStatementSetter;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@SpringBootTest
+class LastLoginServiceImplTest {
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @Mock
+    private EntityManagerFactory entityManagerFactory;
+
+    @Mock
+    private Cache cache;
+
+    @InjectMocks
+    private LastLoginServiceImpl lastLoginService;
+
+    @BeforeEach
+    void setUp() {
+        when(entityManagerFactory.getCache()).thenReturn(cache);
+        lastLoginService = new LastLoginServiceImpl(jdbcTemplate, entityManagerFactory);
+    }
+
+    @Test
+    void flushCoalescesLoginsOfTheSameUser() {
+        LocalDateTime first = LocalDateTime.now().minusMinutes(1);
+        LocalDateTime second = LocalDateTime.now();
+        lastLoginService.recordLogin("user1", second);
+        lastLoginService.recordLogin("user1", first);
+        lastLoginService.recordLogin("user2", first);
+
+        int flushed = lastLoginService.flush();
+
+        assertEquals(2, flushed);
+        Collection<Map.Entry<String, LocalDateTime>> batch = captureBatch();
+        assertEquals(2, batch.size());
+        assertTrue(batch.contains(Map.entry("user1", second)));
+        assertTrue(batch.contains(Map.entry("user2", first)));
+    }
+
+    @Test
+    void flushDoesNothingWhenNoLoginIsPending() {
+        assertEquals(0, lastLoginService.flush());
+        verifyNoInteractions(jdbcTemplate);
+    }
+
+    @Test
+    void flushedLoginsAreNotWrittenTwice() {
+        lastLoginService.recordLogin("user1", LocalDateTime.now());
+
+        lastLoginService.flush();
+        int flushed = lastLoginService.flush();
+
+        assertEquals(0, flushed);
+        verify(jdbcTemplate, times(1)).batchUpdate(anyString(), anyCollection(), anyInt(), any(ParameterizedPreparedStatementSetter.class));
+    }
+
+    @Test
+    void failedFlushKeepsLoginsForTheNextAttempt() {
+        lastLoginService.recordLogin("user1", LocalDateTime.now());
+        when(jdbcTemplate.batchUpdate(anyString(), anyCollection(), anyInt(), any(ParameterizedPreparedStatementSetter.class)))
+                .thenThrow(new QueryTimeoutException("timeout"))
+                .thenReturn(new int[][]{{1}});
+
+        assertEquals(0, lastLoginService.flush());
+        assertEquals(1, lastLoginService.flush());
+    }
+
+    @Test
+    void flushEvictsTheCachedUsers() {
+        lastLoginService.recordLogin("user1", LocalDateTime.now());
+        lastLoginService.recordLogin("user2", LocalDateTime.now());
+
+        lastLoginService.flush();
+
+        verify(cache).evict(User.class, "user1");
+        verify(cache).evict(User.class, "user2");
+    }
+
+    @SuppressWarnings("unchecked")
+    private Collection<Map.Entry<String, LocalDateTime>> captureBatch() {
+        ArgumentCaptor<Collection<Map.Entry<String, LocalDateTime>>> captor = ArgumentCaptor.forClass(Collection.class);
+        verify(jdbcTemplate).batchUpdate(eq("update user set last_login = ? where id = ?"), captor.capture(), anyInt(), any(ParameterizedPreparedStatementSetter.class));
+        return captor.getValue();
+    }
+}
@@ -0,0 +1,88 @@
+package org.mounanga.userservice.service.implementation;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mounanga.userservice.configuration.ApplicationProperties;
+import org.mounanga.userservice.entity.Profile;
+import org.mounanga.userservice.entity.User;
+import org.mounanga.userservice.enums.Gender;
+import org.mounanga.userservice.exception.FieldError;
+import org.mounanga.userservice.exception.FieldErrorResponse;
+import org.mounanga.userservice.exception.GlobalExceptionHandler;
+import org.mounanga.userservice.repository.UserRepository;
+import org.mounanga.userservice.util.implementation.UniqueConstraintTranslator;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.sql.DataSource;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// the schema is altered, which commits: the test runs outside of a test transaction and restores the schema itself
+@DataJpaTest
+@ActiveProfiles("test")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import({ApplicationProperties.class, AuthenticationStatementCountTest.TestBeans.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class LegacyUniqueConstraintTest {
+
+    private static final String LEGACY_EMAIL_CONSTRAINT = "UK6dotkott2kjsp8vw4d0m25fb7";
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private DataSource dataSource;
+
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        // a schema created before the constraints were named: the email is guarded by an auto-named constraint only
+        jdbcTemplate.execute("alter table user drop constraint uk_user_email");
+        jdbcTemplate.execute("alter table user add constraint " + LEGACY_EMAIL_CONSTRAINT + " unique (email)");
+        userRepository.save(user("legacy", "legacy@example.com", "legacy-pin"));
+    }
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.update("delete from user where username in ('legacy', 'another')");
+        jdbcTemplate.update("delete from profile where pin in ('legacy-pin', 'another-pin')");
+        jdbcTemplate.execute("alter table user drop constraint " + LEGACY_EMAIL_CONSTRAINT);
+        jdbcTemplate.execute("alter table user add constraint uk_user_email unique (email)");
+    }
+
+    @Test
+    void duplicateOnAnAutoNamedConstraintIsReportedAsAFieldError() {
+        DataIntegrityViolationException exception = assertThrows(DataIntegrityViolationException.class,
+                () -> userRepository.saveAndFlush(user("another", "legacy@example.com", "another-pin")));
+
+        ResponseEntity<?> response = new GlobalExceptionHandler(new UniqueConstraintTranslator(dataSource)).handleException(exception);
+
+        assertEquals(HttpStatus.CONFLICT, response.getStatusCode());
+        FieldErrorResponse body = assertInstanceOf(FieldErrorResponse.class, response.getBody());
+        assertEquals(List.of(new FieldError("email", "Email already exists")), body.fieldErrors());
+    }
+
+    private static User user(String username, String email, String pin) {
+        Profile profile = Profile.builder().gender(Gender.M).firstname(username).lastname("doe").nationality("world")
+                .birthday(LocalDate.now()).pin(pin).placeOfBirth("world").build();
+        return User.builder().username(username).email(email).password("password").enabled(true)
+                .lastLogin(LocalDateTime.now()).profile(profile).roles(new ArrayList<>()).build();
+    }
+}
@@ -0,0 +1,123 @@
+package org.mounanga.userservice.service.implementation;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mounanga.userservice.configuration.ApplicationProperties;
+import org.mounanga.userservice.dto.LoginClientDTO;
+import org.mounanga.userservice.entity.LoginDevice;
+import org.mounanga.userservice.entity.User;
+import org.mounanga.userservice.enums.MailType;
+import org.mounanga.userservice.repository.LoginDeviceRepository;
+import org.mounanga.userservice.util.MailingService;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@SpringBootTest
+class LoginDeviceServiceImplTest {
+
+    private static final LoginClientDTO CLIENT = new LoginClientDTO("192.168.1.20", "Mozilla/5.0");
+
+    @Mock
+    private LoginDeviceRepository loginDeviceRepository;
+
+    @Mock
+    private MailingService mailingService;
+
+    @Mock
+    private ApplicationProperties properties;
+
+    @InjectMocks
+    private LoginDeviceServiceImpl loginDeviceService;
+
+    private User user;
+
+    @BeforeEach
+    void setUp() {
+        loginDeviceService = new LoginDeviceServiceImpl(loginDeviceRepository, mailingService, properties);
+        user = User.builder().id("userId").username("john").email("john@example.com").build();
+    }
+
+    @Test
+    void recordLoginFromKnownDevice() {
+        when(loginDeviceRepository.recordKnownLogin(eq("userId"), anyString(), eq("192.168.1.20"), any())).thenReturn(1);
+
+        assertFalse(loginDeviceService.recordLogin(user, CLIENT, LocalDateTime.now()));
+        verify(loginDeviceRepository, never()).insertIfAbsent(any(), any(), any(), any(), any(), any());
+    }
+
+    @Test
+    void recordLoginFromNewDevice() {
+        when(loginDeviceRepository.recordKnownLogin(eq("userId"), anyString(), anyString(), any())).thenReturn(0);
+        when(loginDeviceRepository.insertIfAbsent(anyString(), eq("userId"), anyString(), eq("Mozilla/5.0"), eq("192.168.1.20"), any())).thenReturn(1);
+
+        assertTrue(loginDeviceService.recordLogin(user, CLIENT, LocalDateTime.now()));
+    }
+
+    @Test
+    void recordLoginWhenAConcurrentLoginRegisteredTheDevice() {
+        when(loginDeviceRepository.recordKnownLogin(eq("userId"), anyString(), anyString(), any())).thenReturn(0, 1);
+        when(loginDeviceRepository.insertIfAbsent(anyString(), anyString(), anyString(), anyString(), anyString(), any())).thenReturn(0);
+
+        assertFalse(loginDeviceService.recordLogin(user, CLIENT, LocalDateTime.now()));
+        verify(loginDeviceRepository, times(2)).recordKnownLogin(eq("userId"), anyString(), anyString(), any());
+    }
+
+    @Test
+    void fingerprintIgnoresTheHostPartOfTheAddress() {
+        String fingerprint = LoginDeviceServiceImpl.fingerprint(CLIENT);
+
+        assertEquals(fingerprint, LoginDeviceServiceImpl.fingerprint(new LoginClientDTO("192.168.1.99", "Mozilla/5.0")));
+        assertNotEquals(fingerprint, LoginDeviceServiceImpl.fingerprint(new LoginClientDTO("192.168.2.20", "Mozilla/5.0")));
+        assertNotEquals(fingerprint, LoginDeviceServiceImpl.fingerprint(new LoginClientDTO("192.168.1.20", "curl/8.0")));
+        assertEquals("2001:db8:0:1:0:0:0:0", LoginDeviceServiceImpl.network("2001:db8:0:1:aa:bb:cc:dd"));
+        assertEquals("not-an-ip", LoginDeviceServiceImpl.network("not-an-ip"));
+    }
+
+    @Test
+    void sendLoginDigestsSendsOneMailPerUser() {
+        LoginDevice laptop = device("laptop", 3);
+        LoginDevice phone = device("phone", 2);
+        when(loginDeviceRepository.findWithPendingLogins()).thenReturn(List.of(laptop, phone));
+
+        loginDeviceService.sendLoginDigests();
+
+        ArgumentCaptor<String> body = ArgumentCaptor.forClass(String.class);
+        verify(mailingService, times(1)).sendMail(eq("john@example.com"), eq(MailType.LOGIN_DIGEST), body.capture());
+        assertTrue(body.getValue().contains("laptop"));
+        assertTrue(body.getValue().contains("phone"));
+        verify(loginDeviceRepository).acknowledgePendingLogins("laptop", 3);
+        verify(loginDeviceRepository).acknowledgePendingLogins("phone", 2);
+    }
+
+    @Test
+    void purgeStaleDevices() {
+        when(properties.getLoginDeviceTtl()).thenReturn(86400000L);
+
+        loginDeviceService.purgeStaleDevices();
+
+        verify(loginDeviceRepository).deleteNotSeenSince(any(LocalDateTime.class));
+    }
+
+    private LoginDevice device(String id, int pendingLogins) {
+        return LoginDevice.builder()
+                .id(id)
+                .user(user)
+                .fingerprint(id)
+                .userAgent(id)
+                .ipAddress("192.168.1.20")
+                .firstSeen(LocalDateTime.now())
+                .lastSeen(LocalDateTime.now())
+                .loginCount(pendingLogins)
+                .pendingLogins(pendingLogins)
+                .build();
+    }
+}
@@ -2,6 +2,7 @@ package org.mounanga.userservice.service.implementation;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.mockito.InOrder;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mounanga.userservice.dto.EmailRequestDTO;
@@ -9,18 +10,26 @@ import org.mounanga.userservice.dto.ResetPasswordRequestDTO;
 import org.mounanga.userservice.entity.Profile;
 import org.mounanga.userservice.entity.User;
 import org.mounanga.userservice.entity.Verification;
+import org.mounanga.userservice.enums.MailType;
 import org.mounanga.userservice.exception.UserNotFoundException;
 import org.mounanga.userservice.exception.VerificationExpiredException;
 import org.mounanga.userservice.exception.VerificationNotFoundException;
 import org.mounanga.userservice.repository.UserRepository;
 import org.mounanga.userservice.repository.VerificationRepository;
+import org.mounanga.userservice.security.PasswordHashingExecutor;
+import org.mounanga.userservice.service.TokenRevocationService;
 import org.mounanga.userservice.util.MailingService;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.transaction.PlatformTransactionManager;
 
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Function;
+import java.util.function.Supplier;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.*;
@@ -37,6 +46,12 @@ class PasswordServiceImplTest {
     private MailingService mailingService;
     @Mock
     private PasswordEncoder passwordEncoder;
+    @Mock
+    private PasswordHashingExecutor passwordHashingExecutor;
+    @Mock
+    private TokenRevocationService tokenRevocationService;
+    @Mock
+    private PlatformTransactionManager transactionManager;
 
     @InjectMocks
     private PasswordServiceImpl passwordService;
@@ -47,7 +62,10 @@ class PasswordServiceImplTest {
 
     @BeforeEach
     public void setUp() {
-        passwordService = new PasswordServiceImpl(verificationRepository, userRepository, mailingService, passwordEncoder);
+        when(passwordHashingExecutor.submit(any(), any())).thenAnswer(invocation -> CompletableFuture
+                .completedFuture(invocation.getArgument(0, Supplier.class).get())
+                .thenApply(invocation.getArgument(1, Function.class)));
+        passwordService = new PasswordServiceImpl(verificationRepository, userRepository, mailingService, passwordEncoder, passwordHashingExecutor, tokenRevocationService, transactionManager);
 
         profile = Profile.builder().id("id").firstname("john").lastname("doe").nationality("world").birthday(LocalDate.now())
                 .pin("pin").placeOfBirth("world").createdDate(LocalDateTime.now()).createBy("admin").build();
@@ -57,6 +75,7 @@ class PasswordServiceImplTest {
         user.setEmail("test@example.com");
 
         verification = new Verification();
+        verification.setId("verification-id");
         verification.setUser(user);
         verification.setCode("123456");
         verification.setExpiryDate(LocalDateTime.now().plusMinutes(1));
@@ -86,7 +105,7 @@ class PasswordServiceImplTest {
         verify(verificationRepository).findByEmail(request.email());
         verify(verificationRepository).deleteById(verification.getId());
         verify(verificationRepository).save(any(Verification.class));
-        verify(mailingService).sendMail(eq(user.getEmail()), anyString(), anyString());
+        verify(mailingService).sendMail(eq(user.getEmail()), eq(MailType.PASSWORD_RESET_CODE), anyString());
     }
 
     @Test
@@ -110,7 +129,11 @@ class PasswordServiceImplTest {
         when(verificationRepository.findByEmailAndCode(request.email(), request.code())).thenReturn(Optional.of(existingVerification));
         when(verificationRepository.save(any(Verification.class))).thenReturn(existingVerification);
 
-       assertThrows(VerificationExpiredException.class, () -> passwordService.resetPassword(request));
+        assertThrows(VerificationExpiredException.class, () -> passwordService.resetPassword(request));
+        verify(verificationRepository).deleteById("id");
+        verify(verificationRepository).save(any(Verification.class));
+        verify(transactionManager).commit(any());
+        verifyNoInteractions(passwordHashingExecutor);
     }
 
     @Test
@@ -118,18 +141,40 @@ class PasswordServiceImplTest {
         ResetPasswordRequestDTO request = new ResetPasswordRequestDTO("test@example.com", "123456", "newPass123", "newPass123");
 
         when(verificationRepository.findByEmailAndCode(request.email(), request.code())).thenReturn(Optional.of(verification));
+        when(verificationRepository.findById(verification.getId())).thenReturn(Optional.of(verification));
         when(passwordEncoder.encode(request.password())).thenReturn("encodedPassword");
         when(userRepository.save(user)).thenReturn(user);
         when(verificationRepository.save(any(Verification.class))).thenReturn(verification);
 
-        passwordService.resetPassword(request);
-
-        verify(verificationRepository).findByEmailAndCode(request.email(), request.code());
-        verify(userRepository).save(user);
-        verify(mailingService).sendMail(eq(user.getEmail()), anyString(), anyString());
+        passwordService.resetPassword(request).join();
+
+        InOrder inOrder = inOrder(verificationRepository, transactionManager, passwordHashingExecutor, userRepository);
+        inOrder.verify(verificationRepository).findByEmailAndCode(request.email(), request.code());
+        inOrder.verify(transactionManager).commit(any());
+        inOrder.verify(passwordHashingExecutor).submit(any(), any());
+        inOrder.verify(transactionManager).getTransaction(any());
+        inOrder.verify(userRepository).save(user);
+        inOrder.verify(transactionManager).commit(any());
+        assertEquals("encodedPassword", user.getPassword());
+        verify(tokenRevocationService).revokeUser(user);
+        verify(mailingService).sendMail(eq(user.getEmail()), eq(MailType.PASSWORD_CHANGED), anyString());
         verify(verificationRepository).deleteById(verification.getId());
     }
 
+    @Test
+    void testResetPasswordWithACodeUsedWhileHashing() {
+        ResetPasswordRequestDTO request = new ResetPasswordRequestDTO("test@example.com", "123456", "newPass123", "newPass123");
+
+        when(verificationRepository.findByEmailAndCode(request.email(), request.code())).thenReturn(Optional.of(verification));
+        when(verificationRepository.findById(verification.getId())).thenReturn(Optional.empty());
+
+        CompletionException exception = assertThrows(CompletionException.class, () -> passwordService.resetPassword(request).join());
+
+        assertInstanceOf(VerificationNotFoundException.class, exception.getCause());
+        verify(userRepository, never()).save(any(User.class));
+        verify(transactionManager).rollback(any());
+    }
+
     @Test
     void testResetPasswordPasswordsDoNotMatch() {
         ResetPasswordRequestDTO request = new ResetPasswordRequestDTO("test@example.com", "123456", "newPass", "differentPass");
@@ -138,6 +183,7 @@ class PasswordServiceImplTest {
 
         assertThrows(IllegalArgumentException.class, () -> passwordService.resetPassword(request));
         verify(verificationRepository).findByEmailAndCode(request.email(), request.code());
+        verifyNoInteractions(passwordHashingExecutor);
     }
 
     @Test
@@ -150,6 +196,7 @@ class PasswordServiceImplTest {
         // Assuming isValidPassword is accessible, we could mock it if it was public or part of another service.
         assertThrows(IllegalArgumentException.class, () -> passwordService.resetPassword(request));
         verify(verificationRepository).findByEmailAndCode(request.email(), request.code());
+        verifyNoInteractions(passwordHashingExecutor);
     }
 
 }
\ No newline at end of file
@@ -0,0 +1,109 @@
+package org.mounanga.userservice.service.implementation;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mounanga.userservice.configuration.ApplicationProperties;
+import org.mounanga.userservice.entity.RefreshToken;
+import org.mounanga.userservice.entity.User;
+import org.mounanga.userservice.exception.RefreshTokenNotValidException;
+import org.mounanga.userservice.repository.RefreshTokenRepository;
+import org.mounanga.userservice.repository.UserRepository;
+import org.mounanga.userservice.util.TokenHasher;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+
+@DataJpaTest
+@ActiveProfiles("test")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import({ApplicationProperties.class, AuthenticationStatementCountTest.TestBeans.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class RefreshTokenConcurrencyTest {
+
+    private static final int CONCURRENT_REFRESHES = 8;
+
+    @Autowired
+    private RefreshTokenRepository refreshTokenRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private RefreshTokenServiceImpl refreshTokenService;
+
+    private TransactionTemplate transactionTemplate;
+
+    private User user;
+
+    @BeforeEach
+    void setUp() {
+        refreshTokenService = new RefreshTokenServiceImpl(refreshTokenRepository, mock(ApplicationProperties.class));
+        transactionTemplate = new TransactionTemplate(transactionManager);
+        user = userRepository.save(User.builder().username("refresher").email("refresher@example.com").password("password")
+                .enabled(true).lastLogin(LocalDateTime.now()).roles(new ArrayList<>()).build());
+        refreshTokenRepository.save(RefreshToken.builder().tokenHash(TokenHasher.sha256("value")).family("family")
+                .createdDate(LocalDateTime.now()).expiryDate(LocalDateTime.now().plusMinutes(1)).revoked(false).user(user).build());
+    }
+
+    @AfterEach
+    void tearDown() {
+        refreshTokenRepository.deleteAll();
+        userRepository.delete(user);
+    }
+
+    @Test
+    void onlyOneOfConcurrentRefreshesWithTheSameTokenSucceeds() throws InterruptedException {
+        ExecutorService executor = Executors.newFixedThreadPool(CONCURRENT_REFRESHES);
+        CountDownLatch start = new CountDownLatch(1);
+        AtomicInteger succeeded = new AtomicInteger();
+        AtomicInteger rejected = new AtomicInteger();
+        for (int i = 0; i < CONCURRENT_REFRESHES; i++) {
+            executor.submit(() -> {
+                start.await();
+                try {
+                    transactionTemplate.executeWithoutResult(status -> refreshTokenService.consumeRefreshToken("value"));
+                    succeeded.incrementAndGet();
+                } catch (RuntimeException e) {
+                    // rejected as a reuse, or aborted by the database while waiting for the row lock
+                    rejected.incrementAndGet();
+                }
+                return null;
+            });
+        }
+        start.countDown();
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(30, TimeUnit.SECONDS));
+
+        assertEquals(1, succeeded.get());
+        assertEquals(CONCURRENT_REFRESHES - 1, rejected.get());
+        assertTrue(refreshTokenRepository.findByTokenHash(TokenHasher.sha256("value")).orElseThrow().isRevoked());
+    }
+
+    @Test
+    void aConsumedTokenCannotBeConsumedAgain() {
+        transactionTemplate.executeWithoutResult(status -> refreshTokenService.consumeRefreshToken("value"));
+
+        assertThrows(RefreshTokenNotValidException.class,
+                () -> transactionTemplate.executeWithoutResult(status -> refreshTokenService.consumeRefreshToken("value")));
+    }
+}
@@ -0,0 +1,112 @@
+package org.mounanga.userservice.service.implementation;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mounanga.userservice.configuration.ApplicationProperties;
+import org.mounanga.userservice.entity.RefreshToken;
+import org.mounanga.userservice.entity.User;
+import org.mounanga.userservice.exception.RefreshTokenNotValidException;
+import org.mounanga.userservice.repository.RefreshTokenRepository;
+import org.mounanga.userservice.util.TokenHasher;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+@SpringBootTest
+class RefreshTokenServiceImplTest {
+
+    @Mock
+    private RefreshTokenRepository refreshTokenRepository;
+
+    @Mock
+    private ApplicationProperties properties;
+
+    @InjectMocks
+    private RefreshTokenServiceImpl refreshTokenService;
+
+    private User user;
+
+    @BeforeEach
+    void setUp() {
+        refreshTokenService = new RefreshTokenServiceImpl(refreshTokenRepository, properties);
+        user = User.builder().id("userId").username("testUser").enabled(true).build();
+    }
+
+    @Test
+    void createRefreshTokenStoresOnlyTheHash() {
+        when(properties.getRefreshTokenExpiration()).thenReturn(60000L);
+
+        String value = refreshTokenService.createRefreshToken(user);
+
+        ArgumentCaptor<RefreshToken> captor = ArgumentCaptor.forClass(RefreshToken.class);
+        verify(refreshTokenRepository).save(captor.capture());
+        RefreshToken saved = captor.getValue();
+        assertNotNull(value);
+        assertNotEquals(value, saved.getTokenHash());
+        assertEquals(TokenHasher.sha256(value), saved.getTokenHash());
+        assertNotNull(saved.getFamily());
+        assertFalse(saved.isRevoked());
+        assertEquals(user, saved.getUser());
+    }
+
+    @Test
+    void consumeRefreshTokenSuccess() {
+        RefreshToken token = RefreshToken.builder().family("family").user(user)
+                .expiryDate(LocalDateTime.now().plusMinutes(1)).build();
+        when(refreshTokenRepository.findByTokenHash(TokenHasher.sha256("value"))).thenReturn(Optional.of(token));
+        when(refreshTokenRepository.revokeIfActive(token.getId())).thenReturn(1);
+
+        RefreshToken consumed = refreshTokenService.consumeRefreshToken("value");
+
+        assertTrue(consumed.isRevoked());
+        assertEquals(user, consumed.getUser());
+    }
+
+    @Test
+    void consumeRefreshTokenThrowsWhenUnknown() {
+        when(refreshTokenRepository.findByTokenHash(anyString())).thenReturn(Optional.empty());
+
+        assertThrows(RefreshTokenNotValidException.class, () -> refreshTokenService.consumeRefreshToken("value"));
+    }
+
+    @Test
+    void consumeRefreshTokenThrowsWhenExpired() {
+        RefreshToken token = RefreshToken.builder().family("family").user(user)
+                .expiryDate(LocalDateTime.now().minusMinutes(1)).build();
+        when(refreshTokenRepository.findByTokenHash(anyString())).thenReturn(Optional.of(token));
+
+        assertThrows(RefreshTokenNotValidException.class, () -> refreshTokenService.consumeRefreshToken("value"));
+        verify(refreshTokenRepository).delete(token);
+    }
+
+    @Test
+    void consumeRefreshTokenRevokesFamilyWhenReused() {
+        RefreshToken token = RefreshToken.builder().family("family").user(user).revoked(true)
+                .expiryDate(LocalDateTime.now().plusMinutes(1)).build();
+        when(refreshTokenRepository.findByTokenHash(anyString())).thenReturn(Optional.of(token));
+
+        assertThrows(RefreshTokenNotValidException.class, () -> refreshTokenService.consumeRefreshToken("value"));
+        verify(refreshTokenRepository).revokeFamily("family");
+        verify(refreshTokenRepository, never()).save(any(RefreshToken.class));
+    }
+
+    @Test
+    void consumeRefreshTokenRevokesFamilyWhenRevokedConcurrently() {
+        RefreshToken token = RefreshToken.builder().id("id").family("family").user(user)
+                .expiryDate(LocalDateTime.now().plusMinutes(1)).build();
+        when(refreshTokenRepository.findByTokenHash(anyString())).thenReturn(Optional.of(token));
+        when(refreshTokenRepository.revokeIfActive("id")).thenReturn(0);
+
+        assertThrows(RefreshTokenNotValidException.class, () -> refreshTokenService.consumeRefreshToken("value"));
+        verify(refreshTokenRepository).revokeFamily("family");
+    }
+}
@@ -4,11 +4,15 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mounanga.userservice.dto.PageModel;
 import org.mounanga.userservice.dto.RoleDTO;
+import org.mounanga.userservice.dto.SliceModel;
 import org.mounanga.userservice.entity.Role;
 import org.mounanga.userservice.exception.ResourceAlreadyExistException;
 import org.mounanga.userservice.exception.RoleNotFoundException;
 import org.mounanga.userservice.repository.RoleRepository;
+import org.mounanga.userservice.util.CursorCodec;
+import org.mounanga.userservice.util.implementation.RoleCatalog;
 import org.springframework.boot.test.context.SpringBootTest;
 
 import java.util.List;
@@ -27,12 +31,15 @@ class RoleServiceImplTest {
     @InjectMocks
     private RoleServiceImpl roleService;
 
+    private RoleCatalog roleCatalog;
+
     private Role role;
     private RoleDTO roleDTO;
 
     @BeforeEach
     void setUp() {
-        roleService = new RoleServiceImpl(roleRepository);
+        roleCatalog = new RoleCatalog(roleRepository);
+        roleService = new RoleServiceImpl(roleRepository, roleCatalog);
         role = new Role();
         role.setId(1L);
         role.setName("ADMIN");
@@ -100,7 +107,7 @@ class RoleServiceImplTest {
 
     @Test
     void getRoleByIdRoleNotFoundThrowsRoleNotFoundException() {
-        when(roleRepository.findById(1L)).thenReturn(Optional.empty());
+        when(roleRepository.findCatalog()).thenReturn(List.of());
 
         RoleNotFoundException exception = assertThrows(RoleNotFoundException.class, () -> roleService.getRoleById(1L));
 
@@ -109,12 +116,14 @@ class RoleServiceImplTest {
 
     @Test
     void getRoleByIdSuccess() {
-        when(roleRepository.findById(1L)).thenReturn(Optional.of(role));
+        when(roleRepository.findCatalog()).thenReturn(List.of(new RoleDTO(1L, "ADMIN", "administrator")));
 
         RoleDTO result = roleService.getRoleById(1L);
+        roleService.getRoleById(1L);
 
         assertNotNull(result);
         assertEquals("ADMIN", result.name());
+        verify(roleRepository, times(1)).findCatalog();
     }
 
     @Test
@@ -134,15 +143,68 @@ class RoleServiceImplTest {
         roleService.deleteRoleById(1L);
 
         verify(roleRepository, times(1)).delete(role);
+        verify(roleRepository, times(1)).findCatalog();
+    }
+
+    @Test
+    void getAllRolesAfterCursorReturnsNextCursorWhenMoreRows() {
+        List<RoleDTO> roles = List.of(
+                new RoleDTO(1L, "ADMIN", "administrator"),
+                new RoleDTO(2L, "USER", "user"),
+                new RoleDTO(3L, "OTHER", "other"));
+        when(roleRepository.findCatalog()).thenReturn(roles);
+
+        SliceModel<RoleDTO> slice = roleService.getAllRoles("", 2);
+
+        assertTrue(slice.isHasNext());
+        assertEquals(2, slice.getNumberOfElements());
+        assertEquals(2L, CursorCodec.decodeId(slice.getNextCursor()));
+    }
+
+    @Test
+    void getAllRolesAfterCursorSeeksPastLastId() {
+        String cursor = CursorCodec.encode(2L);
+        when(roleRepository.findCatalog()).thenReturn(List.of(
+                new RoleDTO(1L, "ADMIN", "administrator"),
+                new RoleDTO(2L, "USER", "user"),
+                new RoleDTO(3L, "OTHER", "other")));
+
+        SliceModel<RoleDTO> slice = roleService.getAllRoles(cursor, 2);
+
+        assertFalse(slice.isHasNext());
+        assertNull(slice.getNextCursor());
+        assertEquals(1, slice.getNumberOfElements());
+    }
+
+    @Test
+    void getAllRolesWithInvalidCursorThrowsIllegalArgumentException() {
+        assertThrows(IllegalArgumentException.class, () -> roleService.getAllRoles("not-a-cursor!", 2));
+    }
+
+    @Test
+    void getAllRolesPagesTheCatalog() {
+        when(roleRepository.findCatalog()).thenReturn(List.of(
+                new RoleDTO(3L, "OTHER", "other"),
+                new RoleDTO(1L, "ADMIN", "administrator"),
+                new RoleDTO(2L, "USER", "user")));
+
+        PageModel<RoleDTO> page = roleService.getAllRoles(1, 2);
+
+        assertEquals(3, page.getTotalElements());
+        assertEquals(1, page.getContent().size());
+        assertEquals(3L, page.getContent().getFirst().id());
     }
 
     @Test
-    void deleteAllRolesByIdsSuccess() {
-        List<Long> ids = List.of(1L, 2L, 3L);
-        when(roleRepository.findAllById(ids)).thenReturn(List.of(role));
+    void searchRolesMatchesNameOrDescriptionIgnoringCase() {
+        when(roleRepository.findCatalog()).thenReturn(List.of(
+                new RoleDTO(1L, "ADMIN", "administrator"),
+                new RoleDTO(2L, "USER", "the default role"),
+                new RoleDTO(3L, "OTHER", "another admin role")));
 
-        roleService.deleteAllRolesByIds(ids);
+        PageModel<RoleDTO> page = roleService.searchRoles("Admin", 0, 10);
 
-        verify(roleRepository, times(1)).deleteAll(anyList());
+        assertEquals(2, page.getTotalElements());
+        assertEquals(List.of(1L, 3L), page.getContent().stream().map(RoleDTO::id).toList());
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,82 @@
+package org.mounanga.userservice.service.implementation;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mounanga.userservice.configuration.ApplicationProperties;
+import org.mounanga.userservice.entity.TokenRevocation;
+import org.mounanga.userservice.entity.User;
+import org.mounanga.userservice.enums.RevocationType;
+import org.mounanga.userservice.repository.RefreshTokenRepository;
+import org.mounanga.userservice.repository.TokenRevocationRepository;
+import org.mounanga.userservice.security.TokenRevocationRegistry;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.time.Instant;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@SpringBootTest
+class TokenRevocationServiceImplTest {
+
+    @Mock
+    private TokenRevocationRepository tokenRevocationRepository;
+
+    @Mock
+    private RefreshTokenRepository refreshTokenRepository;
+
+    @Mock
+    private TokenRevocationRegistry tokenRevocationRegistry;
+
+    @Mock
+    private ApplicationProperties properties;
+
+    @InjectMocks
+    private TokenRevocationServiceImpl tokenRevocationService;
+
+    @BeforeEach
+    void setUp() {
+        tokenRevocationService = new TokenRevocationServiceImpl(tokenRevocationRepository, refreshTokenRepository, tokenRevocationRegistry, properties);
+        when(tokenRevocationRepository.save(any(TokenRevocation.class))).thenAnswer(invocation -> invocation.getArgument(0));
+    }
+
+    @Test
+    void revokeToken() {
+        tokenRevocationService.revokeToken("jti", Instant.now().plusSeconds(60));
+
+        ArgumentCaptor<TokenRevocation> captor = ArgumentCaptor.forClass(TokenRevocation.class);
+        verify(tokenRevocationRepository).save(captor.capture());
+        assertEquals(RevocationType.TOKEN, captor.getValue().getType());
+        assertEquals("jti", captor.getValue().getSubject());
+        verify(tokenRevocationRegistry).register(captor.getValue());
+    }
+
+    @Test
+    void revokeUser() {
+        User user = User.builder().id("userId").username("testUser").build();
+        when(properties.getJwtExpiration()).thenReturn(60000L);
+
+        tokenRevocationService.revokeUser(user);
+
+        ArgumentCaptor<TokenRevocation> captor = ArgumentCaptor.forClass(TokenRevocation.class);
+        verify(tokenRevocationRepository).save(captor.capture());
+        TokenRevocation revocation = captor.getValue();
+        assertEquals(RevocationType.USER, revocation.getType());
+        assertEquals("testUser", revocation.getSubject());
+        assertTrue(revocation.getExpiryDate().isAfter(revocation.getRevokedAt()));
+        verify(refreshTokenRepository).deleteByUserId("userId");
+        verify(tokenRevocationRegistry).register(revocation);
+    }
+
+    @Test
+    void purgeExpiredRevocations() {
+        tokenRevocationService.purgeExpiredRevocations();
+
+        verify(tokenRevocationRepository).deleteExpiredBefore(any());
+        verify(tokenRevocationRegistry).rebuild();
+    }
+}
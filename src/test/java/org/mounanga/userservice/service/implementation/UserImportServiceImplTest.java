@@ -0,0 +1,170 @@
+package org.mounanga.userservice.service.implementation;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.validation.Validation;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mounanga.userservice.configuration.ApplicationProperties;
+import org.mounanga.userservice.dto.SearchableUserDTO;
+import org.mounanga.userservice.dto.UserImportSummaryDTO;
+import org.mounanga.userservice.entity.Profile;
+import org.mounanga.userservice.entity.User;
+import org.mounanga.userservice.enums.DataFormat;
+import org.mounanga.userservice.enums.Gender;
+import org.mounanga.userservice.repository.ProfileRepository;
+import org.mounanga.userservice.repository.UserRepository;
+import org.mounanga.userservice.security.PasswordHashingExecutor;
+import org.mounanga.userservice.util.implementation.AvailabilityFilter;
+import org.mounanga.userservice.util.implementation.UserSearchIndex;
+import org.mounanga.userservice.util.implementation.UserSuggestionIndex;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import javax.sql.DataSource;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@DataJpaTest
+@ActiveProfiles("test")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import({ApplicationProperties.class, AuthenticationStatementCountTest.TestBeans.class})
+class UserImportServiceImplTest {
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private ProfileRepository profileRepository;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private final ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+
+    private final PasswordEncoder passwordEncoder = new BCryptPasswordEncoder(4);
+
+    private UserSearchIndex userSearchIndex;
+
+    private UserImportServiceImpl userImportService;
+
+    @BeforeEach
+    void setUp() {
+        ApplicationProperties properties = mock(ApplicationProperties.class);
+        when(properties.getImportBatchSize()).thenReturn(2);
+        when(properties.getImportHashingConcurrency()).thenReturn(2);
+        PasswordHashingExecutor passwordHashingExecutor = mock(PasswordHashingExecutor.class);
+        when(passwordHashingExecutor.run(any())).thenAnswer(invocation -> {
+            invocation.getArgument(0, Runnable.class).run();
+            return CompletableFuture.completedFuture(null);
+        });
+        userSearchIndex = mock(UserSearchIndex.class);
+        userImportService = new UserImportServiceImpl(userRepository, profileRepository, new JdbcTemplate(dataSource),
+                passwordEncoder, passwordHashingExecutor, Validation.buildDefaultValidatorFactory().getValidator(),
+                objectMapper, () -> Optional.of("importer"), userSearchIndex, mock(UserSuggestionIndex.class), mock(AvailabilityFilter.class),
+                transactionManager, properties);
+
+        Profile profile = Profile.builder().gender(Gender.M).firstname("taken").lastname("taken").nationality("world")
+                .birthday(LocalDate.now()).pin("taken-pin").placeOfBirth("world").build();
+        userRepository.save(User.builder().username("taken").email("taken@example.com").password("password")
+                .enabled(true).lastLogin(LocalDateTime.now()).profile(profile).roles(new ArrayList<>()).build());
+    }
+
+    @Test
+    void importsNdjsonRowsAndReportsEachOne() throws IOException {
+        String input = String.join("\n",
+                row("alice", "alice@example.com", "pin-1"),
+                row("alice", "alice2@example.com", "pin-2"),
+                row("bob", "not-an-email", "pin-3"),
+                row("carol", "carol@example.com", "taken-pin"));
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+
+        UserImportSummaryDTO summary = userImportService.importUsers(stream(input), DataFormat.NDJSON, output);
+
+        assertEquals(new UserImportSummaryDTO(4, 1, 3, 0, summary.durationMillis()), summary);
+        List<JsonNode> results = results(output);
+        assertEquals("CREATED", results.get(0).get("status").asText());
+        assertEquals("Username is duplicated in the import", results.get(1).get("errors").get(0).get("message").asText());
+        assertEquals("email", results.get(2).get("errors").get(0).get("field").asText());
+        assertEquals("Pin already exists", results.get(3).get("errors").get(0).get("message").asText());
+
+        User alice = userRepository.findByUsername("alice").orElseThrow();
+        assertEquals(results.get(0).get("id").asText(), alice.getId());
+        assertTrue(passwordEncoder.matches("secret", alice.getPassword()));
+        assertTrue(alice.isPasswordNeedsToBeChanged());
+        assertTrue(alice.isDisabled());
+        assertEquals("importer", alice.getCreateBy());
+        assertEquals("pin-1", alice.getProfile().getPin());
+        verify(userSearchIndex).put(any(SearchableUserDTO.class));
+    }
+
+    @Test
+    void importsCsvWithAHeaderRow() throws IOException {
+        String input = """
+                pin,email,firstname,lastname,birthday,placeOfBirth,gender,nationality,username,password
+                csv-pin-1,dave@example.com,dave,doe,1990-01-01,world,M,world,dave,secret
+                csv-pin-2,erin@example.com,erin,doe,1991-02-02,world,F,world,erin,secret
+                csv-pin-3,frank@example.com,frank,doe,1992-03-03,world,M,world,frank,secret
+                """;
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+
+        UserImportSummaryDTO summary = userImportService.importUsers(stream(input), DataFormat.CSV, output);
+
+        assertEquals(3, summary.created());
+        assertEquals(3, results(output).size());
+        assertEquals(List.of("dave", "erin", "frank"), userRepository.findExistingUsernames(List.of("dave", "erin", "frank", "ghost")).stream().sorted().toList());
+    }
+
+    @Test
+    void malformedInputStopsTheImportAfterTheRowsBeforeIt() throws IOException {
+        String input = row("grace", "grace@example.com", "pin-4") + "\n{\"username\": \"heidi\", \"email\n";
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+
+        UserImportSummaryDTO summary = userImportService.importUsers(stream(input), DataFormat.NDJSON, output);
+
+        assertEquals(2, summary.rows());
+        assertEquals(1, summary.created());
+        assertEquals(1, summary.failed());
+        assertEquals("FAILED", results(output).get(1).get("status").asText());
+    }
+
+    private static String row(String username, String email, String pin) {
+        return """
+                {"pin":"%s","email":"%s","firstname":"%s","lastname":"doe","birthday":"1990-01-01","placeOfBirth":"world","gender":"F","nationality":"world","username":"%s","password":"secret"}"""
+                .formatted(pin, email, username, username);
+    }
+
+    private static ByteArrayInputStream stream(String input) {
+        return new ByteArrayInputStream(input.getBytes(UTF_8));
+    }
+
+    private List<JsonNode> results(ByteArrayOutputStream output) throws IOException {
+        List<JsonNode> results = new ArrayList<>();
+        for (String line : output.toString(UTF_8).split("\n")) {
+            results.add(objectMapper.readTree(line));
+        }
+        return results;
+    }
+}
@@ -0,0 +1,168 @@
+package org.mounanga.userservice.service.implementation;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.Session;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mounanga.userservice.configuration.ApplicationProperties;
+import org.mounanga.userservice.dto.PageModel;
+import org.mounanga.userservice.dto.SliceModel;
+import org.mounanga.userservice.dto.UserResponseDTO;
+import org.mounanga.userservice.entity.Profile;
+import org.mounanga.userservice.entity.Role;
+import org.mounanga.userservice.entity.User;
+import org.mounanga.userservice.enums.Gender;
+import org.mounanga.userservice.repository.LoginDeviceRepository;
+import org.mounanga.userservice.repository.ProfileRepository;
+import org.mounanga.userservice.repository.RoleRepository;
+import org.mounanga.userservice.repository.UserRepository;
+import org.mounanga.userservice.security.PasswordHashingExecutor;
+import org.mounanga.userservice.service.TokenRevocationService;
+import org.mounanga.userservice.util.implementation.AvailabilityFilter;
+import org.mounanga.userservice.util.implementation.RoleCatalog;
+import org.mounanga.userservice.util.implementation.UniqueConstraintTranslator;
+import org.mounanga.userservice.util.implementation.UserSearchIndex;
+import org.mounanga.userservice.util.implementation.UserSuggestionIndex;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+
+@DataJpaTest
+@ActiveProfiles("test")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import({ApplicationProperties.class, AuthenticationStatementCountTest.TestBeans.class})
+class UserListingStatementCountTest {
+
+    private static final int USERS = 60;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private ProfileRepository profileRepository;
+
+    @Autowired
+    private RoleRepository roleRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private UserServiceImpl userService;
+
+    private Statistics statistics;
+
+    private String firstUserId;
+
+    @BeforeEach
+    void setUp() {
+        userService = new UserServiceImpl(userRepository, profileRepository, roleRepository, mock(PasswordEncoder.class),
+                mock(PasswordHashingExecutor.class), mock(TokenRevocationService.class), mock(LoginDeviceRepository.class), mock(UserSearchIndex.class),
+                mock(UserSuggestionIndex.class), mock(AvailabilityFilter.class), mock(RoleCatalog.class), mock(UniqueConstraintTranslator.class), mock(ApplicationProperties.class), mock(PlatformTransactionManager.class));
+
+        Role reader = roleRepository.save(Role.builder().name("READER").description("reader role").build());
+        Role writer = roleRepository.save(Role.builder().name("WRITER").description("writer role").build());
+        LocalDateTime createdDate = LocalDateTime.now().minusDays(1);
+        for (int i = 0; i < USERS; i++) {
+            Profile profile = Profile.builder().gender(Gender.M).firstname("first" + i).lastname("last" + i).nationality("world")
+                    .birthday(LocalDate.now()).pin("listing-pin-" + i).placeOfBirth("world").build();
+            List<Role> roles = new ArrayList<>();
+            roles.add(reader);
+            roles.add(writer);
+            User user = User.builder().username("listing-" + i).email("listing-" + i + "@example.com").password("password")
+                    .enabled(true).lastLogin(LocalDateTime.now()).createdDate(createdDate.plusSeconds(i))
+                    .profile(profile).roles(roles).build();
+            User saved = userRepository.save(user);
+            if (i == 0) {
+                firstUserId = saved.getId();
+            }
+        }
+        entityManager.flush();
+        entityManager.clear();
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @Test
+    void pageOfUsersCostsAConstantNumberOfStatements() {
+        PageModel<UserResponseDTO> small = userService.getAllUsers(0, 10);
+        assertEquals(10, small.getContent().size());
+        assertTrue(small.getContent().stream().noneMatch(user -> user.getRoles().isEmpty()));
+        long smallPageStatements = statistics.getPrepareStatementCount();
+
+        entityManager.clear();
+        statistics.clear();
+        PageModel<UserResponseDTO> large = userService.getAllUsers(0, 50);
+        assertEquals(50, large.getContent().size());
+        assertTrue(large.getContent().stream().noneMatch(user -> user.getRoles().isEmpty()));
+
+        assertEquals(3, smallPageStatements);
+        assertEquals(3, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void pageOfUsersLoadsNoEntity() {
+        PageModel<UserResponseDTO> page = userService.getAllUsers(0, 50);
+
+        assertEquals(50, page.getContent().size());
+        assertEquals(3, statistics.getPrepareStatementCount());
+        assertEquals(0, statistics.getEntityLoadCount());
+        assertEquals(0, statistics.getCollectionLoadCount());
+        assertEquals(0, entityManager.unwrap(Session.class).getStatistics().getEntityCount());
+    }
+
+    @Test
+    void sliceOfUsersSkipsTheCountQuery() {
+        SliceModel<UserResponseDTO> slice = userService.getAllUsers("", 50);
+
+        assertEquals(50, slice.getContent().size());
+        assertTrue(slice.isHasNext());
+        assertEquals(2, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void userDetailIsServedFromTheSecondLevelCacheOnceWarm() {
+        UserResponseDTO cold = userService.getUserById(firstUserId);
+        assertEquals(2, cold.getRoles().size());
+        assertEquals(3, statistics.getPrepareStatementCount());
+
+        entityManager.clear();
+        statistics.clear();
+        UserResponseDTO warm = userService.getUserById(firstUserId);
+
+        assertNotNull(warm.getProfile());
+        assertEquals(2, warm.getRoles().size());
+        assertEquals(0, statistics.getPrepareStatementCount());
+        assertEquals(0, statistics.getSecondLevelCacheMissCount());
+    }
+
+    @Test
+    void userByUsernameUsesTheNaturalIdCache() {
+        userService.getUserByUsername("listing-1");
+        entityManager.clear();
+        statistics.clear();
+
+        UserResponseDTO user = userService.getUserByUsername("listing-1");
+
+        assertEquals("listing-1", user.getUsername());
+        assertEquals(1, statistics.getNaturalIdCacheHitCount());
+        assertEquals(0, statistics.getPrepareStatementCount());
+    }
+}
@@ -0,0 +1,134 @@
+package org.mounanga.userservice.service.implementation;
+
+import jakarta.persistence.EntityManager;
+import lombok.extern.slf4j.Slf4j;
+import org.jetbrains.annotations.NotNull;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.mounanga.userservice.configuration.ApplicationProperties;
+import org.mounanga.userservice.dto.UserResponseDTO;
+import org.mounanga.userservice.dto.UserRowDTO;
+import org.mounanga.userservice.entity.Profile;
+import org.mounanga.userservice.entity.Role;
+import org.mounanga.userservice.entity.User;
+import org.mounanga.userservice.enums.Gender;
+import org.mounanga.userservice.repository.RoleRepository;
+import org.mounanga.userservice.repository.UserRepository;
+import org.mounanga.userservice.util.Mappers;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.lang.management.ManagementFactory;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@Slf4j
+@Tag("benchmark")
+@DataJpaTest
+@ActiveProfiles("test")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import({ApplicationProperties.class, AuthenticationStatementCountTest.TestBeans.class})
+class UserReadBenchmarkTest {
+
+    private static final int USERS = 60;
+    private static final int PAGE_SIZE = 50;
+    private static final int WARMUP = 200;
+    private static final int ITERATIONS = 500;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private RoleRepository roleRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @BeforeEach
+    void setUp() {
+        Role reader = roleRepository.save(Role.builder().name("READER").description("reader role").build());
+        Role writer = roleRepository.save(Role.builder().name("WRITER").description("writer role").build());
+        for (int i = 0; i < USERS; i++) {
+            Profile profile = Profile.builder().gender(Gender.F).firstname("first" + i).lastname("last" + i).nationality("world")
+                    .birthday(LocalDate.now()).pin("benchmark-pin-" + i).placeOfBirth("world").build();
+            List<Role> roles = new ArrayList<>();
+            roles.add(reader);
+            roles.add(writer);
+            userRepository.save(User.builder().username("benchmark-" + i).email("benchmark-" + i + "@example.com")
+                    .password("password").enabled(true).lastLogin(LocalDateTime.now()).profile(profile).roles(roles).build());
+        }
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    // both sides read the same columns in the same order without the count and role queries, so that only
+    // the cost of managed entities against constructor projections is compared
+    @Test
+    void compareManagedEntitiesWithProjections() {
+        Supplier<List<UserResponseDTO>> entities = () -> {
+            List<UserRowDTO> rows = entityManager.createQuery("select u from User u left join fetch u.profile order by u.createdDate, u.id", User.class)
+                    .setMaxResults(PAGE_SIZE)
+                    .getResultList()
+                    .stream()
+                    .map(UserReadBenchmarkTest::toRow)
+                    .toList();
+            entityManager.clear();
+            return Mappers.fromUserRows(rows, List.of());
+        };
+        Supplier<List<UserResponseDTO>> projections = () -> {
+            List<UserRowDTO> rows = userRepository.findFirstSlice(PageRequest.ofSize(PAGE_SIZE));
+            entityManager.clear();
+            return Mappers.fromUserRows(rows, List.of());
+        };
+
+        Measure entityMeasure = measure(entities);
+        Measure projectionMeasure = measure(projections);
+        log.info("managed entities: {} µs/op, {} KiB/op", entityMeasure.micros(), entityMeasure.kibibytes());
+        log.info("DTO projections:  {} µs/op, {} KiB/op", projectionMeasure.micros(), projectionMeasure.kibibytes());
+    }
+
+    private @NotNull Measure measure(Supplier<List<UserResponseDTO>> operation) {
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        for (int i = 0; i < WARMUP; i++) {
+            assertEquals(PAGE_SIZE, operation.get().size());
+        }
+        long threadId = Thread.currentThread().threadId();
+        long allocatedBefore = threads.getThreadAllocatedBytes(threadId);
+        long start = System.nanoTime();
+        for (int i = 0; i < ITERATIONS; i++) {
+            operation.get();
+        }
+        long elapsed = System.nanoTime() - start;
+        long allocated = threads.getThreadAllocatedBytes(threadId) - allocatedBefore;
+        return new Measure(elapsed / ITERATIONS, allocated / ITERATIONS);
+    }
+
+    private static @NotNull UserRowDTO toRow(@NotNull User user) {
+        Profile profile = user.getProfile();
+        return new UserRowDTO(user.getId(), user.getEmail(), user.getUsername(), user.getEnabled(), user.getLastLogin(),
+                user.getCreatedDate(), user.getLastModifiedDate(), user.getCreateBy(), user.getLastModifiedBy(),
+                profile.getId(), profile.getFirstname(), profile.getLastname(), profile.getBirthday(),
+                profile.getPlaceOfBirth(), profile.getGender(), profile.getNationality(), profile.getPin());
+    }
+
+    private record Measure(long nanos, long bytes) {
+
+        long micros() {
+            return nanos / 1_000;
+        }
+
+        long kibibytes() {
+            return bytes / 1_024;
+        }
+    }
+}
@@ -3,34 +3,55 @@ package org.mounanga.userservice.service.implementation;
 import lombok.extern.slf4j.Slf4j;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.mockito.InOrder;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mounanga.userservice.configuration.ApplicationProperties;
 import org.mounanga.userservice.dto.*;
 import org.mounanga.userservice.entity.Profile;
 import org.mounanga.userservice.entity.Role;
 import org.mounanga.userservice.entity.User;
+import org.mounanga.userservice.exception.FieldError;
 import org.mounanga.userservice.exception.FieldValidationException;
 import org.mounanga.userservice.exception.NotAuthorizedException;
+import org.mounanga.userservice.exception.ResourceAlreadyExistException;
 import org.mounanga.userservice.exception.RoleNotFoundException;
 import org.mounanga.userservice.exception.UserNotFoundException;
+import org.mounanga.userservice.repository.LoginDeviceRepository;
 import org.mounanga.userservice.repository.ProfileRepository;
 import org.mounanga.userservice.repository.RoleRepository;
 import org.mounanga.userservice.repository.UserRepository;
+import org.mounanga.userservice.security.PasswordHashingExecutor;
+import org.mounanga.userservice.service.TokenRevocationService;
+import org.mounanga.userservice.util.CursorCodec;
+import org.mounanga.userservice.util.implementation.AvailabilityFilter;
+import org.mounanga.userservice.util.implementation.RoleCatalog;
+import org.mounanga.userservice.util.implementation.UniqueConstraintTranslator;
+import org.mounanga.userservice.util.implementation.UserSearchIndex;
+import org.mounanga.userservice.util.implementation.UserSuggestionIndex;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
 import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.transaction.PlatformTransactionManager;
 
+import javax.sql.DataSource;
+import java.sql.SQLException;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Function;
+import java.util.function.Supplier;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
 @Slf4j
@@ -52,12 +73,50 @@ class UserServiceImplTest {
     @Mock
     private PasswordEncoder passwordEncoder;
 
+    @Mock
+    private PasswordHashingExecutor passwordHashingExecutor;
+
+    @Mock
+    private TokenRevocationService tokenRevocationService;
+
+    @Mock
+    private LoginDeviceRepository loginDeviceRepository;
+
+    @Mock
+    private UserSearchIndex userSearchIndex;
+
+    @Mock
+    private UserSuggestionIndex userSuggestionIndex;
+
+    @Mock
+    private AvailabilityFilter availabilityFilter;
+
+    @Mock
+    private RoleCatalog roleCatalog;
+
+    @Mock
+    private DataSource dataSource;
+
+    @Mock
+    private ApplicationProperties properties;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private UniqueConstraintTranslator uniqueConstraintTranslator;
+
     UserRequestDTO dto;
     Profile profile;
 
     @BeforeEach
-    void setUp() {
-        this.userService = new UserServiceImpl(userRepository, profileRepository, roleRepository, passwordEncoder);
+    void setUp() throws SQLException {
+        // no schema to read: only the named constraints are known
+        when(dataSource.getConnection()).thenThrow(new SQLException("no database"));
+        uniqueConstraintTranslator = new UniqueConstraintTranslator(dataSource);
+        when(passwordHashingExecutor.submit(any(), any())).thenAnswer(invocation -> CompletableFuture
+                .completedFuture(invocation.getArgument(0, Supplier.class).get())
+                .thenApply(invocation.getArgument(1, Function.class)));
+        this.userService = new UserServiceImpl(userRepository, profileRepository, roleRepository, passwordEncoder, passwordHashingExecutor, tokenRevocationService, loginDeviceRepository, userSearchIndex, userSuggestionIndex, availabilityFilter, roleCatalog, uniqueConstraintTranslator, properties, transactionManager);
         dto = UserRequestDTO.builder().firstname("john").lastname("doe").email("johndoe2024@gmail.com").pin("pin")
                 .password("password").nationality("world").birthday(LocalDate.now()).username("johndoe2024")
                 .placeOfBirth("world").build();
@@ -67,15 +126,13 @@ class UserServiceImplTest {
 
     @Test
     void createUser() {
-        when(userRepository.existsByEmail(anyString())).thenReturn(false);
-        when(userRepository.existsByUsername(anyString())).thenReturn(false);
-        when(profileRepository.existsById(anyString())).thenReturn(false);
+        when(userRepository.findConflictingFields(anyString(), anyString(), anyString())).thenReturn(List.of());
         when(passwordEncoder.encode(anyString())).thenReturn("encoded_password");
         when(userRepository.save(any(User.class))).thenReturn(User.builder().email("johndoe2024@gmail.com").id("id")
                 .username("johndoe2024").password("encoded_password").createdDate(LocalDateTime.now()).createBy("admin")
                 .profile(profile).build()
         );
-        UserResponseDTO response = userService.createUser(dto);
+        UserResponseDTO response = userService.createUser(dto).join();
         assertNotNull(response);
         assertNotNull(response.getId());
         assertNotNull(response.getProfile());
@@ -88,14 +145,21 @@ class UserServiceImplTest {
         assertEquals(dto.getUsername(), response.getUsername());
         assertEquals(dto.getGender(), response.getProfile().getGender());
         assertEquals(dto.getEmail(), response.getEmail());
+        InOrder inOrder = inOrder(passwordHashingExecutor, transactionManager, userRepository);
+        inOrder.verify(userRepository).findConflictingFields(dto.getEmail(), dto.getUsername(), dto.getPin());
+        inOrder.verify(passwordHashingExecutor).submit(any(), any());
+        inOrder.verify(transactionManager).getTransaction(any());
+        inOrder.verify(userRepository).save(argThat(user -> "encoded_password".equals(user.getPassword())));
+        inOrder.verify(transactionManager).commit(any());
     }
 
     @Test
     void createUserThrowsFieldValidationException() {
-        when(userRepository.existsByEmail(anyString())).thenReturn(true);
-        when(userRepository.existsByUsername(anyString())).thenReturn(true);
-        when(profileRepository.existsById(anyString())).thenReturn(true);
-        assertThrows(FieldValidationException.class, () -> userService.createUser(dto));
+        when(userRepository.findConflictingFields(anyString(), anyString(), anyString())).thenReturn(List.of("pin", "email", "username"));
+        FieldValidationException exception = assertThrows(FieldValidationException.class, () -> userService.createUser(dto));
+        assertEquals(List.of("email", "username", "pin"), exception.getFieldErrors().stream().map(FieldError::field).toList());
+        verifyNoInteractions(passwordHashingExecutor, transactionManager);
+        verify(userRepository, never()).save(any(User.class));
     }
 
     @Test
@@ -105,8 +169,7 @@ class UserServiceImplTest {
         User existingUser = User.builder().id(id).profile(profile).email("old@email.com").username("old_username").build();
         User updatedUser = User.builder().id(id).profile(profile).email("johndoe2024@gmail.com").username("johndoe2024").build();
         when(userRepository.findById(id)).thenReturn(Optional.of(existingUser));
-        when(userRepository.existsByEmail(anyString())).thenReturn(false);
-        when(userRepository.existsByUsername(anyString())).thenReturn(false);
+        when(userRepository.findConflictingFieldsOfOtherUsers(id, request.email(), request.username())).thenReturn(List.of());
         when(userRepository.save(any(User.class))).thenReturn(updatedUser);
 
         UserResponseDTO response = userService.updateUser(id, request);
@@ -120,7 +183,7 @@ class UserServiceImplTest {
     void updateProfile() {
         when(profileRepository.findById(anyString())).thenReturn(Optional.of(profile));
         when(profileRepository.existsByPin(anyString())).thenReturn(false);
-        when(profileRepository.save(any(Profile.class))).thenReturn( Profile.builder().id("id").firstname("john_old").lastname("doe_old").nationality("world_old")
+        when(profileRepository.saveAndFlush(any(Profile.class))).thenReturn( Profile.builder().id("id").firstname("john_old").lastname("doe_old").nationality("world_old")
                 .birthday(LocalDate.now().minusDays(1)).pin("pin_old").placeOfBirth("world_old").build());
 
         String id = "id";
@@ -135,16 +198,36 @@ class UserServiceImplTest {
         assertNotEquals(response.getNationality(), dto.getNationality());
     }
 
+    @Test
+    void updateProfileThrowsResourceAlreadyExistExceptionWhenPinIsTakenConcurrently() {
+        when(profileRepository.findById(anyString())).thenReturn(Optional.of(profile));
+        when(profileRepository.saveAndFlush(any(Profile.class)))
+                .thenThrow(new DataIntegrityViolationException("Duplicate entry 'pin' for key 'profile.uk_profile_pin'"));
+
+        assertThrows(ResourceAlreadyExistException.class, () -> userService.updateProfile("id", dto));
+    }
+
+    @Test
+    void updateProfileRethrowsOtherIntegrityViolations() {
+        when(profileRepository.findById(anyString())).thenReturn(Optional.of(profile));
+        when(profileRepository.saveAndFlush(any(Profile.class)))
+                .thenThrow(new DataIntegrityViolationException("Column 'firstname' cannot be null"));
+
+        assertThrows(DataIntegrityViolationException.class, () -> userService.updateProfile("id", dto));
+    }
+
     @Test
     void getUserById() {
-        when(userRepository.findById(anyString())).thenReturn(Optional.of(
-                User.builder().email("johndoe2024@gmail.com").id("id").username("johndoe2024").password("encoded_password")
-                        .createdDate(LocalDateTime.now()).createBy("admin").profile(profile).build()
-        ));
+        List<Role> roles = new ArrayList<>();
+        roles.add(Role.builder().name("USER").build());
+        when(userRepository.findById("id")).thenReturn(Optional.of(User.builder().id("id").profile(profile).roles(roles).build()));
         String id = "id";
         UserResponseDTO response = userService.getUserById(id);
         assertNotNull(response);
         assertEquals(id, response.getId());
+        assertEquals("john", response.getProfile().getFirstname());
+        assertEquals(List.of("USER"), response.getRoles());
+        verify(userRepository, never()).findRoleNamesByUserIds(anyList());
     }
 
     @Test
@@ -158,15 +241,19 @@ class UserServiceImplTest {
     void getAllUsers() {
         int page =0;
         int size = 2;
-        List<User> users = new ArrayList<>();
-        users.add(User.builder().profile(profile).id("id1").build());
-        users.add(User.builder().profile(profile).id("id2").build());
-        Page<User> userPage = new PageImpl<>(users);
-        when(userRepository.findAll(any(Pageable.class))).thenReturn(userPage);
+        List<UserRowDTO> rows = new ArrayList<>();
+        rows.add(row("id1", LocalDateTime.now()));
+        rows.add(row("id2", LocalDateTime.now()));
+        Page<UserRowDTO> rowPage = new PageImpl<>(rows);
+        when(userRepository.findAllRows(any(Pageable.class))).thenReturn(rowPage);
+        when(userRepository.findRoleNamesByUserIds(List.of("id1", "id2"))).thenReturn(List.of(
+                new UserRoleNameDTO("id1", "USER"), new UserRoleNameDTO("id1", "ADMIN"), new UserRoleNameDTO("id2", "USER")));
         PageModel<UserResponseDTO> userPageModel = userService.getAllUsers(page,size);
         assertNotNull(userPageModel);
         assertNotNull(userPageModel.getContent());
         assertFalse(userPageModel.getContent().isEmpty());
+        assertEquals(List.of("USER", "ADMIN"), userPageModel.getContent().getFirst().getRoles());
+        assertEquals(List.of("USER"), userPageModel.getContent().getLast().getRoles());
     }
 
     @Test
@@ -174,19 +261,65 @@ class UserServiceImplTest {
         int page =0;
         int size = 2;
         String keyword = "joh";
-        List<User> users = new ArrayList<>();
-        users.add(User.builder().profile(profile).id("id1").build());
-        users.add(User.builder().profile(profile).id("id2").build());
-        Page<User> userPage = new PageImpl<>(users);
-        when(userRepository.search(anyString(),any(Pageable.class))).thenReturn(userPage);
+        List<UserRowDTO> rows = new ArrayList<>();
+        rows.add(row("id1", LocalDateTime.now()));
+        rows.add(row("id2", LocalDateTime.now()));
+        when(userSearchIndex.search(keyword, 0, size)).thenReturn(new UserSearchIndex.Hits(List.of("id2", "id1"), 2));
+        when(userRepository.findRowsByIdIn(List.of("id2", "id1"))).thenReturn(rows);
         PageModel<UserResponseDTO> userPageModel = userService.searchUsers(keyword,page,size);
         assertNotNull(userPageModel);
         assertNotNull(userPageModel.getContent());
         assertFalse(userPageModel.getContent().isEmpty());
+        assertEquals("id2", userPageModel.getContent().getFirst().getId());
+        assertEquals(2, userPageModel.getTotalElements());
         assertTrue(userPageModel.getContent().getFirst().getProfile().getFirstname().contains(keyword) || userPageModel.getContent().getFirst().getProfile().getLastname().contains(keyword));
         assertTrue(userPageModel.getContent().getLast().getProfile().getFirstname().contains(keyword) || userPageModel.getContent().getLast().getProfile().getLastname().contains(keyword));
     }
 
+    @Test
+    void getAllUsersAfterCursor() {
+        LocalDateTime createdDate = LocalDateTime.of(2024, 1, 1, 10, 0);
+        List<UserRowDTO> rows = new ArrayList<>();
+        rows.add(row("id2", createdDate));
+        rows.add(row("id3", createdDate));
+        rows.add(row("id4", createdDate.plusMinutes(1)));
+        when(userRepository.findSliceAfter(eq(createdDate), eq("id1"), any(Pageable.class))).thenReturn(rows);
+        SliceModel<UserResponseDTO> slice = userService.getAllUsers(CursorCodec.encode(createdDate, "id1"), 2);
+        assertTrue(slice.isHasNext());
+        assertEquals(2, slice.getContent().size());
+        assertEquals("id3", CursorCodec.decodeDateId(slice.getNextCursor()).id());
+        assertEquals(createdDate, CursorCodec.decodeDateId(slice.getNextCursor()).createdDate());
+        verify(userRepository, never()).findAllRows(any(Pageable.class));
+    }
+
+    @Test
+    void searchUsersFirstSlice() {
+        when(userSearchIndex.search("joh")).thenReturn(new UserSearchIndex.Hits(List.of("id1"), 1));
+        when(userRepository.findFirstSliceAmong(eq(List.of("id1")), any(Pageable.class))).thenReturn(List.of(row("id1", LocalDateTime.now())));
+        SliceModel<UserResponseDTO> slice = userService.searchUsers("joh", "", 2);
+        assertFalse(slice.isHasNext());
+        assertNull(slice.getNextCursor());
+        assertEquals(1, slice.getNumberOfElements());
+        assertFalse(slice.isTruncated());
+    }
+
+    @Test
+    void searchUsersPageBeyondTheSearchCap() {
+        when(userSearchIndex.search("joh", 2000, 2)).thenReturn(new UserSearchIndex.Hits(List.of("id1"), 2001));
+        when(userRepository.findRowsByIdIn(List.of("id1"))).thenReturn(List.of(row("id1", LocalDateTime.now())));
+        PageModel<UserResponseDTO> userPageModel = userService.searchUsers("joh", 1000, 2);
+        assertEquals(2001, userPageModel.getTotalElements());
+        assertEquals("id1", userPageModel.getContent().getFirst().getId());
+    }
+
+    @Test
+    void searchUsersSliceReportsTruncatedMatches() {
+        when(userSearchIndex.search("joh")).thenReturn(new UserSearchIndex.Hits(List.of("id1"), 5));
+        when(userRepository.findFirstSliceAmong(eq(List.of("id1")), any(Pageable.class))).thenReturn(List.of(row("id1", LocalDateTime.now())));
+        SliceModel<UserResponseDTO> slice = userService.searchUsers("joh", "", 2);
+        assertTrue(slice.isTruncated());
+    }
+
     @Test
     void deleteUserById() {
         String id = "id";
@@ -197,7 +330,19 @@ class UserServiceImplTest {
         when(userRepository.findById(anyString())).thenReturn(Optional.of(existingUser));
 
         userService.deleteUserById(id);
+        verify(tokenRevocationService, times(1)).revokeUser(existingUser);
+        verify(loginDeviceRepository, times(1)).deleteByUserId(id);
         verify(userRepository, times(1)).deleteById(id);
+        verify(userSearchIndex, times(1)).remove(id);
+        verify(userSuggestionIndex, times(1)).remove(id);
+    }
+
+    @Test
+    void suggestUsersCapsTheLimit() {
+        when(properties.getSearchSuggestMaxLimit()).thenReturn(50);
+        when(userSuggestionIndex.suggest("jo", 50)).thenReturn(List.of("id1", "id2"));
+        List<String> ids = userService.suggestUsers("jo", 500);
+        assertEquals(List.of("id1", "id2"), ids);
     }
 
     @Test
@@ -220,33 +365,6 @@ class UserServiceImplTest {
         assertThrows(NotAuthorizedException.class, () -> userService.deleteUserById(id));
     }
 
-    @Test
-    void deleteAllUsersByIds() {
-        List<String> ids = new ArrayList<>();
-        ids.add("id1");
-        ids.add("id2");
-
-        List<Role> roles1 = new ArrayList<>();
-        roles1.add(Role.builder().name("USER").build());
-        roles1.add(Role.builder().name("ADMIN").build());
-        roles1.add(Role.builder().name("SUPER_ADMIN").build());
-
-        List<Role> roles2 = new ArrayList<>();
-        roles2.add(Role.builder().name("USER").build());
-        roles2.add(Role.builder().name("ADMIN").build());
-
-        User existingUser1 = User.builder().id("id1").profile(new Profile()).roles(roles1).build();
-        User existingUser2 = User.builder().id("id2").profile(new Profile()).roles(roles2).build();
-        List<User> users = new ArrayList<>();
-        users.add(existingUser1);
-        users.add(existingUser2);
-
-        when(userRepository.findAllById(anyList())).thenReturn(users);
-        userService.deleteAllUsersByIds(ids);
-        verify(userRepository, times(1)).deleteAllById(ids);
-
-    }
-
     @Test
     void addRoleToUser() {
         // Arrange
@@ -258,7 +376,8 @@ class UserServiceImplTest {
         User updatedUser = User.builder().id("userId").profile(profile).roles(newRoles).build();
 
         when(userRepository.findById(anyString())).thenReturn(Optional.of(existingUser));
-        when(roleRepository.findByName(anyString())).thenReturn(Optional.of(Role.builder().name("ADMIN").build()));
+        when(roleCatalog.findByName(anyString())).thenReturn(Optional.of(new RoleDTO(2L, "ADMIN", "administrator")));
+        when(roleRepository.getReferenceById(2L)).thenReturn(Role.builder().id(2L).name("ADMIN").build());
         when(userRepository.save(any(User.class))).thenReturn(updatedUser);
 
         UserResponseDTO response = userService.addRoleToUser(requestDTO);
@@ -279,7 +398,7 @@ class UserServiceImplTest {
     void addRoleToUserThrowsRoleNotFoundException() {
         UserRoleRequestDTO requestDTO = new UserRoleRequestDTO("ADMIN", "userId");
         when(userRepository.findById(anyString())).thenReturn(Optional.of(User.builder().profile(profile).build()));
-        when(roleRepository.findByName(anyString())).thenReturn(Optional.empty());
+        when(roleCatalog.findByName(anyString())).thenReturn(Optional.empty());
         assertThrows(RoleNotFoundException.class, () -> userService.addRoleToUser(requestDTO));
     }
 
@@ -288,11 +407,12 @@ class UserServiceImplTest {
         UserRoleRequestDTO requestDTO = new UserRoleRequestDTO("SUPER_ADMIN", "userId");
         List<Role> roles = new ArrayList<>();
         roles.add(Role.builder().name("ADMIN").build());
-        Role existingRole = Role.builder().name("SUPER_ADMIN").build();
+        RoleDTO existingRole = new RoleDTO(3L, "SUPER_ADMIN", "super administrator");
 
         when(userRepository.findById(anyString())).thenReturn(Optional.of(User.builder().roles(roles).profile(profile).build()));
-        when(roleRepository.findByName(anyString())).thenReturn(Optional.of(existingRole));
+        when(roleCatalog.findByName(anyString())).thenReturn(Optional.of(existingRole));
         assertThrows(NotAuthorizedException.class, () -> userService.addRoleToUser(requestDTO));
+        verify(roleRepository, never()).getReferenceById(anyLong());
     }
 
     @Test
@@ -306,7 +426,7 @@ class UserServiceImplTest {
         User updatedUser = User.builder().id("userId").profile(profile).roles(newRoles).build();
 
         when(userRepository.findById(anyString())).thenReturn(Optional.of(existingUser));
-        when(roleRepository.findByName(anyString())).thenReturn(Optional.of(Role.builder().name("ADMIN").build()));
+        when(roleCatalog.findByName(anyString())).thenReturn(Optional.of(new RoleDTO(2L, "ADMIN", "administrator")));
         when(userRepository.save(any(User.class))).thenReturn(updatedUser);
 
         UserResponseDTO response = userService.removeRoleFromUser(requestDTO);
@@ -315,6 +435,7 @@ class UserServiceImplTest {
         assertNotNull(response.getRoles());
         assertEquals(1, response.getRoles().size());
         assertEquals("USER", response.getRoles().getFirst());
+        verify(tokenRevocationService).revokeUser(existingUser);
     }
 
     @Test
@@ -342,8 +463,14 @@ class UserServiceImplTest {
         roles.add(Role.builder().name("USER").build());
         User existingUser = User.builder().id("userId").profile(profile).roles(roles).build();
         when(userRepository.findById(anyString())).thenReturn(Optional.of(existingUser));
-        when(roleRepository.findByName(anyString())).thenReturn(Optional.empty());
+        when(roleCatalog.findByName(anyString())).thenReturn(Optional.empty());
         assertThrows(RoleNotFoundException.class, () -> userService.removeRoleFromUser(requestDTO));
     }
 
-}
\ No newline at end of file
+
+    private UserRowDTO row(String id, LocalDateTime createdDate) {
+        return new UserRowDTO(id, id + "@gmail.com", id, true, null, createdDate, null, "admin", null, profile.getId(),
+                profile.getFirstname(), profile.getLastname(), profile.getBirthday(), profile.getPlaceOfBirth(),
+                profile.getGender(), profile.getNationality(), profile.getPin());
+    }
+}
@@ -0,0 +1,175 @@
+package org.mounanga.userservice.service.implementation;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mounanga.userservice.configuration.ApplicationProperties;
+import org.mounanga.userservice.dto.AvailabilityDTO;
+import org.mounanga.userservice.dto.UpdateEmailUsernameDTO;
+import org.mounanga.userservice.dto.UserRequestDTO;
+import org.mounanga.userservice.entity.Profile;
+import org.mounanga.userservice.entity.User;
+import org.mounanga.userservice.enums.Gender;
+import org.mounanga.userservice.exception.FieldError;
+import org.mounanga.userservice.exception.FieldValidationException;
+import org.mounanga.userservice.repository.LoginDeviceRepository;
+import org.mounanga.userservice.repository.ProfileRepository;
+import org.mounanga.userservice.repository.RoleRepository;
+import org.mounanga.userservice.repository.UserRepository;
+import org.mounanga.userservice.security.PasswordHashingExecutor;
+import org.mounanga.userservice.service.TokenRevocationService;
+import org.mounanga.userservice.util.implementation.AvailabilityFilter;
+import org.mounanga.userservice.util.implementation.RoleCatalog;
+import org.mounanga.userservice.util.implementation.UniqueConstraintTranslator;
+import org.mounanga.userservice.util.implementation.UserSearchIndex;
+import org.mounanga.userservice.util.implementation.UserSuggestionIndex;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import javax.sql.DataSource;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+@DataJpaTest
+@ActiveProfiles("test")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import({ApplicationProperties.class, AuthenticationStatementCountTest.TestBeans.class})
+class UserUniquenessTest {
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private ProfileRepository profileRepository;
+
+    @Autowired
+    private RoleRepository roleRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private DataSource dataSource;
+
+    private AvailabilityFilter availabilityFilter;
+
+    private UserServiceImpl userService;
+
+    private Statistics statistics;
+
+    private String takenUserId;
+
+    @BeforeEach
+    void setUp() {
+        ApplicationProperties properties = mock(ApplicationProperties.class);
+        when(properties.getAvailabilityExpectedEntries()).thenReturn(100L);
+        when(properties.getAvailabilityFalsePositiveRate()).thenReturn(0.01);
+        availabilityFilter = new AvailabilityFilter(userRepository, properties);
+        userService = new UserServiceImpl(userRepository, profileRepository, roleRepository, mock(PasswordEncoder.class),
+                mock(PasswordHashingExecutor.class), mock(TokenRevocationService.class), mock(LoginDeviceRepository.class), mock(UserSearchIndex.class),
+                mock(UserSuggestionIndex.class), availabilityFilter, mock(RoleCatalog.class), new UniqueConstraintTranslator(dataSource), properties, mock(PlatformTransactionManager.class));
+        takenUserId = userRepository.save(user("taken", "taken@example.com", "taken-pin")).getId();
+        entityManager.flush();
+        entityManager.clear();
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @Test
+    void allConflictingFieldsAreFoundInOneStatement() {
+        UserRequestDTO dto = UserRequestDTO.builder().username("taken").email("taken@example.com").pin("taken-pin")
+                .firstname("john").lastname("doe").birthday(LocalDate.now()).placeOfBirth("world").gender(Gender.M)
+                .nationality("world").password("password").build();
+
+        FieldValidationException exception = assertThrows(FieldValidationException.class, () -> userService.createUser(dto));
+
+        assertEquals(List.of("email", "username", "pin"), exception.getFieldErrors().stream().map(FieldError::field).toList());
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void valuesTakenSinceTheLastRebuildAreStillRejectedOnCreate() {
+        availabilityFilter.rebuild();
+        // written by another instance: the filter has not learnt it yet
+        userRepository.save(user("late", "late@example.com", "late-pin"));
+        entityManager.flush();
+        statistics.clear();
+        assertFalse(availabilityFilter.mightBeTakenEmail("late@example.com"));
+        UserRequestDTO dto = UserRequestDTO.builder().username("late").email("late@example.com").pin("late-pin")
+                .firstname("john").lastname("doe").birthday(LocalDate.now()).placeOfBirth("world").gender(Gender.M)
+                .nationality("world").password("password").build();
+
+        FieldValidationException exception = assertThrows(FieldValidationException.class, () -> userService.createUser(dto));
+
+        assertEquals(List.of("email", "username", "pin"), exception.getFieldErrors().stream().map(FieldError::field).toList());
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void freeValuesAreReportedWithoutTouchingTheDatabase() {
+        availabilityFilter.rebuild();
+        statistics.clear();
+
+        AvailabilityDTO availability = userService.checkAvailability("free", "free@example.com", "free-pin");
+
+        assertEquals(new AvailabilityDTO(true, true, true), availability);
+        assertEquals(0, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void possiblyTakenValuesAreConfirmedByTheDatabase() {
+        userRepository.save(User.builder().username("no-profile").email("no-profile@example.com").password("password")
+                .enabled(true).lastLogin(LocalDateTime.now()).roles(new ArrayList<>()).build());
+        entityManager.flush();
+        availabilityFilter.rebuild();
+        statistics.clear();
+
+        AvailabilityDTO availability = userService.checkAvailability("taken", "no-profile@example.com", null);
+
+        assertEquals(new AvailabilityDTO(false, false, null), availability);
+        assertEquals(2, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void updateIgnoresTheValuesOfTheUpdatedUser() {
+        userRepository.save(user("other", "other@example.com", "other-pin"));
+        entityManager.flush();
+
+        assertEquals(List.of(), userRepository.findConflictingFieldsOfOtherUsers(takenUserId, "taken@example.com", "taken"));
+        assertEquals(List.of("username"), userRepository.findConflictingFieldsOfOtherUsers(takenUserId, "taken@example.com", "other"));
+    }
+
+    @Test
+    void uniqueConstraintViolationsAreTranslatedToFieldErrors() {
+        DataIntegrityViolationException exception = assertThrows(DataIntegrityViolationException.class,
+                () -> userRepository.saveAndFlush(user("another", "taken@example.com", "another-pin")));
+
+        FieldValidationException translated = new UniqueConstraintTranslator(dataSource).translate(exception).orElseThrow();
+        assertEquals(List.of(new FieldError("email", "Email already exists")), translated.getFieldErrors());
+    }
+
+    private static User user(String username, String email, String pin) {
+        Profile profile = Profile.builder().gender(Gender.M).firstname(username).lastname("doe").nationality("world")
+                .birthday(LocalDate.now()).pin(pin).placeOfBirth("world").build();
+        return User.builder().username(username).email(email).password("password").enabled(true)
+                .lastLogin(LocalDateTime.now()).profile(profile).roles(new ArrayList<>()).build();
+    }
+}
@@ -0,0 +1,107 @@
+package org.mounanga.userservice.util.implementation;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mounanga.userservice.configuration.ApplicationProperties;
+import org.mounanga.userservice.dto.SearchableUserDTO;
+import org.mounanga.userservice.repository.UserRepository;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@SpringBootTest
+class AvailabilityFilterTest {
+
+    @Mock
+    private UserRepository userRepository;
+
+    @Mock
+    private ApplicationProperties properties;
+
+    private AvailabilityFilter availabilityFilter;
+
+    @BeforeEach
+    void setUp() {
+        when(properties.getAvailabilityExpectedEntries()).thenReturn(1000L);
+        when(properties.getAvailabilityFalsePositiveRate()).thenReturn(0.01);
+        when(userRepository.findAllUniqueValues()).thenReturn(List.of(
+                new SearchableUserDTO("u1", "jdoe", "john.doe@mail.com", "John", "Doe", "PIN-001"),
+                new SearchableUserDTO("u2", "hdupont", "helene@mail.com", null, null, null)));
+        availabilityFilter = new AvailabilityFilter(userRepository, properties);
+    }
+
+    @Test
+    void everyValueMightBeTakenBeforeTheFirstRebuild() {
+        assertTrue(availabilityFilter.mightBeTakenUsername("anyone"));
+        assertTrue(availabilityFilter.mightBeTakenEmail("anyone@mail.com"));
+        assertTrue(availabilityFilter.mightBeTakenPin("PIN-999"));
+    }
+
+    @Test
+    void takenValuesAreNeverReportedFree() {
+        availabilityFilter.rebuild();
+
+        assertTrue(availabilityFilter.mightBeTakenUsername("JDoe"));
+        assertTrue(availabilityFilter.mightBeTakenEmail(" helene@mail.com"));
+        assertTrue(availabilityFilter.mightBeTakenPin("pin-001"));
+        assertFalse(availabilityFilter.mightBeTakenUsername("jsmith"));
+        assertFalse(availabilityFilter.mightBeTakenPin("PIN-002"));
+    }
+
+    @Test
+    void writesAreVisibleBeforeTheNextRebuild() {
+        availabilityFilter.rebuild();
+
+        availabilityFilter.put(new SearchableUserDTO("u3", "Jane", "jane@mail.com", "Jane", "Doe", "PIN-003"));
+
+        assertTrue(availabilityFilter.mightBeTakenUsername("jane"));
+        assertTrue(availabilityFilter.mightBeTakenEmail("jane@mail.com"));
+        assertTrue(availabilityFilter.mightBeTakenPin("PIN-003"));
+    }
+
+    @Test
+    void refreshSeesWritesOfOtherInstances() {
+        when(properties.getAvailabilityRefreshLookBack()).thenReturn(60_000L);
+        when(userRepository.findUniqueValuesModifiedSince(any(LocalDateTime.class))).thenReturn(List.of(
+                new SearchableUserDTO("u3", "jsmith", "jsmith@mail.com", "Jane", "Smith", "PIN-002")));
+        availabilityFilter.rebuild();
+
+        availabilityFilter.refresh();
+
+        assertTrue(availabilityFilter.mightBeTakenUsername("jsmith"));
+        assertTrue(availabilityFilter.mightBeTakenEmail("jsmith@mail.com"));
+        assertTrue(availabilityFilter.mightBeTakenPin("PIN-002"));
+    }
+
+    @Test
+    void refreshReadsBackFromThePreviousReadByTheLookBack() {
+        when(properties.getAvailabilityRefreshLookBack()).thenReturn(60_000L);
+        when(userRepository.findUniqueValuesModifiedSince(any(LocalDateTime.class))).thenReturn(List.of());
+        LocalDateTime beforeRebuild = LocalDateTime.now();
+        availabilityFilter.rebuild();
+
+        availabilityFilter.refresh();
+        availabilityFilter.refresh();
+
+        ArgumentCaptor<LocalDateTime> since = ArgumentCaptor.forClass(LocalDateTime.class);
+        verify(userRepository, times(2)).findUniqueValuesModifiedSince(since.capture());
+        assertFalse(since.getAllValues().get(0).isBefore(beforeRebuild.minusMinutes(1)));
+        assertTrue(since.getAllValues().get(0).isBefore(beforeRebuild));
+        assertFalse(since.getAllValues().get(1).isBefore(since.getAllValues().get(0)));
+    }
+
+    @Test
+    void refreshIsSkippedBeforeTheFirstRebuild() {
+        availabilityFilter.refresh();
+
+        verify(userRepository, never()).findUniqueValuesModifiedSince(any(LocalDateTime.class));
+        assertTrue(availabilityFilter.mightBeTakenUsername("anyone"));
+    }
+}
@@ -0,0 +1,136 @@
+package org.mounanga.userservice.util.implementation;
+
+import com.icegreen.greenmail.junit5.GreenMailExtension;
+import com.icegreen.greenmail.util.GreenMailUtil;
+import com.icegreen.greenmail.util.ServerSetupTest;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.mail.internet.MimeMessage;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+import org.mockito.Mock;
+import org.mounanga.userservice.configuration.ApplicationProperties;
+import org.mounanga.userservice.entity.MailOutbox;
+import org.mounanga.userservice.enums.MailStatus;
+import org.mounanga.userservice.enums.MailType;
+import org.mounanga.userservice.repository.MailOutboxRepository;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+import org.thymeleaf.context.IContext;
+import org.thymeleaf.spring6.SpringTemplateEngine;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@SpringBootTest
+class MailOutboxDispatcherTest {
+
+    @RegisterExtension
+    static GreenMailExtension greenMail = new GreenMailExtension(ServerSetupTest.SMTP);
+
+    @Mock
+    private MailOutboxRepository mailOutboxRepository;
+
+    @Mock
+    private SpringTemplateEngine templateEngine;
+
+    @Mock
+    private ApplicationProperties properties;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @BeforeEach
+    void setUp() {
+        when(properties.getEmailSystem()).thenReturn("donot.reply@system.com");
+        when(properties.getMailOutboxBatchSize()).thenReturn(50);
+        when(properties.getMailOutboxLease()).thenReturn(300000L);
+        when(properties.getMailOutboxMaxAttempts()).thenReturn(3);
+        when(properties.getMailOutboxInitialBackoff()).thenReturn(30000L);
+        when(properties.getMailOutboxMaxBackoff()).thenReturn(120000L);
+        when(transactionManager.getTransaction(any())).thenReturn(new SimpleTransactionStatus());
+        when(templateEngine.process(anyString(), any(IContext.class)))
+                .thenAnswer(invocation -> "<p>" + ((IContext) invocation.getArgument(1)).getVariable("data") + "</p>");
+    }
+
+    @Test
+    void dispatchSendsDueMailsAndMarksThemSent() throws Exception {
+        MailOutboxDispatcher dispatcher = dispatcher(ServerSetupTest.SMTP.getPort());
+        when(mailOutboxRepository.findDueForUpdate(any(LocalDateTime.class), eq(50)))
+                .thenReturn(new ArrayList<>(List.of(mail(1L, "john@example.com", 0), mail(2L, "jane@example.com", 0))));
+
+        dispatcher.dispatch();
+
+        MimeMessage[] received = greenMail.getReceivedMessages();
+        assertEquals(2, received.length);
+        assertEquals("Subject", received[0].getSubject());
+        assertTrue(GreenMailUtil.getBody(received[0]).contains("Body"));
+        verify(mailOutboxRepository).markSent(eq(List.of(1L, 2L)), any(LocalDateTime.class));
+        verify(mailOutboxRepository, never()).reschedule(anyLong(), any(), any(), any());
+    }
+
+    @Test
+    void dispatchRetriesWithBackoffWhenSmtpIsDown() {
+        MailOutboxDispatcher dispatcher = dispatcher(1);
+        MailOutbox mail = mail(1L, "john@example.com", 0);
+        when(mailOutboxRepository.findDueForUpdate(any(LocalDateTime.class), eq(50))).thenReturn(new ArrayList<>(List.of(mail)));
+        LocalDateTime before = LocalDateTime.now();
+
+        dispatcher.dispatch();
+
+        assertEquals(1, mail.getAttempts());
+        verify(mailOutboxRepository).reschedule(eq(1L), eq(MailStatus.PENDING),
+                argThat(next -> !next.isBefore(before.plusSeconds(30))), any());
+        verify(mailOutboxRepository, never()).markSent(any(), any());
+    }
+
+    @Test
+    void dispatchGivesUpAfterMaxAttempts() {
+        MailOutboxDispatcher dispatcher = dispatcher(1);
+        when(mailOutboxRepository.findDueForUpdate(any(LocalDateTime.class), eq(50)))
+                .thenReturn(new ArrayList<>(List.of(mail(1L, "john@example.com", 2))));
+
+        dispatcher.dispatch();
+
+        verify(mailOutboxRepository).reschedule(eq(1L), eq(MailStatus.FAILED), any(), any());
+    }
+
+    @Test
+    void backoffDoublesUpToTheMaximum() {
+        MailOutboxDispatcher dispatcher = dispatcher(ServerSetupTest.SMTP.getPort());
+
+        assertEquals(Duration.ofSeconds(30), dispatcher.backoff(1));
+        assertEquals(Duration.ofSeconds(60), dispatcher.backoff(2));
+        assertEquals(Duration.ofSeconds(120), dispatcher.backoff(3));
+        assertEquals(Duration.ofSeconds(120), dispatcher.backoff(10));
+    }
+
+    private MailOutboxDispatcher dispatcher(int port) {
+        JavaMailSenderImpl mailSender = new JavaMailSenderImpl();
+        mailSender.setHost("localhost");
+        mailSender.setPort(port);
+        return new MailOutboxDispatcher(mailOutboxRepository, mailSender, new MailTemplates(templateEngine), properties, transactionManager, Runnable::run, new SimpleMeterRegistry());
+    }
+
+    private static MailOutbox mail(Long id, String recipient, int attempts) {
+        return MailOutbox.builder()
+                .id(id)
+                .recipient(recipient)
+                .type(MailType.LOGIN_NOTIFICATION)
+                .subject("Subject")
+                .body("Body")
+                .status(MailStatus.PENDING)
+                .attempts(attempts)
+                .nextAttemptAt(LocalDateTime.now())
+                .createdDate(LocalDateTime.now())
+                .build();
+    }
+}
@@ -0,0 +1,51 @@
+package org.mounanga.userservice.util.implementation;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mounanga.userservice.enums.MailType;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.thymeleaf.context.Context;
+import org.thymeleaf.spring6.SpringTemplateEngine;
+import org.thymeleaf.templateresolver.ClassLoaderTemplateResolver;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+class MailTemplatesTest {
+
+    private SpringTemplateEngine templateEngine;
+
+    private MailTemplates mailTemplates;
+
+    @BeforeEach
+    void setUp() {
+        ClassLoaderTemplateResolver resolver = new ClassLoaderTemplateResolver();
+        resolver.setPrefix("templates/");
+        templateEngine = new SpringTemplateEngine();
+        templateEngine.setTemplateResolver(resolver);
+        mailTemplates = new MailTemplates(templateEngine);
+    }
+
+    @Test
+    void renderMatchesAFullThymeleafRendering() {
+        String data = """
+                Hello <John> & "Jane" O'Neil,
+                Here is your verification code: 123456.
+                """;
+        Context context = new Context();
+        context.setVariable("title", MailType.PASSWORD_RESET_CODE.getTitle());
+        context.setVariable("data", data);
+
+        String expected = templateEngine.process("notification.html", context);
+
+        assertEquals(expected, mailTemplates.render(MailType.PASSWORD_RESET_CODE, data));
+    }
+
+    @Test
+    void renderUsesTheTitleOfTheMailType() {
+        String page = mailTemplates.render(MailType.LOGIN_NOTIFICATION, "data");
+
+        assertTrue(page.contains("<h1>LOGIN NOTIFICATION</h1>"));
+        assertFalse(page.contains("PASSWORD"));
+    }
+}
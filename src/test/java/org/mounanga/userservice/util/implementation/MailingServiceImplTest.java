@@ -0,0 +1,50 @@
+package org.mounanga.userservice.util.implementation;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mounanga.userservice.entity.MailOutbox;
+import org.mounanga.userservice.enums.MailStatus;
+import org.mounanga.userservice.enums.MailType;
+import org.mounanga.userservice.repository.MailOutboxRepository;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@SpringBootTest
+class MailingServiceImplTest {
+
+    @Mock
+    private MailOutboxRepository mailOutboxRepository;
+
+    @Mock
+    private MailOutboxDispatcher mailOutboxDispatcher;
+
+    @InjectMocks
+    private MailingServiceImpl mailingService;
+
+    @BeforeEach
+    void setUp() {
+        mailingService = new MailingServiceImpl(mailOutboxRepository, mailOutboxDispatcher);
+    }
+
+    @Test
+    void sendMailQueuesAPendingMail() {
+        mailingService.sendMail("john@example.com", MailType.PASSWORD_RESET_CODE, "Body");
+
+        ArgumentCaptor<MailOutbox> captor = ArgumentCaptor.forClass(MailOutbox.class);
+        verify(mailOutboxRepository).save(captor.capture());
+        MailOutbox mail = captor.getValue();
+        assertEquals("john@example.com", mail.getRecipient());
+        assertEquals(MailType.PASSWORD_RESET_CODE, mail.getType());
+        assertEquals("Password Reset Code", mail.getSubject());
+        assertEquals("Body", mail.getBody());
+        assertEquals(MailStatus.PENDING, mail.getStatus());
+        assertEquals(0, mail.getAttempts());
+        assertNotNull(mail.getNextAttemptAt());
+        verify(mailOutboxDispatcher).trigger();
+    }
+}
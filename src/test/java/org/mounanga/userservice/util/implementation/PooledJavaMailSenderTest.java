@@ -0,0 +1,119 @@
+package org.mounanga.userservice.util.implementation;
+
+import com.icegreen.greenmail.junit5.GreenMailExtension;
+import com.icegreen.greenmail.util.ServerSetupTest;
+import jakarta.mail.MessagingException;
+import jakarta.mail.Transport;
+import jakarta.mail.internet.MimeMessage;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+import org.springframework.mail.javamail.MimeMessageHelper;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+class PooledJavaMailSenderTest {
+
+    private static final int BATCHES = 50;
+    private static final int BATCH_SIZE = 5;
+
+    @RegisterExtension
+    static GreenMailExtension greenMail = new GreenMailExtension(ServerSetupTest.SMTP);
+
+    @Test
+    void reusesTheConnectionAcrossBatches() throws Exception {
+        PooledJavaMailSender sender = pooledSender(Duration.ofMinutes(1));
+
+        for (int i = 0; i < 3; i++) {
+            sender.send(batch(sender, BATCH_SIZE));
+        }
+
+        assertEquals(3 * BATCH_SIZE, greenMail.getReceivedMessages().length);
+        assertEquals(1, sender.getCreatedCount());
+        assertEquals(1, sender.getIdleCount());
+        assertEquals(0, sender.getActiveCount());
+        sender.destroy();
+    }
+
+    @Test
+    void evictsIdleConnections() throws Exception {
+        PooledJavaMailSender sender = pooledSender(Duration.ofMillis(1));
+        sender.send(batch(sender, 1));
+        Thread.sleep(5);
+
+        sender.evictIdleTransports();
+
+        assertEquals(0, sender.getIdleCount());
+    }
+
+    @Test
+    void replacesABrokenPooledConnection() throws Exception {
+        PooledJavaMailSender sender = new PooledJavaMailSender(2, Duration.ofMinutes(1), Duration.ZERO, Duration.ofSeconds(5));
+        configure(sender);
+        sender.send(batch(sender, 1));
+
+        greenMail.reset();
+        sender.send(batch(sender, 1));
+
+        assertEquals(1, greenMail.getReceivedMessages().length);
+        assertEquals(2, sender.getCreatedCount());
+        sender.destroy();
+    }
+
+    @Test
+    void opensOneConnectionInsteadOfOnePerBatch() throws Exception {
+        AtomicInteger plainConnections = new AtomicInteger();
+        JavaMailSenderImpl plainSender = new JavaMailSenderImpl() {
+            @Override
+            protected Transport connectTransport() throws MessagingException {
+                plainConnections.incrementAndGet();
+                return super.connectTransport();
+            }
+        };
+        configure(plainSender);
+        PooledJavaMailSender pooledSender = pooledSender(Duration.ofMinutes(1));
+
+        sendBatches(plainSender);
+        sendBatches(pooledSender);
+
+        assertEquals(2 * BATCHES * BATCH_SIZE, greenMail.getReceivedMessages().length);
+        assertEquals(BATCHES, plainConnections.get());
+        assertEquals(1, pooledSender.getCreatedCount());
+        pooledSender.destroy();
+    }
+
+    private static void sendBatches(JavaMailSenderImpl sender) throws Exception {
+        for (int i = 0; i < BATCHES; i++) {
+            sender.send(batch(sender, BATCH_SIZE));
+        }
+    }
+
+    private PooledJavaMailSender pooledSender(Duration maxIdle) {
+        PooledJavaMailSender sender = new PooledJavaMailSender(2, maxIdle, Duration.ofSeconds(5), Duration.ofSeconds(5));
+        configure(sender);
+        return sender;
+    }
+
+    private static void configure(JavaMailSenderImpl sender) {
+        sender.setHost("localhost");
+        sender.setPort(ServerSetupTest.SMTP.getPort());
+    }
+
+    private static MimeMessage[] batch(JavaMailSenderImpl sender, int size) throws Exception {
+        MimeMessage[] messages = new MimeMessage[size];
+        for (int i = 0; i < size; i++) {
+            messages[i] = sender.createMimeMessage();
+            MimeMessageHelper helper = new MimeMessageHelper(messages[i]);
+            helper.setFrom("donot.reply@system.com");
+            helper.setTo("user" + i + "@example.com");
+            helper.setSubject("Subject " + i);
+            helper.setText("Body " + i);
+        }
+        return messages;
+    }
+}
@@ -0,0 +1,98 @@
+package org.mounanga.userservice.util.implementation;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mounanga.userservice.configuration.ApplicationProperties;
+import org.mounanga.userservice.dto.SearchableUserDTO;
+import org.mounanga.userservice.repository.UserRepository;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.when;
+
+@SpringBootTest
+class UserSearchIndexTest {
+
+    @Mock
+    private UserRepository userRepository;
+
+    @Mock
+    private ApplicationProperties properties;
+
+    private UserSearchIndex userSearchIndex;
+
+    @BeforeEach
+    void setUp() {
+        when(properties.getSearchMaxResults()).thenReturn(1000);
+        when(userRepository.findAllSearchable()).thenReturn(List.of(
+                new SearchableUserDTO("u1", "jdoe", "jdoe@mail.com", "John", "Doe", "PIN-001"),
+                new SearchableUserDTO("u2", "jwalker", "jwalker@mail.com", "Johnny", "Walker", "PIN-002"),
+                new SearchableUserDTO("u3", "hdupont", "hdupont@mail.com", "Hélène", "Dupont", "PIN-003")));
+        userSearchIndex = new UserSearchIndex(userRepository, properties);
+        userSearchIndex.rebuild();
+    }
+
+    @Test
+    void searchMatchesPrefixesAndRanksExactMatchesFirst() {
+        assertEquals(List.of("u1", "u2"), userSearchIndex.search("john").userIds());
+        assertEquals(List.of("u2"), userSearchIndex.search("johnn").userIds());
+    }
+
+    @Test
+    void searchRequiresEveryTokenToMatch() {
+        assertEquals(List.of("u1"), userSearchIndex.search("jo do").userIds());
+        assertTrue(userSearchIndex.search("john dupont").userIds().isEmpty());
+    }
+
+    @Test
+    void searchIgnoresCaseAndAccents() {
+        assertEquals(List.of("u3"), userSearchIndex.search("HELENE").userIds());
+        assertEquals(List.of("u3"), userSearchIndex.search("pin-003").userIds());
+    }
+
+    @Test
+    void putAndRemoveKeepTheIndexInSync() {
+        userSearchIndex.put(new SearchableUserDTO("u4", "jane", "jane@mail.com", "Jane", "Doe", "PIN-004"));
+        assertEquals(List.of("u1", "u4"), userSearchIndex.search("doe").userIds());
+
+        userSearchIndex.put(new SearchableUserDTO("u4", "jane", "jane@mail.com", "Jane", "Smith", "PIN-004"));
+        assertEquals(List.of("u1"), userSearchIndex.search("doe").userIds());
+        assertEquals(List.of("u4"), userSearchIndex.search("smi").userIds());
+
+        userSearchIndex.remove("u4");
+        assertTrue(userSearchIndex.search("smith").userIds().isEmpty());
+        assertEquals(3, userSearchIndex.size());
+    }
+
+    @Test
+    void searchPagesOverTheRankedMatchesAndCountsThemAll() {
+        userSearchIndex.put(new SearchableUserDTO("u4", "jane", "jane@mail.com", "Jo", "Doe", "PIN-004"));
+
+        UserSearchIndex.Hits first = userSearchIndex.search("jo", 0, 2);
+        UserSearchIndex.Hits second = userSearchIndex.search("jo", 2, 2);
+
+        assertEquals(List.of("u4", "u1"), first.userIds());
+        assertEquals(List.of("u2"), second.userIds());
+        assertEquals(3, first.total());
+        assertEquals(3, second.total());
+        assertTrue(userSearchIndex.search("jo", 4, 2).userIds().isEmpty());
+    }
+
+    @Test
+    void searchIsCappedAtMaxResultsButReportsTheTotal() {
+        when(properties.getSearchMaxResults()).thenReturn(1);
+
+        UserSearchIndex.Hits hits = userSearchIndex.search("john");
+
+        assertEquals(List.of("u1"), hits.userIds());
+        assertEquals(2, hits.total());
+    }
+
+    @Test
+    void blankQueryReturnsNothing() {
+        assertTrue(userSearchIndex.search("  ").userIds().isEmpty());
+    }
+}
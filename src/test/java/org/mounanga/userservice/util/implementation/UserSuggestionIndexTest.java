@@ -0,0 +1,82 @@
+package org.mounanga.userservice.util.implementation;
+
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mounanga.userservice.dto.SearchableUserDTO;
+import org.mounanga.userservice.repository.UserRepository;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.when;
+
+@Slf4j
+@SpringBootTest
+class UserSuggestionIndexTest {
+
+    @Mock
+    private UserRepository userRepository;
+
+    private UserSuggestionIndex userSuggestionIndex;
+
+    @BeforeEach
+    void setUp() {
+        when(userRepository.findAllSearchable()).thenReturn(List.of(
+                new SearchableUserDTO("u1", "jdoe", "john.doe@mail.com", "John", "Doe", "PIN-001"),
+                new SearchableUserDTO("u2", "jwalker", "johnny@mail.com", "Johnny", "Walker", "PIN-002"),
+                new SearchableUserDTO("u3", "hdupont", "helene@mail.com", "Hélène", "Dupont", "PIN-003")));
+        userSuggestionIndex = new UserSuggestionIndex(userRepository);
+        userSuggestionIndex.rebuild();
+    }
+
+    @Test
+    void suggestMatchesUsernamesEmailsAndNames() {
+        assertEquals(List.of("u1"), userSuggestionIndex.suggest("jd", 10));
+        assertEquals(List.of("u2"), userSuggestionIndex.suggest("johnny@", 10));
+        assertEquals(List.of("u1", "u2"), userSuggestionIndex.suggest("john", 10));
+        assertEquals(List.of("u1"), userSuggestionIndex.suggest("Doe J", 10));
+        assertEquals(List.of("u3"), userSuggestionIndex.suggest("HELE", 10));
+    }
+
+    @Test
+    void suggestHonoursTheLimit() {
+        assertEquals(List.of("u1"), userSuggestionIndex.suggest("j", 1));
+        assertTrue(userSuggestionIndex.suggest(" ", 10).isEmpty());
+        assertTrue(userSuggestionIndex.suggest("j", 0).isEmpty());
+    }
+
+    @Test
+    void writesAreVisibleBeforeTheNextRebuild() {
+        userSuggestionIndex.put(new SearchableUserDTO("u4", "jane", "jane@mail.com", "Jane", "Doe", "PIN-004"));
+        assertEquals(List.of("u4", "u1"), userSuggestionIndex.suggest("doe", 10));
+
+        userSuggestionIndex.put(new SearchableUserDTO("u1", "jsmith", "john.smith@mail.com", "John", "Smith", "PIN-001"));
+        assertEquals(List.of("u4"), userSuggestionIndex.suggest("doe", 10));
+        assertEquals(List.of("u1"), userSuggestionIndex.suggest("jsm", 10));
+
+        userSuggestionIndex.remove("u4");
+        assertTrue(userSuggestionIndex.suggest("doe", 10).isEmpty());
+        assertTrue(userSuggestionIndex.suggest("jane", 10).isEmpty());
+    }
+
+    @Test
+    void suggestionLatencyOnALargeIndex() {
+        List<SearchableUserDTO> users = new ArrayList<>();
+        for (int i = 0; i < 200_000; i++) {
+            users.add(new SearchableUserDTO("u" + i, "user" + i, "user" + i + "@mail.com", "First" + i, "Last" + i, "PIN-" + i));
+        }
+        when(userRepository.findAllSearchable()).thenReturn(users);
+        userSuggestionIndex.rebuild();
+        int lookups = 10_000;
+        long start = System.nanoTime();
+        for (int i = 0; i < lookups; i++) {
+            assertFalse(userSuggestionIndex.suggest("user" + (i * 17), 10).isEmpty());
+        }
+        long averageNanos = (System.nanoTime() - start) / lookups;
+        log.info("average suggestion lookup over {} keys: {} µs", userSuggestionIndex.size(), averageNanos / 1_000);
+    }
+}